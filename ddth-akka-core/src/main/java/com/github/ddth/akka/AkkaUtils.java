@@ -1,13 +1,18 @@
 package com.github.ddth.akka;
 
 import akka.actor.*;
+import com.github.ddth.akka.scheduling.WorkerMetrics;
+import com.github.ddth.akka.scheduling.messages.GetWorkerMetricsMessage;
+import com.github.ddth.akka.scheduling.messages.GetWorkerMetricsResponseMessage;
 import com.github.ddth.commons.utils.TypesafeConfigUtils;
 import com.typesafe.config.Config;
 import org.apache.commons.lang3.StringUtils;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -124,4 +129,39 @@ public class AkkaUtils {
         }
         return result;
     }
+
+    /**
+     * Collect execution metrics of all workers on a node.
+     *
+     * <p>A {@link GetWorkerMetricsMessage} is published to the actor system's event stream, responses are collected
+     * until {@code duration} elapses.</p>
+     *
+     * @param actorSystem
+     * @param duration    wait up to this duration while collecting responses
+     * @return map of {worker-name:metrics-snapshot}, empty map if no worker responds
+     * @since 1.2.0
+     */
+    public static Map<String, WorkerMetrics.Snapshot> collectWorkerMetrics(ActorSystem actorSystem,
+            Duration duration) {
+        Map<String, WorkerMetrics.Snapshot> result = new HashMap<>();
+        Inbox inbox = Inbox.create(actorSystem);
+        GetWorkerMetricsMessage request = new GetWorkerMetricsMessage(inbox.getRef());
+        actorSystem.eventStream().publish(request);
+        long deadline = System.currentTimeMillis() + duration.toMillis();
+        long remainingMs;
+        while ((remainingMs = deadline - System.currentTimeMillis()) > 0) {
+            try {
+                Object msg = inbox.receive(Duration.ofMillis(remainingMs));
+                if (msg instanceof GetWorkerMetricsResponseMessage) {
+                    GetWorkerMetricsResponseMessage response = (GetWorkerMetricsResponseMessage) msg;
+                    if (StringUtils.equals(request.getId(), response.getReplyToId()) && response.metrics != null) {
+                        result.put(response.metrics.name, response.metrics);
+                    }
+                }
+            } catch (TimeoutException e) {
+                break;
+            }
+        }
+        return result;
+    }
 }
@@ -9,20 +9,32 @@ import akka.cluster.pubsub.DistributedPubSub;
 import akka.cluster.pubsub.DistributedPubSubMediator;
 import com.github.ddth.akka.BaseActor;
 import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
-import com.github.ddth.akka.cluster.DistributedDataUtils.DDLock;
 import com.github.ddth.akka.cluster.DistributedDataUtils.DDTags;
+import com.github.ddth.akka.cluster.messages.MembershipChangedMessage;
 import com.github.ddth.akka.utils.AkkaUtils;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.typesafe.config.Config;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.concurrent.duration.Duration;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Base class to implement Akka cluster actors.
@@ -38,6 +50,21 @@ import java.util.concurrent.locks.LockSupport;
  * <li>Coordination: actors are independent, cluster-nodes can share data via {@link DistributedData}.</li>
  * </ul>
  *
+ * <p>
+ * Distributed-data layout (since v1.2.0, see {@link #getDDShards()}):
+ * </p>
+ *
+ * <ul>
+ * <li>Single (default): all records and locks of the actor are stored in one {@link ORMultiMap}.</li>
+ * <li>Sharded: records are hashed into {@code N} {@link LWWMap}s, locks into {@code N} {@link ORMultiMap}s. A write
+ * gossips, and a read fetches, only the shard of the accessed key.</li>
+ * </ul>
+ *
+ * <p>
+ * Near-cache (since v1.2.0, see {@link #getDDNearCacheSize()}): latest replicated values are kept locally and
+ * {@link Replicator#readLocal()} reads are served from it.
+ * </p>
+ *
  * @author Thanh Nguyen <btnguyen2k@gmail.com>
  * @since 0.1.3
  */
@@ -62,6 +89,9 @@ public class BaseClusterActor extends BaseActor {
 
     protected Cluster cluster = Cluster.get(getContext().system());
 
+    private final DDLockManager ddLockManager = DDLockManager.get(getContext().getSystem());
+    private final DDRequestCorrelator ddRequestCorrelator = DDRequestCorrelator.get(getContext().getSystem());
+
     /**
      * Distributed pub-sub mediator used to send messages to cluster's message groups.
      *
@@ -108,21 +138,318 @@ public class BaseClusterActor extends BaseActor {
         return getActorPath().name();
     }
 
-    private static boolean containsOrExpires(scala.collection.Set<Object> set, DistributedDataUtils.DDLock lock) {
-        if (set.contains(lock)) {
-            return true;
+    private int ddShards = 0;
+    private LWWMapKey<String, Object>[] ddShardKeys;
+    private ORMultiMapKey<String, Object>[] ddLockShardKeys;
+
+    /**
+     * Number of distributed-data shards. {@code 0} (default) means all records and locks are stored in one
+     * {@link ORMultiMap} keyed by {@link #getDdKeyId()}.
+     *
+     * <p>
+     * If {@code N > 0}, a record {@code key} is stored in the {@link LWWMap} {@code <dd-key-id>-<shard>}, a lock
+     * {@code key} in the {@link ORMultiMap} {@code <dd-key-id>-lock-<shard>}, where
+     * {@code shard = floorMod(key.hashCode(), N)}. A record holds a single value (last writer wins).
+     * </p>
+     *
+     * <p>
+     * Note: all nodes must use the same number of shards. Akka's distributed-data is designed for a limited number
+     * of top-level entries, keep {@code N} small (tens to hundreds).
+     * </p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected int getDDShards() {
+        return ddShards;
+    }
+
+    /**
+     * Number of distributed-data shards. Must be set before the actor starts.
+     *
+     * @param ddShards
+     * @return
+     * @since 1.2.0
+     */
+    public BaseClusterActor setDDShards(int ddShards) {
+        this.ddShards = Math.max(ddShards, 0);
+        this.ddShardKeys = null;
+        this.ddLockShardKeys = null;
+        return this;
+    }
+
+    /**
+     * Shard index of a record/lock key.
+     *
+     * @param key
+     * @param numShards
+     * @return
+     * @since 1.2.0
+     */
+    public static int ddShardOf(String key, int numShards) {
+        return Math.floorMod(key != null ? key.hashCode() : 0, numShards);
+    }
+
+    /**
+     * (Sharded layout) Distributed-data key of the shard storing record {@code key}.
+     *
+     * @param key
+     * @return
+     * @since 1.2.0
+     */
+    @SuppressWarnings("unchecked")
+    protected LWWMapKey<String, Object> ddShardKey(String key) {
+        int numShards = getDDShards();
+        if (ddShardKeys == null || ddShardKeys.length != numShards) {
+            LWWMapKey<String, Object>[] keys = (LWWMapKey<String, Object>[]) new LWWMapKey<?, ?>[numShards];
+            for (int i = 0; i < numShards; i++) {
+                keys[i] = new LWWMapKey<>(getDdKeyId() + "-" + i);
+            }
+            ddShardKeys = keys;
+        }
+        return ddShardKeys[ddShardOf(key, numShards)];
+    }
+
+    private Key<?> ddDataKeyOf(String key) {
+        return getDDShards() > 0 ? ddShardKey(key) : dataKey;
+    }
+
+    /**
+     * Distributed-data key storing lock {@code key}.
+     *
+     * @param key
+     * @return
+     * @since 1.2.0
+     */
+    @SuppressWarnings("unchecked")
+    protected Key<ORMultiMap<String, Object>> ddLockKey(String key) {
+        int numShards = getDDShards();
+        if (numShards <= 0) {
+            return dataKey;
         }
-        for (scala.collection.Iterator<Object> it = set.iterator(); it.hasNext(); ) {
-            Object obj = it.next();
-            if (obj instanceof DistributedDataUtils.DDLock) {
-                // current lock expired
-                DistributedDataUtils.DDLock _lock = (DistributedDataUtils.DDLock) obj;
-                if (_lock.expiry < System.currentTimeMillis()) {
-                    return true;
-                }
+        if (ddLockShardKeys == null || ddLockShardKeys.length != numShards) {
+            ORMultiMapKey<String, Object>[] keys = (ORMultiMapKey<String, Object>[]) new ORMultiMapKey<?, ?>[numShards];
+            for (int i = 0; i < numShards; i++) {
+                keys[i] = new ORMultiMapKey<>(getDdKeyId() + "-lock-" + i);
             }
+            ddLockShardKeys = keys;
         }
-        return false;
+        return ddLockShardKeys[ddShardOf(key, numShards)];
+    }
+
+    private int ddNearCacheSize = 0;
+    private Cache<String, Collection<Object>> ddNearCache;
+    private final Set<Key<?>> ddNearCacheKeys = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Max number of records in the near-cache. {@code 0} (default) means near-cache is disabled.
+     *
+     * <p>
+     * If enabled, the actor subscribes to changes of its distributed-data (all shards, or shards of
+     * {@link #getDDChangesSubscribedKeys()} for the sharded layout) and keeps the latest replicated value of the
+     * records it reads or writes, least-recently-used records are evicted. The near-cache of a distributed-data key is
+     * used only once a {@link Replicator.Changed} notification for that key has arrived: a {@code ddGet} with
+     * {@link Replicator#readLocal()} is then served from the near-cache (read-through to the local replica on miss);
+     * other keys, and stronger read consistencies, always go to the replicator.
+     * </p>
+     *
+     * <p>
+     * Note: change notifications are throttled by {@code akka.cluster.distributed-data.notify-subscribers-interval}.
+     * Writes made by this actor are reflected in the near-cache immediately.
+     * </p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected int getDDNearCacheSize() {
+        return ddNearCacheSize;
+    }
+
+    /**
+     * Max number of records in the near-cache. Must be set before the actor starts.
+     *
+     * @param ddNearCacheSize
+     * @return
+     * @since 1.2.0
+     */
+    public BaseClusterActor setDDNearCacheSize(int ddNearCacheSize) {
+        this.ddNearCacheSize = Math.max(ddNearCacheSize, 0);
+        return this;
+    }
+
+    private boolean isDDNearCacheEnabled() {
+        return ddNearCache != null;
+    }
+
+    /**
+     * Near-cache is only trusted for distributed-data keys that are subscribed to.
+     */
+    private boolean isDDNearCached(String key) {
+        return ddNearCache != null && ddNearCacheKeys.contains(ddDataKeyOf(key));
+    }
+
+    private void ddNearCachePut(String key, Collection<Object> value) {
+        if (isDDNearCached(key)) {
+            ddNearCache.put(key, value != null ? Collections.unmodifiableSet(new LinkedHashSet<>(value)) :
+                    Collections.emptySet());
+        }
+    }
+
+    private void ddNearCacheInvalidate(String key) {
+        if (isDDNearCached(key)) {
+            ddNearCache.invalidate(key);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void ddNearCacheRefresh(Key<?> key, Object data) {
+        Map<String, ? extends Collection<Object>> entries;
+        if (data instanceof ORMultiMap) {
+            entries = ((ORMultiMap<String, Object>) data).getEntries();
+        } else if (data instanceof LWWMap) {
+            Map<String, Collection<Object>> _entries = new LinkedHashMap<>();
+            ((LWWMap<String, Object>) data).getEntries().forEach((k, v) -> _entries.put(k, Collections.singleton(v)));
+            entries = _entries;
+        } else {
+            return;
+        }
+        // refresh cached records only, other records are read-through on demand: a change does not evict
+        // recently-used records
+        ddNearCache.asMap().keySet().removeIf(k -> !entries.containsKey(k) && key.equals(ddDataKeyOf(k)));
+        entries.forEach(
+                (k, v) -> ddNearCache.asMap().replace(k, Collections.unmodifiableSet(new LinkedHashSet<>(v))));
+    }
+
+    /**
+     * Check if the actor's distributed-data is stored in the durable store (configured via
+     * {@link DistributedDataUtils#withDurableKeys(Config, Collection, String, long)}), i.e.
+     * survives a full-cluster restart.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean isDDDurable() {
+        Config config = getContext().getSystem().settings().config();
+        return DistributedDataUtils.isDurableKey(config, dataKey.id()) && (getDDShards() <= 0 || DistributedDataUtils
+                .isDurableKey(config, getDdKeyId() + "-0"));
+    }
+
+    /**
+     * Lock manager used by {@link #ddLockAsync(String, String, long, TimeUnit)} and
+     * {@link #ddUnlockAsync(String, String)}.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected DDLockManager getDDLockManager() {
+        return ddLockManager;
+    }
+
+    /**
+     * Acquire a lock specified by {@code key}, using Akka's distributed-data
+     * APIs, asynchronously (see {@link DDLockManager}).
+     *
+     * <p>
+     * Note: lock is reentrant: re-locking with the same {@code lockId} renews the lock.
+     * </p>
+     *
+     * @param key
+     * @param lockId
+     * @param lockTimeout
+     * @param lockTimeoutUnit
+     * @return a stage that completes with {@code true} if the lock was acquired
+     * @since 1.2.0
+     */
+    protected CompletionStage<Boolean> ddLockAsync(String key, String lockId, long lockTimeout,
+            TimeUnit lockTimeoutUnit) {
+        return getDDLockManager().lock(ddLockKey(key), key, lockId, lockTimeout, lockTimeoutUnit, lockWriteConsistency,
+                lockReadConsistency);
+    }
+
+    /**
+     * Release a lock specified by {@code key}, using Akka's distributed-data
+     * APIs, asynchronously (see {@link DDLockManager}).
+     *
+     * @param key
+     * @param lockId
+     * @return a stage that completes with {@code true} if the lock has been released
+     * @since 1.2.0
+     */
+    protected CompletionStage<Boolean> ddUnlockAsync(String key, String lockId) {
+        return getDDLockManager().unlock(ddLockKey(key), key, lockId, lockWriteConsistency);
+    }
+
+    private boolean await(CompletionStage<Boolean> stage) {
+        try {
+            return stage.toCompletableFuture().get(defaultDDGetTimeoutMs, TimeUnit.MILLISECONDS).booleanValue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Acquire (or renew) a permit of a cluster-wide counting semaphore specified by {@code key}, asynchronously
+     * (see {@link DDLockManager#acquire(Key, String, String, int, long, TimeUnit, Replicator.WriteConsistency,
+     * ReadConsistency)}).
+     *
+     * @param key
+     * @param permitId         re-acquiring with the same id renews the permit's lease
+     * @param permits          max number of permits held at the same time across the cluster
+     * @param leaseTimeout
+     * @param leaseTimeoutUnit
+     * @return a stage that completes with {@code true} if the permit was acquired
+     * @since 1.2.0
+     */
+    protected CompletionStage<Boolean> ddAcquirePermitAsync(String key, String permitId, int permits,
+            long leaseTimeout, TimeUnit leaseTimeoutUnit) {
+        return getDDLockManager()
+                .acquire(ddLockKey(key), key, permitId, permits, leaseTimeout, leaseTimeoutUnit, lockWriteConsistency,
+                        lockReadConsistency);
+    }
+
+    /**
+     * Release a permit of a cluster-wide counting semaphore specified by {@code key}, asynchronously.
+     *
+     * @param key
+     * @param permitId
+     * @return a stage that completes with {@code true} if the permit has been released
+     * @since 1.2.0
+     */
+    protected CompletionStage<Boolean> ddReleasePermitAsync(String key, String permitId) {
+        return getDDLockManager().release(ddLockKey(key), key, permitId, lockWriteConsistency);
+    }
+
+    /**
+     * Acquire (or renew) a permit of a cluster-wide counting semaphore specified by {@code key}, waiting up to
+     * {@code defaultDDGetTimeoutMs}.
+     *
+     * @param key
+     * @param permitId
+     * @param permits
+     * @param leaseTimeout
+     * @param leaseTimeoutUnit
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean ddAcquirePermit(String key, String permitId, int permits, long leaseTimeout,
+            TimeUnit leaseTimeoutUnit) {
+        return await(ddAcquirePermitAsync(key, permitId, permits, leaseTimeout, leaseTimeoutUnit));
+    }
+
+    /**
+     * Release a permit of a cluster-wide counting semaphore specified by {@code key}, waiting up to
+     * {@code defaultDDGetTimeoutMs}.
+     *
+     * @param key
+     * @param permitId
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean ddReleasePermit(String key, String permitId) {
+        return await(ddReleasePermitAsync(key, permitId));
     }
 
     /**
@@ -137,21 +464,14 @@ public class BaseClusterActor extends BaseActor {
      * Note: This feature is experimental! The lock is considered "weak".
      * </p>
      *
+     * <p>Since v1.2.0, this method waits for {@link #ddLockAsync(String, String, long, TimeUnit)} to complete
+     * (up to {@code defaultDDGetTimeoutMs}).</p>
+     *
      * @param lockId
      * @return
      */
     protected boolean ddLock(String key, String lockId, long lockTimeout, TimeUnit lockTimeoutUnit) {
-        DDLock lock = new DDLock(lockId, lockTimeout, lockTimeoutUnit);
-        DDTags tags = new DDTags(AkkaUtils.nextIdLong(), key);
-        Replicator.Update<ORMultiMap<String, Object>> update = new Replicator.Update<>(dataKey, ORMultiMap.create(),
-                lockWriteConsistency, Optional.of(tags),
-                curr -> !curr.contains(key) || containsOrExpires(curr.get(key).get(), lock) ?
-                        curr.put(getSelfUniqueAddress(), key, Collections.singleton(lock)) :
-                        curr);
-        replicator.tell(update, self());
-        DDGetResult getResult = ddGet(tags, lockReadConsistency, defaultDDGetTimeoutMs, TimeUnit.MILLISECONDS);
-        boolean result = getResult != null && getResult.valueContains(lock);
-        return result;
+        return await(ddLockAsync(key, lockId, lockTimeout, lockTimeoutUnit));
     }
 
     /**
@@ -162,22 +482,30 @@ public class BaseClusterActor extends BaseActor {
      * Note: This feature is experimental! The lock is considered "weak".
      * </p>
      *
+     * <p>Since v1.2.0, this method waits for {@link #ddUnlockAsync(String, String)} to complete
+     * (up to {@code defaultDDGetTimeoutMs}).</p>
+     *
      * @param key
      * @param lockId
      * @return
      */
     protected boolean ddUnlock(String key, String lockId) {
-        DDLock lock = new DDLock(lockId);
-        DDTags tags = new DDTags(AkkaUtils.nextIdLong(), key);
-        Replicator.Update<ORMultiMap<String, Object>> update = new Replicator.Update<>(dataKey, ORMultiMap.create(),
-                lockWriteConsistency, Optional.of(tags),
-                curr -> curr.contains(key) && containsOrExpires(curr.get(key).get(), lock) ?
-                        curr.remove(getSelfUniqueAddress(), key) :
-                        curr);
-        replicator.tell(update, self());
-        DDGetResult getResult = ddGet(tags, lockReadConsistency, defaultDDGetTimeoutMs, TimeUnit.MILLISECONDS);
-        boolean result = getResult != null && (getResult.isNotFound() || getResult.isNullOrEmpty());
-        return result;
+        return await(ddUnlockAsync(key, lockId));
+    }
+
+    /**
+     * Get a cluster-wide rate limiter (see {@link DDRateLimiter}), shared by all actors of this node that use the
+     * same {@code name}.
+     *
+     * @param name
+     * @param permits
+     * @param period
+     * @param periodUnit
+     * @return
+     * @since 1.2.0
+     */
+    protected DDRateLimiter ddRateLimiter(String name, long permits, long period, TimeUnit periodUnit) {
+        return DDRateLimiter.get(getContext().getSystem(), name, permits, period, periodUnit);
     }
 
     /**
@@ -186,8 +514,14 @@ public class BaseClusterActor extends BaseActor {
      * @param tags
      */
     protected void ddDelete(DDTags tags) {
-        replicator.tell(new Replicator.Update<>(dataKey, ORMultiMap.create(), writeConsistency, Optional.of(tags),
-                curr -> curr.remove(getSelfUniqueAddress(), tags.getKey())), self());
+        if (getDDShards() > 0) {
+            replicator.tell(new Replicator.Update<>(ddShardKey(tags.getKey()), LWWMap.create(), writeConsistency,
+                    Optional.of(tags), curr -> curr.remove(getSelfUniqueAddress(), tags.getKey())), self());
+        } else {
+            replicator.tell(new Replicator.Update<>(dataKey, ORMultiMap.create(), writeConsistency, Optional.of(tags),
+                    curr -> curr.remove(getSelfUniqueAddress(), tags.getKey())), self());
+        }
+        ddNearCacheInvalidate(tags.getKey());
     }
 
     /**
@@ -206,8 +540,18 @@ public class BaseClusterActor extends BaseActor {
      * @param value
      */
     protected void ddSet(DDTags tags, Object value) {
-        replicator.tell(new Replicator.Update<>(dataKey, ORMultiMap.create(), writeConsistency, Optional.of(tags),
-                curr -> curr.put(getSelfUniqueAddress(), tags.getKey(), Collections.singleton(value))), self());
+        ddSet(tags, value, writeConsistency);
+    }
+
+    private void ddSet(DDTags tags, Object value, Replicator.WriteConsistency writeConsistency) {
+        if (getDDShards() > 0) {
+            replicator.tell(new Replicator.Update<>(ddShardKey(tags.getKey()), LWWMap.create(), writeConsistency,
+                    Optional.of(tags), curr -> curr.put(getSelfUniqueAddress(), tags.getKey(), value)), self());
+        } else {
+            replicator.tell(new Replicator.Update<>(dataKey, ORMultiMap.create(), writeConsistency, Optional.of(tags),
+                    curr -> curr.put(getSelfUniqueAddress(), tags.getKey(), Collections.singleton(value))), self());
+        }
+        ddNearCachePut(tags.getKey(), Collections.singleton(value));
     }
 
     /**
@@ -220,6 +564,163 @@ public class BaseClusterActor extends BaseActor {
         ddSet(new DDTags(AkkaUtils.nextIdLong(), key), value);
     }
 
+    /**
+     * Set a distributed-data record, with a specific write consistency.
+     *
+     * @param key
+     * @param value
+     * @param writeConsistency
+     * @since 1.2.0
+     */
+    protected void ddSet(String key, Object value, Replicator.WriteConsistency writeConsistency) {
+        ddSet(new DDTags(AkkaUtils.nextIdLong(), key), value, writeConsistency);
+    }
+
+    private <T> Map<Key<?>, Map<String, T>> ddGroupByDataKey(Map<String, T> records) {
+        Map<Key<?>, Map<String, T>> result = new LinkedHashMap<>();
+        records.forEach((key, value) -> result
+                .computeIfAbsent(ddDataKeyOf(key), k -> new LinkedHashMap<>())
+                .put(key, value));
+        return result;
+    }
+
+    private static Map<String, Object> asKeyMap(Collection<String> keys) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        keys.forEach(key -> result.put(key, Boolean.TRUE));
+        return result;
+    }
+
+    /**
+     * Set several distributed-data records, with one {@link Replicator.Update} per underlying distributed-data key
+     * (one in total for the single layout, one per touched shard for the sharded layout).
+     *
+     * @param records
+     * @since 1.2.0
+     */
+    @SuppressWarnings("unchecked")
+    protected void ddSetAll(Map<String, Object> records) {
+        ddGroupByDataKey(records).forEach((key, group) -> {
+            DDTags tags = new DDTags(AkkaUtils.nextIdLong(), null);
+            if (key instanceof LWWMapKey) {
+                replicator.tell(new Replicator.Update<>((LWWMapKey<String, Object>) key, LWWMap.create(),
+                        writeConsistency, Optional.of(tags), curr -> {
+                    LWWMap<String, Object> result = curr;
+                    for (Map.Entry<String, Object> e : group.entrySet()) {
+                        result = result.put(getSelfUniqueAddress(), e.getKey(), e.getValue());
+                    }
+                    return result;
+                }), self());
+            } else {
+                replicator.tell(new Replicator.Update<>(dataKey, ORMultiMap.create(), writeConsistency,
+                        Optional.of(tags), curr -> {
+                    ORMultiMap<String, Object> result = curr;
+                    for (Map.Entry<String, Object> e : group.entrySet()) {
+                        result = result.put(getSelfUniqueAddress(), e.getKey(), Collections.singleton(e.getValue()));
+                    }
+                    return result;
+                }), self());
+            }
+            group.forEach((k, v) -> ddNearCachePut(k, Collections.singleton(v)));
+        });
+    }
+
+    /**
+     * Delete several distributed-data records, with one {@link Replicator.Update} per underlying distributed-data
+     * key.
+     *
+     * @param keys
+     * @since 1.2.0
+     */
+    @SuppressWarnings("unchecked")
+    protected void ddDeleteAll(Collection<String> keys) {
+        ddGroupByDataKey(asKeyMap(keys)).forEach((key, group) -> {
+            DDTags tags = new DDTags(AkkaUtils.nextIdLong(), null);
+            if (key instanceof LWWMapKey) {
+                replicator.tell(new Replicator.Update<>((LWWMapKey<String, Object>) key, LWWMap.create(),
+                        writeConsistency, Optional.of(tags), curr -> {
+                    LWWMap<String, Object> result = curr;
+                    for (String k : group.keySet()) {
+                        result = result.remove(getSelfUniqueAddress(), k);
+                    }
+                    return result;
+                }), self());
+            } else {
+                replicator.tell(new Replicator.Update<>(dataKey, ORMultiMap.create(), writeConsistency,
+                        Optional.of(tags), curr -> {
+                    ORMultiMap<String, Object> result = curr;
+                    for (String k : group.keySet()) {
+                        result = result.remove(getSelfUniqueAddress(), k);
+                    }
+                    return result;
+                }), self());
+            }
+            group.keySet().forEach(this::ddNearCacheInvalidate);
+        });
+    }
+
+    /**
+     * If {@code true}, the actor subscribes to changes of its distributed-data (see {@link #onDDChanged(ORMultiMap)}).
+     * Default value: {@code false}.
+     *
+     * <p>Subscribers are notified locally by the replicator (throttled by
+     * {@code akka.cluster.distributed-data.notify-subscribers-interval}), no quorum read is involved.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean isDDChangesSubscribed() {
+        return false;
+    }
+
+    /**
+     * (Sharded layout) Record keys whose shards are subscribed to, if {@link #isDDChangesSubscribed()} returns
+     * {@code true}. {@code null} (default) means all shards.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected Collection<String> getDDChangesSubscribedKeys() {
+        return null;
+    }
+
+    private Collection<Key<?>> ddChangesSubscribedDataKeys() {
+        if (getDDShards() <= 0) {
+            return Collections.singleton(dataKey);
+        }
+        Collection<String> keys = getDDChangesSubscribedKeys();
+        Set<Key<?>> result = new LinkedHashSet<>();
+        if (keys != null) {
+            keys.forEach(key -> result.add(ddShardKey(key)));
+        } else {
+            for (int i = 0, n = getDDShards(); i < n; i++) {
+                result.add(LWWMapKey.create(getDdKeyId() + "-" + i));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Called when the actor's distributed-data changes, if {@link #isDDChangesSubscribed()} returns {@code true}
+     * (single layout).
+     *
+     * @param data
+     * @since 1.2.0
+     */
+    protected void onDDChanged(ORMultiMap<String, Object> data) {
+        // EMPTY
+    }
+
+    /**
+     * Called when a subscribed distributed-data shard changes, if {@link #isDDChangesSubscribed()} returns
+     * {@code true} (sharded layout).
+     *
+     * @param shard
+     * @since 1.2.0
+     */
+    protected void onDDChanged(LWWMap<String, Object> shard) {
+        // EMPTY
+    }
+
     /**
      * Get a distributed-data record specified by {@code key}.
      *
@@ -259,21 +760,126 @@ public class BaseClusterActor extends BaseActor {
     /**
      * Get a distributed-data record.
      *
+     * <p>Since v1.2.0, this method waits for {@link #ddGetAsync(DDTags, ReadConsistency, long, TimeUnit)} to
+     * complete. It can be called from the actor's own thread.</p>
+     *
      * @param tags
      * @param readConsistency
      * @param timeout
      * @param timeoutUnit
-     * @return
+     * @return {@code null} if no response arrives within {@code timeout}
      */
     protected DDGetResult ddGet(DDTags tags, ReadConsistency readConsistency, long timeout, TimeUnit timeoutUnit) {
-        replicator.tell(new Replicator.Get<>(dataKey, readConsistency, Optional.of(tags)), self());
-        long expiry = System.currentTimeMillis() + timeoutUnit.toMillis(timeout);
-        DDGetResult result = DistributedDataUtils.getResponse(tags.getId());
-        while (result == null && System.currentTimeMillis() <= expiry) {
-            LockSupport.parkNanos(1000);
-            result = DistributedDataUtils.getResponse(tags.getId());
+        try {
+            return ddGetAsync(tags, readConsistency, timeout, timeoutUnit).toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            // timed out
+            return null;
         }
-        return result != null ? result : null;
+    }
+
+    /**
+     * Correlator used by {@link #ddGetAsync(DDTags, ReadConsistency, long, TimeUnit)}.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected DDRequestCorrelator getDDRequestCorrelator() {
+        return ddRequestCorrelator;
+    }
+
+    /**
+     * Get a distributed-data record specified by {@code key}, asynchronously.
+     *
+     * @param key
+     * @return
+     * @since 1.2.0
+     */
+    protected CompletionStage<DDGetResult> ddGetAsync(String key) {
+        return ddGetAsync(new DDTags(AkkaUtils.nextIdLong(), key), readConsistency, defaultDDGetTimeoutMs,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Get a distributed-data record, asynchronously.
+     *
+     * <p>The returned stage completes with the result (which can be a "not found" or an "error" result, see
+     * {@link DDRequestCorrelator#get(Key, DDTags, ReadConsistency, long, TimeUnit)}), or exceptionally with
+     * {@link TimeoutException} if no response arrives within {@code timeout}.</p>
+     *
+     * @param tags
+     * @param readConsistency
+     * @param timeout
+     * @param timeoutUnit
+     * @return
+     * @since 1.2.0
+     */
+    protected CompletionStage<DDGetResult> ddGetAsync(DDTags tags, ReadConsistency readConsistency, long timeout,
+            TimeUnit timeoutUnit) {
+        boolean nearCached = readConsistency instanceof Replicator.ReadLocal$ && isDDNearCached(tags.getKey());
+        if (nearCached) {
+            Collection<Object> value = ddNearCache.getIfPresent(tags.getKey());
+            if (value != null) {
+                return CompletableFuture.completedFuture(DDGetResult.ok(tags, value));
+            }
+        }
+        CompletionStage<DDGetResult> result = getDDRequestCorrelator()
+                .get(ddDataKeyOf(tags.getKey()), tags, readConsistency, timeout, timeoutUnit);
+        return nearCached ? result.thenApply(r -> {
+            if (!r.isError() && !r.isNotFound()) {
+                ddNearCachePut(tags.getKey(), r.getValue());
+            }
+            return r;
+        }) : result;
+    }
+
+    /**
+     * Get several distributed-data records, with one {@link Replicator.Get} per underlying distributed-data key
+     * (reads are issued in parallel).
+     *
+     * @param keys
+     * @return map {@code key -> result}, keys whose response did not arrive within {@code defaultDDGetTimeoutMs}
+     * are absent
+     * @since 1.2.0
+     */
+    protected Map<String, DDGetResult> ddGetAll(Collection<String> keys) {
+        try {
+            return ddGetAllAsync(keys, readConsistency, defaultDDGetTimeoutMs, TimeUnit.MILLISECONDS)
+                    .toCompletableFuture().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Collections.emptyMap();
+        } catch (ExecutionException e) {
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Get several distributed-data records asynchronously, with one {@link Replicator.Get} per underlying
+     * distributed-data key.
+     *
+     * @param keys
+     * @param readConsistency
+     * @param timeout
+     * @param timeoutUnit
+     * @return a stage that completes with map {@code key -> result}; keys whose response did not arrive within
+     * {@code timeout} are absent
+     * @since 1.2.0
+     */
+    protected CompletionStage<Map<String, DDGetResult>> ddGetAllAsync(Collection<String> keys,
+            ReadConsistency readConsistency, long timeout, TimeUnit timeoutUnit) {
+        List<CompletableFuture<Map<String, DDGetResult>>> futures = new ArrayList<>();
+        ddGroupByDataKey(asKeyMap(keys)).forEach((key, group) -> futures.add(getDDRequestCorrelator()
+                .getAll(key, group.keySet(), readConsistency, timeout, timeoutUnit).toCompletableFuture()
+                .exceptionally(e -> Collections.emptyMap())));
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            Map<String, DDGetResult> result = new LinkedHashMap<>();
+            futures.forEach(f -> result.putAll(f.join()));
+            return result;
+        });
     }
 
     /**
@@ -308,17 +914,37 @@ public class BaseClusterActor extends BaseActor {
         return null;
     }
 
+    /**
+     * Roles whose membership changes the actor subscribes to (see
+     * {@link ClusterMemberUtils#subscribe(Collection, ActorRef)} and
+     * {@link #onMembershipChanged(MembershipChangedMessage)}). {@code null} (default) means no subscription; empty
+     * means {@link ClusterMemberUtils#ROLE_ALL}.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected Collection<String> membershipSubscriptionRoles() {
+        return null;
+    }
+
+    /**
+     * Called when membership of a subscribed role changes (and once per subscribed role when the actor starts), see
+     * {@link #membershipSubscriptionRoles()}.
+     *
+     * @param msg
+     * @since 1.2.0
+     */
+    protected void onMembershipChanged(MembershipChangedMessage msg) {
+        // EMPTY
+    }
+
     /**
      * Convenient method to perform initializing work.
      *
      * @throws Exception
      */
-    @SuppressWarnings("unchecked")
     protected void initActor() throws Exception {
-        Set<String> selfRoles = cluster.getSelfRoles();
-        Set<String> deployRoles = getDeployRoles();
-        if (deployRoles == null || deployRoles.isEmpty() || deployRoles.contains(ClusterMemberUtils.ROLE_ALL)
-                || !Collections.disjoint(deployRoles, selfRoles)) {
+        if (isDeployedOnSelf()) {
             super.initActor();
 
             addMessageHandler(DistributedPubSubMediator.SubscribeAck.class, ack -> LOGGER
@@ -351,33 +977,25 @@ public class BaseClusterActor extends BaseActor {
             // });
 
             /*
-             * distributed-data get
+             * distributed-data changes
              */
-            addMessageHandler(Replicator.GetFailure.class, msg -> {
-                Object _obj = msg.getRequest().orElse(null);
-                DDTags tags = _obj instanceof DDTags ? (DDTags) _obj : null;
-                if (tags != null) {
-                    DistributedDataUtils.setResponse(tags.getId(), DDGetResult.error(tags));
-                }
-            });
-            addMessageHandler(Replicator.NotFound.class, msg -> {
-                Object _obj = msg.getRequest().orElse(null);
-                DDTags tags = _obj instanceof DDTags ? (DDTags) _obj : null;
-                if (tags != null) {
-                    DistributedDataUtils.setResponse(tags.getId(), DDGetResult.notFound(tags));
-                }
-            });
-            addMessageHandler(Replicator.GetSuccess.class, msg -> {
-                Object _tags = msg.getRequest().orElse(null);
-                DDTags tags = _tags instanceof DDTags ? (DDTags) _tags : null;
-                if (tags != null) {
-                    ORMultiMap<String, Object> data = msg.dataValue() instanceof ORMultiMap ?
-                            (ORMultiMap<String, Object>) msg.dataValue() :
-                            ORMultiMap.create();
-                    Set<Object> value = data.getEntries().get(tags.getKey());
-                    DistributedDataUtils.setResponse(tags.getId(), DDGetResult.ok(tags, value));
-                }
-            });
+            if (isDDDurable()) {
+                LOGGER.info("{" + getActorPath().name() + "} distributed-data is durable.");
+            }
+            if (getDDNearCacheSize() > 0) {
+                ddNearCache = CacheBuilder.newBuilder().maximumSize(getDDNearCacheSize()).build();
+            }
+            addMessageHandler(Replicator.Changed.class, this::onReplicatorChanged);
+            if (isDDChangesSubscribed() || isDDNearCacheEnabled()) {
+                ddSubscribedKeys = ddChangesSubscribedDataKeys();
+                ddSubscribedKeys.forEach(key -> replicator.tell(new Replicator.Subscribe<>(key, self()), self()));
+            }
+
+            Collection<String> membershipRoles = membershipSubscriptionRoles();
+            if (membershipRoles != null) {
+                addMessageHandler(MembershipChangedMessage.class, this::onMembershipChanged);
+                ClusterMemberUtils.subscribe(membershipRoles, self());
+            }
 
             Collection<String[]> topicSubscriptions = topicSubscriptions();
             if (topicSubscriptions != null) {
@@ -388,18 +1006,66 @@ public class BaseClusterActor extends BaseActor {
                 });
             }
         } else {
-            LOGGER.info("Actor {" + getActorPath().name() + "} is configured to start on node with roles " + deployRoles
-                    + " but this node " + cluster.selfAddress() + " has roles " + selfRoles);
+            LOGGER.info("Actor {" + getActorPath().name() + "} is configured to start on node with roles "
+                    + getDeployRoles() + " but this node " + cluster.selfAddress() + " has roles "
+                    + cluster.getSelfRoles());
             getContext().stop(self());
         }
     }
 
+    /**
+     * Check if the actor is deployed on the current node, i.e. the node has one of {@link #getDeployRoles()}.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean isDeployedOnSelf() {
+        Set<String> deployRoles = getDeployRoles();
+        return deployRoles == null || deployRoles.isEmpty() || deployRoles.contains(ClusterMemberUtils.ROLE_ALL)
+                || !Collections.disjoint(deployRoles, cluster.getSelfRoles());
+    }
+
+    private Collection<Key<?>> ddSubscribedKeys = Collections.emptySet();
+
+    /**
+     * Called when a {@link Replicator.Changed} notification arrives: dispatch changes of the actor's distributed-data
+     * to the near-cache and {@link #onDDChanged(ORMultiMap)}/{@link #onDDChanged(LWWMap)}.
+     *
+     * <p>Sub-class subscribing to other distributed-data keys overrides this method to handle them, and calls
+     * {@code super} for the others.</p>
+     *
+     * @param msg
+     * @since 1.2.0
+     */
+    @SuppressWarnings("unchecked")
+    protected void onReplicatorChanged(Replicator.Changed<?> msg) {
+        if (!ddSubscribedKeys.contains(msg.key())) {
+            return;
+        }
+        if (isDDNearCacheEnabled()) {
+            ddNearCacheKeys.add(msg.key());
+            ddNearCacheRefresh(msg.key(), msg.dataValue());
+        }
+        if (isDDChangesSubscribed()) {
+            if (msg.dataValue() instanceof ORMultiMap) {
+                onDDChanged((ORMultiMap<String, Object>) msg.dataValue());
+            } else if (msg.dataValue() instanceof LWWMap) {
+                onDDChanged((LWWMap<String, Object>) msg.dataValue());
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     protected void destroyActor() throws Exception {
         try {
+            ClusterMemberUtils.unsubscribe(self());
+            if (isDDChangesSubscribed() || isDDNearCacheEnabled()) {
+                ddChangesSubscribedDataKeys()
+                        .forEach(key -> replicator.tell(new Replicator.Unsubscribe<>(key, self()), self()));
+            }
             Collection<String[]> topicSubscriptions = topicSubscriptions();
             if (topicSubscriptions != null) {
                 topicSubscriptions.forEach(topicSub -> {
@@ -1,17 +1,27 @@
 package com.github.ddth.akka.cluster;
 
+import akka.actor.ActorRef;
 import akka.actor.Address;
 import akka.cluster.Member;
+import com.github.ddth.akka.cluster.messages.MembershipChangedMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Utility class to manage cluster's member nodes.
  *
+ * <p>
+ * Since v1.2.0, membership is kept as an immutable {@link MembershipSnapshot} published through one volatile
+ * reference: reads never block nor see a partially updated (or, during a refresh, empty) membership; updates are
+ * serialized and swap the snapshot atomically.
+ * </p>
+ *
  * @author Thanh Nguyen <btnguyen2k@gmail.com>
  * @since 0.1.3
  */
@@ -33,8 +43,239 @@ public class ClusterMemberUtils {
 
     private final static Logger LOGGER = LoggerFactory.getLogger(ClusterMemberUtils.class);
 
-    private final static ConcurrentMap<String, SortedSet<Member>> nodeManager = new ConcurrentHashMap<>();
-    private final static ConcurrentMap<Address, Member> members = new ConcurrentHashMap<>();
+    private static volatile MembershipSnapshot snapshot = MembershipSnapshot.EMPTY;
+    private final static List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final static ConcurrentMap<Address, NodeLoad> nodeLoads = new ConcurrentHashMap<>();
+
+    /**
+     * Load of a node, reported by cluster-metrics.
+     *
+     * @since 1.2.0
+     */
+    public static class NodeLoad {
+        /**
+         * Load value: {@code 0.0} means idle, {@code 1.0} means fully loaded.
+         */
+        public final double load;
+
+        /**
+         * Time (UNIX timestamp in milliseconds) the load was sampled.
+         */
+        public final long timestamp;
+
+        /**
+         * Load components (since v1.2.0): CPU usage, heap usage and system load average per processor;
+         * {@link Double#NaN} if not available.
+         */
+        public final double cpu, heap, loadAverage;
+
+        public NodeLoad(double load, long timestamp) {
+            this(load, Double.NaN, Double.NaN, Double.NaN, timestamp);
+        }
+
+        private NodeLoad(double load, double cpu, double heap, double loadAverage, long timestamp) {
+            this.load = load;
+            this.cpu = cpu;
+            this.heap = heap;
+            this.loadAverage = loadAverage;
+            this.timestamp = timestamp;
+        }
+
+        /**
+         * Build a node load from its components; the load value is the mean of available components, each capped
+         * to {@code 1.0}.
+         *
+         * @param cpu         CPU usage ({@code 0.0} to {@code 1.0}), {@link Double#NaN} or negative if not available
+         * @param heap        heap usage ({@code 0.0} to {@code 1.0}), {@link Double#NaN} or negative if not available
+         * @param loadAverage system load average per processor, {@link Double#NaN} or negative if not available
+         * @param timestamp
+         * @return {@code null} if no component is available
+         * @since 1.2.0
+         */
+        public static NodeLoad of(double cpu, double heap, double loadAverage, long timestamp) {
+            double sum = 0;
+            int count = 0;
+            for (double v : new double[] { cpu, heap, loadAverage }) {
+                if (v >= 0) {
+                    sum += Math.min(v, 1.0);
+                    count++;
+                }
+            }
+            return count > 0 ?
+                    new NodeLoad(sum / count, cpu >= 0 ? cpu : Double.NaN, heap >= 0 ? heap : Double.NaN,
+                            loadAverage >= 0 ? loadAverage : Double.NaN, timestamp) :
+                    null;
+        }
+
+        /**
+         * Exponentially weighted moving average of this (newer) sample and a previous one.
+         *
+         * @param previous can be {@code null}
+         * @param alpha    weight of this sample, from {@code 0.0} (exclusive) to {@code 1.0}
+         * @return
+         * @since 1.2.0
+         */
+        public NodeLoad smoothedWith(NodeLoad previous, double alpha) {
+            if (previous == null || alpha >= 1.0) {
+                return this;
+            }
+            return new NodeLoad(ewma(load, previous.load, alpha), ewma(cpu, previous.cpu, alpha),
+                    ewma(heap, previous.heap, alpha), ewma(loadAverage, previous.loadAverage, alpha), timestamp);
+        }
+
+        private static double ewma(double value, double previous, double alpha) {
+            return Double.isNaN(previous) || Double.isNaN(value) ? value : alpha * value + (1 - alpha) * previous;
+        }
+
+        /**
+         * Check if the load was sampled more than {@code maxAgeMs} ago.
+         *
+         * @param maxAgeMs
+         * @return
+         */
+        public boolean isStale(long maxAgeMs) {
+            return timestamp + maxAgeMs < System.currentTimeMillis();
+        }
+
+        @Override
+        public String toString() {
+            return "{load: " + load + ", cpu: " + cpu + ", heap: " + heap + ", loadAverage: " + loadAverage
+                    + ", timestamp: " + timestamp + "}";
+        }
+    }
+
+    /**
+     * Current membership snapshot.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    public static MembershipSnapshot getMembershipSnapshot() {
+        return snapshot;
+    }
+
+    private static class Subscription {
+        final Set<String> roles;
+        final MembershipListener listener;
+        final ActorRef actor;
+
+        Subscription(Collection<String> roles, MembershipListener listener, ActorRef actor) {
+            this.roles = roles == null || roles.isEmpty() ?
+                    Collections.singleton(ROLE_ALL) :
+                    Collections.unmodifiableSet(new HashSet<>(roles));
+            this.listener = listener;
+            this.actor = actor;
+        }
+    }
+
+    /**
+     * Subscribe to membership changes of the specified roles ({@code null} or empty means {@link #ROLE_ALL}).
+     *
+     * <p>On subscribe, the listener receives the current state of each role ({@code initial=true}). After that, it
+     * receives a {@link MembershipChangedMessage} (nodes added/removed, leader change) for each change affecting a
+     * subscribed role.</p>
+     *
+     * @param roles
+     * @param listener
+     * @since 1.2.0
+     */
+    synchronized public static void subscribe(Collection<String> roles, MembershipListener listener) {
+        subscribe(new Subscription(roles, listener, null));
+    }
+
+    /**
+     * Subscribe an actor to membership changes of the specified roles: the actor receives
+     * {@link MembershipChangedMessage}s.
+     *
+     * @param roles
+     * @param actor
+     * @since 1.2.0
+     */
+    synchronized public static void subscribe(Collection<String> roles, ActorRef actor) {
+        subscribe(new Subscription(roles, change -> actor.tell(change, ActorRef.noSender()), actor));
+    }
+
+    private static void subscribe(Subscription subscription) {
+        subscriptions.add(subscription);
+        MembershipSnapshot current = snapshot;
+        for (String role : subscription.roles) {
+            Set<Member> nodes = current.getNodes(role);
+            notify(subscription, new MembershipChangedMessage(role, current.getVersion(), true, nodes,
+                    Collections.emptySet(), nodes, null, current.getLeader(role)));
+        }
+    }
+
+    /**
+     * Unsubscribe a listener.
+     *
+     * @param listener
+     * @since 1.2.0
+     */
+    public static void unsubscribe(MembershipListener listener) {
+        subscriptions.removeIf(s -> s.listener == listener);
+    }
+
+    /**
+     * Unsubscribe an actor.
+     *
+     * @param actor
+     * @since 1.2.0
+     */
+    public static void unsubscribe(ActorRef actor) {
+        subscriptions.removeIf(s -> actor.equals(s.actor));
+    }
+
+    private static void notify(Subscription subscription, MembershipChangedMessage change) {
+        try {
+            subscription.listener.onMembershipChanged(change);
+        } catch (Exception e) {
+            LOGGER.warn("Error while notifying membership change " + change + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Swap the snapshot and push deltas to subscribers. Must be called while holding the class lock.
+     */
+    private static void publish(MembershipSnapshot next) {
+        MembershipSnapshot prev = snapshot;
+        snapshot = next;
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        Map<String, MembershipChangedMessage> changes = new HashMap<>();
+        for (Subscription subscription : subscriptions) {
+            for (String role : subscription.roles) {
+                MembershipChangedMessage change = changes.computeIfAbsent(role, r -> diff(r, prev, next));
+                if (change != null) {
+                    notify(subscription, change);
+                }
+            }
+        }
+    }
+
+    private static MembershipChangedMessage diff(String role, MembershipSnapshot prev, MembershipSnapshot next) {
+        Set<Member> prevNodes = prev.getNodes(role), nextNodes = next.getNodes(role);
+        Set<Member> added = new LinkedHashSet<>(), removed = new LinkedHashSet<>();
+        for (Member m : nextNodes) {
+            if (!prevNodes.contains(m)) {
+                added.add(m);
+            }
+        }
+        for (Member m : prevNodes) {
+            if (!nextNodes.contains(m)) {
+                removed.add(m);
+            }
+        }
+        Member prevLeader = prev.getLeader(role), leader = next.getLeader(role);
+        boolean leaderChanged = prevLeader == null ?
+                leader != null :
+                leader == null || !prevLeader.address().equals(leader.address());
+        if (added.isEmpty() && removed.isEmpty() && !leaderChanged) {
+            return null;
+        }
+        return new MembershipChangedMessage(role, next.getVersion(), false, added, removed, nextNodes, prevLeader,
+                leader);
+    }
 
     /**
      * Reset all nodes info.
@@ -42,8 +283,22 @@ public class ClusterMemberUtils {
      * @since 0.1.4
      */
     synchronized public static void resetNodes() {
-        members.clear();
-        nodeManager.clear();
+        publish(MembershipSnapshot.of(snapshot.getVersion() + 1, Collections.emptyList()));
+        nodeLoads.clear();
+    }
+
+    /**
+     * Replace all nodes info at once (readers see either the old or the new membership, never an empty one in
+     * between).
+     *
+     * @param nodes
+     * @since 1.2.0
+     */
+    synchronized public static void replaceNodes(Collection<Member> nodes) {
+        MembershipSnapshot next = MembershipSnapshot.of(snapshot.getVersion() + 1, nodes);
+        publish(next);
+        nodeLoads.keySet().removeIf(node -> !next.contains(node));
+        LOGGER.info("Cluster members refreshed: " + next);
     }
 
     /**
@@ -52,19 +307,11 @@ public class ClusterMemberUtils {
      * @param node
      */
     synchronized public static void addNode(Member node) {
-        members.put(node.address(), node);
-
+        publish(snapshot.withMember(node));
         Set<String> memberRoles = new HashSet<>(node.getRoles());
         memberRoles.add(ROLE_ALL);
-        int counter = 0;
-        for (String role : memberRoles) {
-            nodeManager.putIfAbsent(role, new TreeSet<>((a, b) -> a.isOlderThan(b) ? -1 : (b.isOlderThan(a) ? 1 : 0)));
-            if (nodeManager.get(role).add(node)) {
-                counter++;
-            }
-        }
-        LOGGER.info("Node [" + node.address() + "] with roles " + memberRoles + " is UP. Current role repository: "
-                + counter + "/" + memberRoles.size() + " role(s).");
+        LOGGER.info("Node [" + node.address() + "] with roles " + memberRoles + " is UP. Current members: " + snapshot
+                .size() + ".");
     }
 
     /**
@@ -73,21 +320,12 @@ public class ClusterMemberUtils {
      * @param node
      */
     synchronized public static void removeNode(Member node) {
-        members.remove(node.address());
-
+        publish(snapshot.withoutMember(node));
+        nodeLoads.remove(node.address());
         Set<String> memberRoles = new HashSet<>(node.getRoles());
         memberRoles.add(ROLE_ALL);
-        int counter = 0;
-        for (String role : memberRoles) {
-            SortedSet<Member> members = nodeManager.get(role);
-            if (members != null) {
-                if (members.remove(node)) {
-                    counter++;
-                }
-            }
-        }
-        LOGGER.info("Node [" + node.address() + "] with roles " + memberRoles + " is REMOVED: " + counter + "/"
-                + memberRoles.size() + " role(s).");
+        LOGGER.info("Node [" + node.address() + "] with roles " + memberRoles + " is REMOVED. Current members: "
+                + snapshot.size() + ".");
     }
 
     /**
@@ -98,14 +336,7 @@ public class ClusterMemberUtils {
      * @return
      */
     public static boolean isLeader(String role, Member node) {
-        SortedSet<Member> members = nodeManager.get(role);
-        Member leader;
-        try {
-            leader = members != null ? members.first() : null;
-        } catch (NoSuchElementException e) {
-            leader = null;
-        }
-        return leader != null && node.address().equals(leader.address());
+        return snapshot.isLeader(role, node);
     }
 
     /**
@@ -115,24 +346,209 @@ public class ClusterMemberUtils {
      * @return
      */
     public static Member getLeader(String role) {
-        SortedSet<Member> members = nodeManager.get(role);
-        try {
-            return members != null ? members.first() : null;
-        } catch (NoSuchElementException e) {
-            return null;
-        }
+        return snapshot.getLeader(role);
     }
 
     /**
      * Get all nodes for a role.
      *
+     * <p>Since v1.2.0, the returned set is an immutable point-in-time view (oldest node first).</p>
+     *
      * @param role
      * @return
      * @since 0.1.4
      */
-    @SuppressWarnings("unchecked")
     public static Set<Member> getNodes(String role) {
-        Set<Member> members = nodeManager.get(role);
-        return members != null ? Collections.unmodifiableSet(members) : Collections.EMPTY_SET;
+        return snapshot.getNodes(role);
+    }
+
+    /**
+     * Update load of a node.
+     *
+     * @param node
+     * @param load      {@code 0.0} means idle, {@code 1.0} means fully loaded
+     * @param timestamp time (UNIX timestamp in milliseconds) the load was sampled
+     * @since 1.2.0
+     */
+    public static void updateNodeLoad(Address node, double load, long timestamp) {
+        updateNodeLoad(node, new NodeLoad(load, timestamp));
+    }
+
+    private static volatile double loadSmoothingFactor = 0.5;
+
+    /**
+     * Weight of the newest sample when smoothing node loads (exponentially weighted moving average).
+     * Default value: {@code 0.5}.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    public static double getLoadSmoothingFactor() {
+        return loadSmoothingFactor;
+    }
+
+    /**
+     * Weight of the newest sample when smoothing node loads, from {@code 0.0} (exclusive) to {@code 1.0}
+     * ({@code 1.0} means no smoothing).
+     *
+     * @param alpha
+     * @since 1.2.0
+     */
+    public static void setLoadSmoothingFactor(double alpha) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Smoothing factor must be in (0, 1]: " + alpha);
+        }
+        loadSmoothingFactor = alpha;
+    }
+
+    /**
+     * Update load of a node, smoothed with its previous load (see {@link #getLoadSmoothingFactor()}).
+     *
+     * @param node
+     * @param load
+     * @since 1.2.0
+     */
+    public static void updateNodeLoad(Address node, NodeLoad load) {
+        if (load != null && snapshot.contains(node)) {
+            nodeLoads.compute(node, (k, prev) -> prev != null && prev.timestamp > load.timestamp ?
+                    prev :
+                    load.smoothedWith(prev, loadSmoothingFactor));
+        }
+    }
+
+    /**
+     * Get load of a node.
+     *
+     * @param node
+     * @return {@code null} if load of the node is not known
+     * @since 1.2.0
+     */
+    public static NodeLoad getNodeLoad(Address node) {
+        return nodeLoads.get(node);
+    }
+
+    /**
+     * Get the least loaded node for a role. Nodes whose load is unknown or stale are skipped.
+     *
+     * @param role
+     * @param maxAgeMs load sampled more than this duration ago is considered stale
+     * @return the least loaded node, or leader of the role (see {@link #getLeader(String)}) if load of no node
+     * is known
+     * @since 1.2.0
+     */
+    public static Member getLeastLoadedNode(String role, long maxAgeMs) {
+        MembershipSnapshot current = snapshot;
+        Member best = null;
+        double bestLoad = 0;
+        for (Member m : current.getNodes(role)) {
+            NodeLoad load = nodeLoads.get(m.address());
+            if (load != null && !load.isStale(maxAgeMs) && (best == null || load.load < bestLoad)) {
+                best = m;
+                bestLoad = load.load;
+            }
+        }
+        return best != null ? best : current.getLeader(role);
+    }
+
+    /**
+     * Get the least loaded node for a role, ignoring loads sampled more than 60 seconds ago.
+     *
+     * @param role
+     * @return
+     * @since 1.2.0
+     */
+    public static Member getLeastLoadedNode(String role) {
+        return getLeastLoadedNode(role, 60000);
+    }
+
+    /**
+     * Select a random node of a role, weighted by spare capacity ({@code 1 - load}, at least {@code 0.01}); nodes
+     * whose load is unknown or stale get the average weight of the others.
+     *
+     * @param role
+     * @param maxAgeMs load sampled more than this duration ago is considered stale
+     * @return {@code null} if there is no node
+     * @since 1.2.0
+     */
+    public static Member selectWeightedRandomNode(String role, long maxAgeMs) {
+        MembershipSnapshot current = snapshot;
+        int n = current.countNodes(role);
+        if (n == 0) {
+            return null;
+        }
+        double[] weights = new double[n];
+        double knownSum = 0;
+        int known = 0;
+        for (int i = 0; i < n; i++) {
+            NodeLoad load = nodeLoads.get(current.getNode(role, i).address());
+            if (load != null && !load.isStale(maxAgeMs)) {
+                weights[i] = Math.max(1.0 - Math.min(load.load, 1.0), 0.01);
+                knownSum += weights[i];
+                known++;
+            } else {
+                weights[i] = Double.NaN;
+            }
+        }
+        double defaultWeight = known > 0 ? knownSum / known : 1.0;
+        double total = 0;
+        for (int i = 0; i < n; i++) {
+            if (Double.isNaN(weights[i])) {
+                weights[i] = defaultWeight;
+            }
+            total += weights[i];
+        }
+        double r = ThreadLocalRandom.current().nextDouble() * total;
+        for (int i = 0; i < n; i++) {
+            r -= weights[i];
+            if (r < 0) {
+                return current.getNode(role, i);
+            }
+        }
+        return current.getNode(role, n - 1);
+    }
+
+    /**
+     * Select a random node of a role, weighted by spare capacity, ignoring loads sampled more than 60 seconds ago.
+     *
+     * @param role
+     * @return
+     * @since 1.2.0
+     */
+    public static Member selectWeightedRandomNode(String role) {
+        return selectWeightedRandomNode(role, 60000);
+    }
+
+    /**
+     * Select the least loaded node amongst candidates.
+     *
+     * <p>To avoid flapping, the {@code incumbent} node is kept unless another node's load is lower than incumbent's
+     * load by more than {@code hysteresis}. Ties are broken by node's address.</p>
+     *
+     * @param candidates
+     * @param incumbent  node that was selected last time, can be {@code null}
+     * @param hysteresis
+     * @param maxAgeMs   load sampled more than this duration ago is considered stale
+     * @return the selected node, or {@code null} if there is no candidate or load of any candidate is unknown or stale
+     * @since 1.2.0
+     */
+    public static Address selectLeastLoadedNode(Collection<Address> candidates, Address incumbent, double hysteresis,
+            long maxAgeMs) {
+        Address best = null;
+        NodeLoad bestLoad = null, incumbentLoad = null;
+        for (Address node : candidates) {
+            NodeLoad load = nodeLoads.get(node);
+            if (load == null || load.isStale(maxAgeMs)) {
+                return null;
+            }
+            if (node.equals(incumbent)) {
+                incumbentLoad = load;
+            }
+            if (best == null || load.load < bestLoad.load || (load.load == bestLoad.load
+                    && node.toString().compareTo(best.toString()) < 0)) {
+                best = node;
+                bestLoad = load;
+            }
+        }
+        return incumbentLoad != null && incumbentLoad.load - bestLoad.load <= hysteresis ? incumbent : best;
     }
 }
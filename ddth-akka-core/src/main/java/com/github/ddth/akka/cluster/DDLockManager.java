@@ -0,0 +1,455 @@
+package com.github.ddth.akka.cluster;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.ddata.DistributedData;
+import akka.cluster.ddata.Key;
+import akka.cluster.ddata.ORMultiMap;
+import akka.cluster.ddata.Replicator;
+import akka.cluster.ddata.SelfUniqueAddress;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous lock manager on top of Akka's distributed-data (one instance per {@link ActorSystem}).
+ *
+ * <ul>
+ * <li>Lock: the lock is put with a conditional {@link Replicator.Update} (only if the lock is free, already owned, or
+ * expired on the local replica), then the winner is determined from the data returned by a {@link Replicator.Get}:
+ * among the live locks found, the one with the earliest timestamp (then the smallest lock-id) wins. If the lock was
+ * taken on the local replica, it was not put and thus is not found.</li>
+ * <li>Concurrent lock attempts on the same key from several actors on the same node are coalesced: they wait for the
+ * in-flight attempt and succeed only if it succeeded with the same lock-id.</li>
+ * <li>Unlock: the lock is removed with a single {@link Replicator.Update}.</li>
+ * <li>Since v1.2.0, counting semaphore (see {@link #acquire(Key, String, String, int, long, TimeUnit,
+ * Replicator.WriteConsistency, Replicator.ReadConsistency)}): up to {@code K} live permits (leased, i.e. with an
+ * expiry) are stored under the same key; a permit is granted if it ranks amongst the first {@code K} live permits
+ * (ordered by timestamp, then permit-id).</li>
+ * </ul>
+ *
+ * <p>Replicator's responses are tracked by request id by an internal actor, no thread is blocked or spinning while
+ * the lock is pending.</p>
+ *
+ * <p>Note: the lock is considered "weak".</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class DDLockManager {
+    private final static ConcurrentMap<ActorSystem, DDLockManager> instances = new ConcurrentHashMap<>();
+
+    /**
+     * Get the lock manager of an actor system, create one if not exist.
+     *
+     * @param actorSystem
+     * @return
+     */
+    public static DDLockManager get(ActorSystem actorSystem) {
+        return instances.computeIfAbsent(actorSystem, system -> {
+            DDLockManager manager = new DDLockManager(system);
+            system.registerOnTermination(() -> instances.remove(system));
+            return manager;
+        });
+    }
+
+    private final ActorRef managerActor;
+
+    private DDLockManager(ActorSystem actorSystem) {
+        DistributedData dd = DistributedData.get(actorSystem);
+        managerActor = actorSystem.actorOf(
+                Props.create(ManagerActor.class, () -> new ManagerActor(dd.replicator(), dd.selfUniqueAddress())),
+                "ddth-dd-lock-manager");
+    }
+
+    /**
+     * Acquire (or renew) a lock.
+     *
+     * @param dataKey          distributed-data key storing the lock
+     * @param key              lock's key
+     * @param lockId           id of the lock, re-locking with the same id renews the lock
+     * @param lockTimeout      lock's duration
+     * @param lockTimeoutUnit
+     * @param writeConsistency
+     * @param readConsistency
+     * @return a stage that completes with {@code true} if the lock was acquired
+     */
+    public CompletionStage<Boolean> lock(Key<ORMultiMap<String, Object>> dataKey, String key, String lockId,
+            long lockTimeout, TimeUnit lockTimeoutUnit, Replicator.WriteConsistency writeConsistency,
+            Replicator.ReadConsistency readConsistency) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        managerActor.tell(new LockRequest(dataKey, key, new DDLock(lockId, lockTimeout, lockTimeoutUnit), 1,
+                writeConsistency, readConsistency, result), ActorRef.noSender());
+        return result;
+    }
+
+    /**
+     * Acquire (or renew) a permit of a cluster-wide counting semaphore.
+     *
+     * @param dataKey          distributed-data key storing the semaphore
+     * @param key              semaphore's key
+     * @param permitId         id of the permit, re-acquiring with the same id renews the permit's lease
+     * @param permits          max number of permits held at the same time
+     * @param leaseTimeout     permit's lease duration
+     * @param leaseTimeoutUnit
+     * @param writeConsistency
+     * @param readConsistency
+     * @return a stage that completes with {@code true} if the permit was acquired
+     * @since 1.2.0
+     */
+    public CompletionStage<Boolean> acquire(Key<ORMultiMap<String, Object>> dataKey, String key, String permitId,
+            int permits, long leaseTimeout, TimeUnit leaseTimeoutUnit, Replicator.WriteConsistency writeConsistency,
+            Replicator.ReadConsistency readConsistency) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("Number of permits must be positive: " + permits);
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        managerActor.tell(new LockRequest(dataKey, key, new DDLock(permitId, leaseTimeout, leaseTimeoutUnit),
+                permits, writeConsistency, readConsistency, result), ActorRef.noSender());
+        return result;
+    }
+
+    /**
+     * Release a permit of a cluster-wide counting semaphore.
+     *
+     * @param dataKey
+     * @param key
+     * @param permitId
+     * @param writeConsistency
+     * @return a stage that completes with {@code true} if the permit has been released (or was not held)
+     * @since 1.2.0
+     */
+    public CompletionStage<Boolean> release(Key<ORMultiMap<String, Object>> dataKey, String key, String permitId,
+            Replicator.WriteConsistency writeConsistency) {
+        return unlock(dataKey, key, permitId, writeConsistency);
+    }
+
+    /**
+     * Release a lock.
+     *
+     * @param dataKey          distributed-data key storing the lock
+     * @param key              lock's key
+     * @param lockId           id of the lock
+     * @param writeConsistency
+     * @return a stage that completes with {@code true} if the lock has been released (or was not held)
+     */
+    public CompletionStage<Boolean> unlock(Key<ORMultiMap<String, Object>> dataKey, String key, String lockId,
+            Replicator.WriteConsistency writeConsistency) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        managerActor.tell(new UnlockRequest(dataKey, key, new DDLock(lockId), writeConsistency, result),
+                ActorRef.noSender());
+        return result;
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * Check if a lock is not held by anyone else (i.e. the lock set contains {@code lock}, or contains only expired
+     * locks).
+     */
+    private static boolean isFreeOrOwned(scala.collection.Set<Object> set, DDLock lock) {
+        if (set.contains(lock)) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        for (scala.collection.Iterator<Object> it = set.iterator(); it.hasNext(); ) {
+            Object obj = it.next();
+            if (obj instanceof DDLock && ((DDLock) obj).expiry >= now) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Check if there are less than {@code permits} live locks other than {@code lock}.
+     */
+    private static boolean hasRoom(scala.collection.Set<Object> set, DDLock lock, int permits) {
+        long now = System.currentTimeMillis();
+        int count = 0;
+        for (scala.collection.Iterator<Object> it = set.iterator(); it.hasNext(); ) {
+            Object obj = it.next();
+            if (obj instanceof DDLock && ((DDLock) obj).expiry >= now && !obj.equals(lock)) {
+                count++;
+            }
+        }
+        return count < permits;
+    }
+
+    /**
+     * Check if {@code lock} ranks amongst the first {@code permits} live locks (ordered by timestamp, then lock-id).
+     *
+     * @param locks
+     * @param lock
+     * @param permits
+     * @return
+     */
+    public static boolean isWithinPermits(Collection<Object> locks, DDLock lock, int permits) {
+        if (locks == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        boolean found = false;
+        int ahead = 0;
+        for (Object obj : locks) {
+            if (obj instanceof DDLock && ((DDLock) obj).expiry >= now) {
+                DDLock other = (DDLock) obj;
+                if (other.equals(lock)) {
+                    found = true;
+                } else if (other.timestamp < lock.timestamp || (other.timestamp == lock.timestamp
+                        && other.lockId.compareTo(lock.lockId) < 0)) {
+                    ahead++;
+                }
+            }
+        }
+        return found && ahead < permits;
+    }
+
+    /**
+     * Among live locks, the one with the earliest timestamp (then the smallest lock-id) wins.
+     *
+     * @param locks
+     * @return the winner, {@code null} if there is no live lock
+     */
+    public static DDLock winner(Collection<Object> locks) {
+        DDLock winner = null;
+        if (locks != null) {
+            long now = System.currentTimeMillis();
+            for (Object obj : locks) {
+                if (obj instanceof DDLock && ((DDLock) obj).expiry >= now) {
+                    DDLock lock = (DDLock) obj;
+                    if (winner == null || lock.timestamp < winner.timestamp || (lock.timestamp == winner.timestamp
+                            && lock.lockId.compareTo(winner.lockId) < 0)) {
+                        winner = lock;
+                    }
+                }
+            }
+        }
+        return winner;
+    }
+
+    private static class LockRequest {
+        final Key<ORMultiMap<String, Object>> dataKey;
+        final String key;
+        final DDLock lock;
+        final int permits;
+        final Replicator.WriteConsistency writeConsistency;
+        final Replicator.ReadConsistency readConsistency;
+        final CompletableFuture<Boolean> future;
+
+        LockRequest(Key<ORMultiMap<String, Object>> dataKey, String key, DDLock lock, int permits,
+                Replicator.WriteConsistency writeConsistency, Replicator.ReadConsistency readConsistency,
+                CompletableFuture<Boolean> future) {
+            this.dataKey = dataKey;
+            this.key = key;
+            this.lock = lock;
+            this.permits = permits;
+            this.writeConsistency = writeConsistency;
+            this.readConsistency = readConsistency;
+            this.future = future;
+        }
+
+        /**
+         * Lock attempts are coalesced per key, semaphore attempts per permit.
+         */
+        String slot() {
+            return permits > 1 ? dataKey.id() + "/" + key + "/" + lock.lockId : dataKey.id() + "/" + key;
+        }
+    }
+
+    private static class UnlockRequest {
+        final Key<ORMultiMap<String, Object>> dataKey;
+        final String key;
+        final DDLock lock;
+        final Replicator.WriteConsistency writeConsistency;
+        final CompletableFuture<Boolean> future;
+
+        UnlockRequest(Key<ORMultiMap<String, Object>> dataKey, String key, DDLock lock,
+                Replicator.WriteConsistency writeConsistency, CompletableFuture<Boolean> future) {
+            this.dataKey = dataKey;
+            this.key = key;
+            this.lock = lock;
+            this.writeConsistency = writeConsistency;
+            this.future = future;
+        }
+    }
+
+    /**
+     * An in-flight lock attempt, with attempts coalesced into it.
+     */
+    private static class InFlight {
+        final long requestId;
+        final LockRequest leader;
+        final List<LockRequest> followers = new ArrayList<>();
+
+        InFlight(long requestId, LockRequest leader) {
+            this.requestId = requestId;
+            this.leader = leader;
+        }
+    }
+
+    private static class ManagerActor extends AbstractActor {
+        private final Logger LOGGER = LoggerFactory.getLogger(DDLockManager.class);
+
+        private final ActorRef replicator;
+        private final SelfUniqueAddress selfUniqueAddress;
+        private final Map<String, InFlight> inFlightBySlot = new HashMap<>();
+        private final Map<Long, Object> pendingById = new HashMap<>();
+        private long nextRequestId = 1;
+
+        ManagerActor(ActorRef replicator, SelfUniqueAddress selfUniqueAddress) {
+            this.replicator = replicator;
+            this.selfUniqueAddress = selfUniqueAddress;
+        }
+
+        @Override
+        public Receive createReceive() {
+            return receiveBuilder().match(LockRequest.class, this::onLock).match(UnlockRequest.class, this::onUnlock)
+                    .match(Replicator.UpdateResponse.class, this::onUpdateResponse)
+                    .match(Replicator.GetResponse.class, this::onGetResponse).build();
+        }
+
+        private void onLock(LockRequest req) {
+            InFlight inFlight = inFlightBySlot.get(req.slot());
+            if (inFlight != null) {
+                inFlight.followers.add(req);
+                return;
+            }
+            InFlight attempt = new InFlight(nextRequestId++, req);
+            inFlightBySlot.put(req.slot(), attempt);
+            pendingById.put(attempt.requestId, attempt);
+            replicator.tell(new Replicator.Update<>(req.dataKey, ORMultiMap.create(), req.writeConsistency,
+                    Optional.of(attempt.requestId), curr -> {
+                if (req.permits > 1) {
+                    return acquireLocally(curr, req);
+                }
+                if (!curr.contains(req.key) || isFreeOrOwned(curr.get(req.key).get(), req.lock)) {
+                    return curr.put(selfUniqueAddress, req.key, Collections.singleton(req.lock));
+                }
+                return curr;
+            }), self());
+        }
+
+        /**
+         * Semaphore: put the permit (replacing the previous lease of the same permit) if there is room, pruning
+         * expired permits.
+         */
+        private ORMultiMap<String, Object> acquireLocally(ORMultiMap<String, Object> curr, LockRequest req) {
+            if (curr.contains(req.key) && !hasRoom(curr.get(req.key).get(), req.lock, req.permits)) {
+                return curr;
+            }
+            ORMultiMap<String, Object> result = curr;
+            if (curr.contains(req.key)) {
+                long now = System.currentTimeMillis();
+                for (scala.collection.Iterator<Object> it = curr.get(req.key).get().iterator(); it.hasNext(); ) {
+                    Object obj = it.next();
+                    if (obj.equals(req.lock) || (obj instanceof DDLock && ((DDLock) obj).expiry < now)) {
+                        result = result.removeBinding(selfUniqueAddress, req.key, obj);
+                    }
+                }
+            }
+            return result.addBinding(selfUniqueAddress, req.key, req.lock);
+        }
+
+        private void onUnlock(UnlockRequest req) {
+            long requestId = nextRequestId++;
+            pendingById.put(requestId, req);
+            replicator.tell(new Replicator.Update<>(req.dataKey, ORMultiMap.create(), req.writeConsistency,
+                    Optional.of(requestId), curr -> {
+                if (!curr.contains(req.key)) {
+                    return curr;
+                }
+                scala.collection.Set<Object> set = curr.get(req.key).get();
+                if (set.contains(req.lock)) {
+                    return curr.removeBinding(selfUniqueAddress, req.key, req.lock);
+                }
+                return isFreeOrOwned(set, req.lock) ? curr.remove(selfUniqueAddress, req.key) : curr;
+            }), self());
+        }
+
+        /**
+         * Best-effort removal of a lock that was put but not won.
+         */
+        private void discard(LockRequest req) {
+            replicator.tell(new Replicator.Update<>(req.dataKey, ORMultiMap.create(), req.writeConsistency,
+                    Optional.empty(), curr -> curr.contains(req.key) && curr.get(req.key).get().contains(req.lock) ?
+                    curr.removeBinding(selfUniqueAddress, req.key, req.lock) :
+                    curr), self());
+        }
+
+        private void finish(InFlight attempt, boolean won) {
+            pendingById.remove(attempt.requestId);
+            inFlightBySlot.remove(attempt.leader.slot());
+            attempt.leader.future.complete(won);
+            for (LockRequest follower : attempt.followers) {
+                follower.future.complete(won && follower.lock.equals(attempt.leader.lock));
+            }
+        }
+
+        private void onUpdateResponse(Replicator.UpdateResponse<?> resp) {
+            Object requestId = resp.getRequest().orElse(null);
+            Object pending = requestId != null ? pendingById.get(requestId) : null;
+            if (pending instanceof UnlockRequest) {
+                pendingById.remove(requestId);
+                ((UnlockRequest) pending).future.complete(resp instanceof Replicator.UpdateSuccess);
+            } else if (pending instanceof InFlight) {
+                InFlight attempt = (InFlight) pending;
+                if (resp instanceof Replicator.UpdateSuccess) {
+                    // whether the lock was put or not is told by the data read back
+                    LockRequest req = attempt.leader;
+                    replicator.tell(new Replicator.Get<>(req.dataKey, req.readConsistency, Optional.of(requestId)),
+                            self());
+                } else {
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("Cannot put lock " + attempt.leader.lock + ": " + resp);
+                    }
+                    discard(attempt.leader);
+                    finish(attempt, false);
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void onGetResponse(Replicator.GetResponse<?> resp) {
+            Object requestId = resp.getRequest().orElse(null);
+            Object pending = requestId != null ? pendingById.get(requestId) : null;
+            if (!(pending instanceof InFlight)) {
+                return;
+            }
+            InFlight attempt = (InFlight) pending;
+            LockRequest req = attempt.leader;
+            boolean won = false, found = true;
+            if (resp instanceof Replicator.GetSuccess) {
+                Object data = ((Replicator.GetSuccess<?>) resp).dataValue();
+                Collection<Object> locks = data instanceof ORMultiMap ?
+                        ((ORMultiMap<String, Object>) data).getEntries().get(req.key) :
+                        null;
+                found = locks != null && locks.contains(req.lock);
+                won = req.permits > 1 ?
+                        isWithinPermits(locks, req.lock, req.permits) :
+                        req.lock.equals(winner(locks));
+            } else if (resp instanceof Replicator.NotFound) {
+                found = false;
+            }
+            if (!won && found) {
+                discard(req);
+            }
+            finish(attempt, won);
+        }
+    }
+}
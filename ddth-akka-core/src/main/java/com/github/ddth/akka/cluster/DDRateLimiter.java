@@ -0,0 +1,328 @@
+package com.github.ddth.akka.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.cluster.ddata.DistributedData;
+import akka.cluster.ddata.PNCounterMap;
+import akka.cluster.ddata.PNCounterMapKey;
+import akka.cluster.ddata.Replicator;
+import akka.cluster.ddata.SelfUniqueAddress;
+import akka.pattern.Patterns;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.math.BigInteger;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Cluster-wide rate limiter on top of Akka's distributed-data: at most {@code permits} permits per {@code period}
+ * (fixed windows), across all nodes.
+ *
+ * <p>
+ * Permits are pre-allocated to nodes in slices: a node borrows a slice of the global budget of the current window
+ * (a {@link PNCounterMap} entry per window counts the permits borrowed by all nodes) and serves
+ * {@link #acquire()} locally, without any remote call, until the slice is used up. Concurrent borrows on one node are
+ * coalesced. Permits left unused at the end of a window are lost.
+ * </p>
+ *
+ * <p>
+ * A node reads the counter with the read consistency matching the write consistency used to borrow (e.g.
+ * {@link Replicator.ReadMajority} for {@link Replicator.WriteMajority}), so that every borrow that has reached its
+ * write consistency is seen by the next borrow, whichever node it is on.
+ * </p>
+ *
+ * <p>
+ * Note: the limiter is "weak": nodes borrowing at the same time may see a stale counter and overshoot the budget by
+ * at most one slice per node, per window. With {@link Replicator#writeLocal()}, or if the cluster is partitioned
+ * (borrows that do not reach their consistency are still granted, the counter is then read locally), the bound does
+ * not hold: each node may use up to the whole budget per window.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class DDRateLimiter {
+    private final static ConcurrentMap<ActorSystem, ConcurrentMap<String, DDRateLimiter>> instances =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Get a named rate limiter of an actor system, create one if not exist. Limiters with the same name share the
+     * same budget across the cluster, all nodes must use the same {@code permits} and {@code period}.
+     *
+     * @param actorSystem
+     * @param name
+     * @param permits
+     * @param period
+     * @param periodUnit
+     * @param sliceSize        number of permits borrowed at a time
+     * @param writeConsistency consistency used when borrowing a slice, the counter is read with the matching read
+     *                         consistency
+     * @return
+     */
+    public static DDRateLimiter get(ActorSystem actorSystem, String name, long permits, long period,
+            TimeUnit periodUnit, long sliceSize, Replicator.WriteConsistency writeConsistency) {
+        ConcurrentMap<String, DDRateLimiter> limiters = instances.computeIfAbsent(actorSystem, system -> {
+            system.registerOnTermination(() -> instances.remove(system));
+            return new ConcurrentHashMap<>();
+        });
+        return limiters.computeIfAbsent(name,
+                k -> new DDRateLimiter(actorSystem, name, permits, periodUnit.toMillis(period), sliceSize,
+                        writeConsistency));
+    }
+
+    /**
+     * Get a named rate limiter of an actor system, create one if not exist (slice size: 5% of {@code permits},
+     * borrowing with {@link Replicator.WriteMajority} and {@link Replicator.ReadMajority}).
+     *
+     * @param actorSystem
+     * @param name
+     * @param permits
+     * @param period
+     * @param periodUnit
+     * @return
+     */
+    public static DDRateLimiter get(ActorSystem actorSystem, String name, long permits, long period,
+            TimeUnit periodUnit) {
+        return get(actorSystem, name, permits, period, periodUnit, Math.max(1, permits / 20),
+                new Replicator.WriteMajority(scala.concurrent.duration.Duration.create(3, TimeUnit.SECONDS)));
+    }
+
+    private final String name;
+    private final long permits;
+    private final long periodMs;
+    private final long sliceSize;
+    private final ActorRef replicator;
+    private final SelfUniqueAddress selfUniqueAddress;
+    private final PNCounterMapKey<String> dataKey;
+    private final Replicator.WriteConsistency writeConsistency;
+    private final Replicator.ReadConsistency readConsistency;
+    private final AtomicReference<Bucket> bucket = new AtomicReference<>(new Bucket(-1));
+
+    private DDRateLimiter(ActorSystem actorSystem, String name, long permits, long periodMs, long sliceSize,
+            Replicator.WriteConsistency writeConsistency) {
+        if (permits < 1 || periodMs < 1) {
+            throw new IllegalArgumentException("Invalid rate [" + permits + "/" + periodMs + "ms].");
+        }
+        this.name = name;
+        this.permits = permits;
+        this.periodMs = periodMs;
+        this.sliceSize = Math.max(1, Math.min(sliceSize, permits));
+        this.writeConsistency = writeConsistency;
+        this.readConsistency = readConsistency(writeConsistency);
+        DistributedData dd = DistributedData.get(actorSystem);
+        this.replicator = dd.replicator();
+        this.selfUniqueAddress = dd.selfUniqueAddress();
+        this.dataKey = new PNCounterMapKey<>("ddth-rate-limiter-" + name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getPermits() {
+        return permits;
+    }
+
+    public long getPeriodMs() {
+        return periodMs;
+    }
+
+    public long getSliceSize() {
+        return sliceSize;
+    }
+
+    /**
+     * Number of permits left in this node's slice of the current window.
+     *
+     * @return
+     */
+    public long getLocalPermits() {
+        Bucket b = bucket.get();
+        return b.window == currentWindow() ? Math.max(0, b.tokens.get()) : 0;
+    }
+
+    private long currentWindow() {
+        return System.currentTimeMillis() / periodMs;
+    }
+
+    private Bucket currentBucket() {
+        long window = currentWindow();
+        Bucket b = bucket.get();
+        while (b.window < window) {
+            bucket.compareAndSet(b, new Bucket(window));
+            b = bucket.get();
+        }
+        return b;
+    }
+
+    /**
+     * Acquire a permit.
+     *
+     * @return a stage that completes with {@code true} if a permit was acquired, {@code false} if the budget of the
+     * current window has been used up. The stage is already completed if this node still has permits locally.
+     */
+    public CompletionStage<Boolean> acquire() {
+        Bucket b = currentBucket();
+        if (b.take()) {
+            return CompletableFuture.completedFuture(Boolean.TRUE);
+        }
+        if (b.exhausted) {
+            return CompletableFuture.completedFuture(Boolean.FALSE);
+        }
+        return b.borrow()
+                .thenCompose(granted -> granted ? acquire() : CompletableFuture.completedFuture(Boolean.FALSE));
+    }
+
+    /**
+     * Acquire a permit, waiting up to {@code timeoutMs} if a slice has to be borrowed.
+     *
+     * @param timeoutMs
+     * @return
+     */
+    public boolean tryAcquire(long timeoutMs) {
+        try {
+            return acquire().toCompletableFuture().get(timeoutMs, TimeUnit.MILLISECONDS).booleanValue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            return false;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("name", name).append("permits", permits).append("periodMs", periodMs)
+                .append("sliceSize", sliceSize);
+        return tsb.toString();
+    }
+
+    /**
+     * Read consistency matching a write consistency: reads and writes with matching consistencies overlap on at least
+     * one node.
+     *
+     * @param writeConsistency
+     * @return
+     */
+    static Replicator.ReadConsistency readConsistency(Replicator.WriteConsistency writeConsistency) {
+        if (writeConsistency instanceof Replicator.WriteMajority) {
+            Replicator.WriteMajority wc = (Replicator.WriteMajority) writeConsistency;
+            return new Replicator.ReadMajority(wc.timeout(), wc.minCap());
+        }
+        if (writeConsistency instanceof Replicator.WriteAll) {
+            return new Replicator.ReadAll(writeConsistency.timeout());
+        }
+        if (writeConsistency instanceof Replicator.WriteTo) {
+            Replicator.WriteTo wc = (Replicator.WriteTo) writeConsistency;
+            return new Replicator.ReadFrom(wc.n(), wc.timeout());
+        }
+        return Replicator.readLocal();
+    }
+
+    /**
+     * Number of permits to borrow, given the number of permits already borrowed in the window.
+     *
+     * @param used
+     * @return
+     */
+    long grant(long used) {
+        return Math.max(0, Math.min(sliceSize, permits - used));
+    }
+
+    /**
+     * Remove counters of windows older than the previous one.
+     *
+     * @param data
+     * @param window
+     * @return
+     */
+    PNCounterMap<String> prune(PNCounterMap<String> data, long window) {
+        PNCounterMap<String> result = data;
+        for (String k : data.getEntries().keySet()) {
+            if (Long.parseLong(k) < window - 1) {
+                result = result.remove(k, selfUniqueAddress);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Permits of this node for one window.
+     */
+    private class Bucket {
+        final long window;
+        final AtomicLong tokens = new AtomicLong(0);
+        CompletableFuture<Boolean> inFlight;
+        volatile boolean exhausted = false;
+
+        Bucket(long window) {
+            this.window = window;
+        }
+
+        boolean take() {
+            return tokens.getAndUpdate(t -> t > 0 ? t - 1 : t) > 0;
+        }
+
+        /**
+         * Borrow a slice from the global budget of the window, coalescing concurrent borrows.
+         */
+        synchronized CompletableFuture<Boolean> borrow() {
+            if (inFlight != null) {
+                return inFlight;
+            }
+            CompletableFuture<Boolean> result = inFlight = new CompletableFuture<>();
+            String windowKey = String.valueOf(window);
+            Duration timeout = Duration.ofMillis(periodMs + 10000);
+            // the grant is computed from the counter read with the consistency matching the write (falling back to
+            // the local replica if it cannot be reached), then added by an update whose modify function is pure
+            Patterns.ask(replicator, new Replicator.Get<>(dataKey, readConsistency), timeout)
+                    .thenCompose(resp -> resp instanceof Replicator.GetFailure ?
+                            Patterns.ask(replicator, new Replicator.Get<>(dataKey, Replicator.readLocal()), timeout) :
+                            CompletableFuture.completedFuture(resp))
+                    .thenCompose(resp -> {
+                        long used = 0;
+                        if (resp instanceof Replicator.GetSuccess) {
+                            @SuppressWarnings("unchecked")
+                            PNCounterMap<String> data = ((Replicator.GetSuccess<PNCounterMap<String>>) resp)
+                                    .dataValue();
+                            BigInteger _used = data.getEntries().get(windowKey);
+                            used = _used != null ? _used.longValue() : 0;
+                        }
+                        long grant = grant(used);
+                        if (grant <= 0) {
+                            return CompletableFuture.completedFuture(0L);
+                        }
+                        Replicator.Update<PNCounterMap<String>> update = new Replicator.Update<>(dataKey,
+                                PNCounterMap.create(), writeConsistency,
+                                curr -> prune(curr, window).increment(selfUniqueAddress, windowKey, grant));
+                        // the update is applied to the local replica even if the write consistency is not reached,
+                        // so the borrowed permits are counted and can be used
+                        return Patterns.ask(replicator, update, timeout).handle((r, e) -> grant);
+                    }).whenComplete((grant, e) -> {
+                if (grant != null && grant > 0) {
+                    tokens.addAndGet(grant);
+                } else if (e == null) {
+                    exhausted = true;
+                }
+                synchronized (this) {
+                    inFlight = null;
+                }
+                result.complete(grant != null && grant > 0);
+            });
+            return result;
+        }
+    }
+}
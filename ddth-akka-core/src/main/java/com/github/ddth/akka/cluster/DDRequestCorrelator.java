@@ -0,0 +1,238 @@
+package com.github.ddth.akka.cluster;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Cancellable;
+import akka.actor.Props;
+import akka.cluster.ddata.DistributedData;
+import akka.cluster.ddata.Key;
+import akka.cluster.ddata.LWWMap;
+import akka.cluster.ddata.ORMultiMap;
+import akka.cluster.ddata.Replicator;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDTags;
+import scala.concurrent.duration.Duration;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Correlate distributed-data GET responses with their requests (one instance per {@link ActorSystem}).
+ *
+ * <p>Requests are sent to the replicator on behalf of an internal actor, which completes the per-request future
+ * keyed by {@link DDTags#getId()}. Responses do not go through the requesting actor's mailbox, so that a GET can be
+ * waited for even from the actor's own thread.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class DDRequestCorrelator {
+    private final static ConcurrentMap<ActorSystem, DDRequestCorrelator> instances = new ConcurrentHashMap<>();
+
+    /**
+     * Get the correlator of an actor system, create one if not exist.
+     *
+     * @param actorSystem
+     * @return
+     */
+    public static DDRequestCorrelator get(ActorSystem actorSystem) {
+        return instances.computeIfAbsent(actorSystem, system -> {
+            DDRequestCorrelator correlator = new DDRequestCorrelator(system);
+            system.registerOnTermination(() -> instances.remove(system));
+            return correlator;
+        });
+    }
+
+    private final ActorSystem actorSystem;
+    private final ActorRef replicator;
+    private final ActorRef correlatorActor;
+    private final ConcurrentMap<Long, CompletableFuture<DDGetResult>> pending = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, MultiGet> pendingMulti = new ConcurrentHashMap<>();
+
+    private DDRequestCorrelator(ActorSystem actorSystem) {
+        this.actorSystem = actorSystem;
+        this.replicator = DistributedData.get(actorSystem).replicator();
+        this.correlatorActor = actorSystem
+                .actorOf(Props.create(CorrelatorActor.class, () -> new CorrelatorActor(this)),
+                        "ddth-dd-request-correlator");
+    }
+
+    /**
+     * Number of requests waiting for responses.
+     *
+     * @return
+     */
+    public int getPendingCount() {
+        return pending.size() + pendingMulti.size();
+    }
+
+    /**
+     * Get a distributed-data record, stored in an {@link ORMultiMap} or (since the sharded layout) a {@link LWWMap}.
+     *
+     * <p>The returned stage completes with:</p>
+     * <ul>
+     * <li>{@link DDGetResult} if the record is found,</li>
+     * <li>{@link DistributedDataUtils.DDGetResult.DDGetNotFound} if the record does not exist,</li>
+     * <li>{@link DistributedDataUtils.DDGetResult.DDGetError} if the replicator could not satisfy
+     * {@code readConsistency} (replicator's own timeout),</li>
+     * <li>exceptionally with {@link TimeoutException} if no response arrives within {@code timeout}.</li>
+     * </ul>
+     *
+     * <p>{@code timeout} of {@code 0} or less means waiting for the replicator's response, which always comes
+     * (possibly as an error) after {@code readConsistency}'s timeout.</p>
+     *
+     * @param dataKey
+     * @param tags
+     * @param readConsistency
+     * @param timeout
+     * @param timeoutUnit
+     * @return
+     */
+    public CompletionStage<DDGetResult> get(Key<?> dataKey, DDTags tags,
+            Replicator.ReadConsistency readConsistency, long timeout, TimeUnit timeoutUnit) {
+        CompletableFuture<DDGetResult> result = new CompletableFuture<>();
+        long id = tags.getId();
+        if (pending.putIfAbsent(id, result) != null) {
+            result.completeExceptionally(new IllegalArgumentException("Duplicated request id [" + id + "]."));
+            return result;
+        }
+        if (timeout > 0) {
+            Cancellable timer = actorSystem.scheduler().scheduleOnce(Duration.create(timeout, timeoutUnit), () -> {
+                if (pending.remove(id, result)) {
+                    result.completeExceptionally(new TimeoutException(
+                            "No response for distributed-data request " + tags + " after " + timeout + " "
+                                    + timeoutUnit + "."));
+                }
+            }, actorSystem.dispatcher());
+            result.whenComplete((r, e) -> timer.cancel());
+        }
+        replicator.tell(new Replicator.Get<>(dataKey, readConsistency, Optional.of(tags)), correlatorActor);
+        return result;
+    }
+
+    /**
+     * Get several distributed-data records stored under the same distributed-data key, with one
+     * {@link Replicator.Get}.
+     *
+     * <p>The returned stage completes with a map {@code record-key -> result} (see
+     * {@link #get(Key, DDTags, Replicator.ReadConsistency, long, TimeUnit)} for possible results), or exceptionally
+     * with {@link TimeoutException} if no response arrives within {@code timeout}.</p>
+     *
+     * @param dataKey
+     * @param keys
+     * @param readConsistency
+     * @param timeout
+     * @param timeoutUnit
+     * @return
+     * @since 1.2.0
+     */
+    public CompletionStage<Map<String, DDGetResult>> getAll(Key<?> dataKey, Collection<String> keys,
+            Replicator.ReadConsistency readConsistency, long timeout, TimeUnit timeoutUnit) {
+        DDTags tags = new DDTags(null);
+        MultiGet multiGet = new MultiGet(tags, keys);
+        long id = tags.getId();
+        if (pendingMulti.putIfAbsent(id, multiGet) != null) {
+            multiGet.future.completeExceptionally(new IllegalArgumentException("Duplicated request id [" + id + "]."));
+            return multiGet.future;
+        }
+        if (timeout > 0) {
+            Cancellable timer = actorSystem.scheduler().scheduleOnce(Duration.create(timeout, timeoutUnit), () -> {
+                if (pendingMulti.remove(id, multiGet)) {
+                    multiGet.future.completeExceptionally(new TimeoutException(
+                            "No response for distributed-data request " + keys + " after " + timeout + " "
+                                    + timeoutUnit + "."));
+                }
+            }, actorSystem.dispatcher());
+            multiGet.future.whenComplete((r, e) -> timer.cancel());
+        }
+        replicator.tell(new Replicator.Get<>(dataKey, readConsistency, Optional.of(tags)), correlatorActor);
+        return multiGet.future;
+    }
+
+    private static class MultiGet {
+        final DDTags tags;
+        final Collection<String> keys;
+        final CompletableFuture<Map<String, DDGetResult>> future = new CompletableFuture<>();
+
+        MultiGet(DDTags tags, Collection<String> keys) {
+            this.tags = tags;
+            this.keys = keys;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Object> valueOf(Object dataValue, String key) {
+        if (dataValue instanceof ORMultiMap) {
+            return ((ORMultiMap<String, Object>) dataValue).getEntries().get(key);
+        }
+        if (dataValue instanceof LWWMap) {
+            Object v = ((LWWMap<String, Object>) dataValue).getEntries().get(key);
+            return v != null ? Collections.singleton(v) : null;
+        }
+        return null;
+    }
+
+    private void complete(Replicator.GetResponse<?> msg, DDTags tags) {
+        MultiGet multiGet = pendingMulti.remove(tags.getId());
+        if (multiGet != null) {
+            Map<String, DDGetResult> result = new LinkedHashMap<>();
+            for (String key : multiGet.keys) {
+                DDTags keyTags = new DDTags(tags.getId(), key);
+                if (msg instanceof Replicator.GetSuccess) {
+                    result.put(key,
+                            DDGetResult.ok(keyTags, valueOf(((Replicator.GetSuccess<?>) msg).dataValue(), key)));
+                } else if (msg instanceof Replicator.NotFound) {
+                    result.put(key, DDGetResult.notFound(keyTags));
+                } else {
+                    result.put(key, DDGetResult.error(keyTags));
+                }
+            }
+            multiGet.future.complete(result);
+            return;
+        }
+        if (msg instanceof Replicator.GetSuccess) {
+            complete(tags, DDGetResult.ok(tags, valueOf(((Replicator.GetSuccess<?>) msg).dataValue(), tags.getKey())));
+        } else if (msg instanceof Replicator.NotFound) {
+            complete(tags, DDGetResult.notFound(tags));
+        } else {
+            complete(tags, DDGetResult.error(tags));
+        }
+    }
+
+    private void complete(DDTags tags, DDGetResult result) {
+        CompletableFuture<DDGetResult> future = pending.remove(tags.getId());
+        if (future != null) {
+            future.complete(result);
+        }
+    }
+
+    private static class CorrelatorActor extends AbstractActor {
+        private final DDRequestCorrelator correlator;
+
+        CorrelatorActor(DDRequestCorrelator correlator) {
+            this.correlator = correlator;
+        }
+
+        @Override
+        public Receive createReceive() {
+            return receiveBuilder().match(Replicator.GetResponse.class, this::onGetResponse).build();
+        }
+
+        private void onGetResponse(Replicator.GetResponse<?> msg) {
+            Object _tags = msg.getRequest().orElse(null);
+            if (_tags instanceof DDTags) {
+                correlator.complete(msg, (DDTags) _tags);
+            }
+        }
+    }
+}
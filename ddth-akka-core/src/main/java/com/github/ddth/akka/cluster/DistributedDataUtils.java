@@ -4,6 +4,8 @@ import akka.cluster.ddata.ORMultiMap;
 import com.github.ddth.commons.utils.IdGenerator;
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigValueFactory;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
@@ -31,7 +33,9 @@ public class DistributedDataUtils {
      *
      * @param id
      * @return
+     * @deprecated since 1.2.0, responses are delivered to per-request futures (see {@link DDRequestCorrelator})
      */
+    @Deprecated
     public static DDGetResult getResponse(long id) {
         return ddGetResponses.getIfPresent(id);
     }
@@ -41,7 +45,9 @@ public class DistributedDataUtils {
      *
      * @param id
      * @param ddGetResult
+     * @deprecated since 1.2.0, responses are delivered to per-request futures (see {@link DDRequestCorrelator})
      */
+    @Deprecated
     public static void setResponse(long id, DDGetResult ddGetResult) {
         if (ddGetResult == null) {
             ddGetResponses.invalidate(id);
@@ -50,6 +56,94 @@ public class DistributedDataUtils {
         }
     }
 
+    /**
+     * Config path: ids of durable distributed-data keys (a trailing {@code *} matches by prefix).
+     *
+     * @since 1.2.0
+     */
+    public final static String CONFIG_DURABLE_KEYS = "akka.cluster.distributed-data.durable.keys";
+
+    /**
+     * Config path: directory of the LMDB durable store (must be different for each node on the same host).
+     *
+     * @since 1.2.0
+     */
+    public final static String CONFIG_DURABLE_LMDB_DIR = "akka.cluster.distributed-data.durable.lmdb.dir";
+
+    /**
+     * Config path: write-behind interval of the LMDB durable store ({@code off} means each update is written
+     * immediately).
+     *
+     * @since 1.2.0
+     */
+    public final static String CONFIG_DURABLE_LMDB_WRITE_BEHIND_INTERVAL =
+            "akka.cluster.distributed-data.durable.lmdb.write-behind-interval";
+
+    /**
+     * Durable-key patterns covering all distributed-data keys of a cluster-actor, for both single and sharded
+     * layouts (see {@link BaseClusterActor#getDDShards()}): {@code <dd-key-id>} and {@code <dd-key-id>-*}.
+     *
+     * @param ddKeyId
+     * @return
+     * @since 1.2.0
+     */
+    public static List<String> durableKeyPatterns(String ddKeyId) {
+        return Arrays.asList(ddKeyId, ddKeyId + "-*");
+    }
+
+    /**
+     * Build a config that stores distributed-data of the specified cluster-actors in the durable (LMDB) store, so
+     * that they survive a full-cluster restart.
+     *
+     * <p>
+     * Updates are batched and flushed every {@code writeBehindIntervalMs} ({@code 0} or less: each update is written
+     * immediately). Keys already configured as durable in {@code config} are kept.
+     * </p>
+     *
+     * @param config
+     * @param ddKeyIds              distributed-data key ids of cluster-actors (actor names by default)
+     * @param lmdbDir               directory of the durable store, {@code null} to keep the configured one
+     * @param writeBehindIntervalMs
+     * @return
+     * @since 1.2.0
+     */
+    public static Config withDurableKeys(Config config, Collection<String> ddKeyIds, String lmdbDir,
+            long writeBehindIntervalMs) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (config.hasPath(CONFIG_DURABLE_KEYS)) {
+            keys.addAll(config.getStringList(CONFIG_DURABLE_KEYS));
+        }
+        ddKeyIds.forEach(id -> keys.addAll(durableKeyPatterns(id)));
+        Config result = config.withValue(CONFIG_DURABLE_KEYS, ConfigValueFactory.fromIterable(keys))
+                .withValue(CONFIG_DURABLE_LMDB_WRITE_BEHIND_INTERVAL, ConfigValueFactory
+                        .fromAnyRef(writeBehindIntervalMs > 0 ? writeBehindIntervalMs + "ms" : "off"));
+        return StringUtils.isBlank(lmdbDir) ?
+                result :
+                result.withValue(CONFIG_DURABLE_LMDB_DIR, ConfigValueFactory.fromAnyRef(lmdbDir));
+    }
+
+    /**
+     * Check if a distributed-data key is configured as durable.
+     *
+     * @param config
+     * @param keyId
+     * @return
+     * @since 1.2.0
+     */
+    public static boolean isDurableKey(Config config, String keyId) {
+        if (keyId == null || !config.hasPath(CONFIG_DURABLE_KEYS)) {
+            return false;
+        }
+        for (String pattern : config.getStringList(CONFIG_DURABLE_KEYS)) {
+            if (pattern.endsWith("*") ?
+                    keyId.startsWith(pattern.substring(0, pattern.length() - 1)) :
+                    pattern.equals(keyId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * A lock implementation using distributed-data.
      */
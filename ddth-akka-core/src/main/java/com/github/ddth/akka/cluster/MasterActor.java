@@ -10,12 +10,19 @@ import akka.cluster.ClusterEvent.MemberUp;
 import akka.cluster.ClusterEvent.UnreachableMember;
 import akka.cluster.Member;
 import akka.cluster.MemberStatus;
+import akka.cluster.metrics.ClusterMetricsChanged;
+import akka.cluster.metrics.ClusterMetricsExtension;
+import akka.cluster.metrics.NodeMetrics;
+import akka.cluster.metrics.StandardMetrics;
 import com.github.ddth.akka.cluster.messages.*;
 import com.github.ddth.akka.utils.AkkaUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import scala.collection.JavaConverters;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Actor that keeps track of nodes within the cluster.
  *
@@ -23,6 +30,11 @@ import scala.collection.JavaConverters;
  * Create one instance of this actor per node in cluster.
  * </p>
  *
+ * <p>
+ * Since v1.2.0, if {@code ClusterMetricsExtension} is available, this actor also keeps track of nodes' load
+ * (see {@link ClusterMemberUtils#getNodeLoad(akka.actor.Address)}).
+ * </p>
+ *
  * @author Thanh Nguyen <btnguyen2k@gmail.com>
  * @since 0.1.3
  */
@@ -63,13 +75,14 @@ public class MasterActor extends BaseClusterActor {
         });
 
         addMessageHandler(RefreshClusterMembersMessage.class, msg -> {
-            ClusterMemberUtils.resetNodes();
+            List<Member> upMembers = new ArrayList<>();
             JavaConverters.asJavaIterable(getCluster().state().members()).forEach(m -> {
                 LOGGER.warn("Refreshing cluster member " + m);
                 if (m.status() == MemberStatus.up()) {
-                    ClusterMemberUtils.addNode(m);
+                    upMembers.add(m);
                 }
             });
+            ClusterMemberUtils.replaceNodes(upMembers);
         });
         addMessageHandler(GetLeaderMessage.class, msg -> {
             ActorRef sender = sender();
@@ -99,10 +112,77 @@ public class MasterActor extends BaseClusterActor {
             }
         });
 
+        subscribeClusterMetrics();
+
         // initialize Cluster member state
         self().tell(new RefreshClusterMembersMessage(), self());
     }
 
+    private boolean clusterMetricsSubscribed = false;
+
+    /**
+     * Subscribe to cluster-metrics events, if {@code ClusterMetricsExtension} is available.
+     *
+     * @since 1.2.0
+     */
+    protected void subscribeClusterMetrics() {
+        try {
+            addMessageHandler(ClusterMetricsChanged.class, this::eventClusterMetricsChanged);
+            ClusterMetricsExtension.get(getContext().system()).subscribe(self());
+            clusterMetricsSubscribed = true;
+        } catch (LinkageError | Exception e) {
+            LOGGER.info("Cluster metrics is not available, node load will not be tracked: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Calculate load of a node from its (smoothed, by cluster-metrics) metrics: mean of combined CPU usage, heap
+     * usage and system load average per processor, whichever are available.
+     *
+     * @param nodeMetrics
+     * @return {@code null} if load cannot be calculated
+     * @since 1.2.0
+     */
+    protected ClusterMemberUtils.NodeLoad calcNodeLoadDetails(NodeMetrics nodeMetrics) {
+        double cpuUsage = -1, heapUsage = -1, loadAverage = -1;
+        StandardMetrics.Cpu cpu = StandardMetrics.extractCpu(nodeMetrics);
+        if (cpu != null && cpu.cpuCombined().isDefined()) {
+            cpuUsage = ((Number) cpu.cpuCombined().get()).doubleValue();
+        }
+        if (cpu != null && cpu.systemLoadAverage().isDefined() && cpu.processors() > 0) {
+            loadAverage = ((Number) cpu.systemLoadAverage().get()).doubleValue() / cpu.processors();
+        }
+        StandardMetrics.HeapMemory heap = StandardMetrics.extractHeapMemory(nodeMetrics);
+        if (heap != null) {
+            long max = heap.max().isDefined() ? ((Number) heap.max().get()).longValue() : heap.committed();
+            heapUsage = max > 0 ? (double) heap.used() / max : -1;
+        }
+        return ClusterMemberUtils.NodeLoad.of(cpuUsage, heapUsage, loadAverage, nodeMetrics.timestamp());
+    }
+
+    /**
+     * Calculate load of a node from its metrics (see {@link #calcNodeLoadDetails(NodeMetrics)}).
+     *
+     * @param nodeMetrics
+     * @return load value, {@code 0.0} means idle, {@code 1.0} means fully loaded; or negative value if load
+     * cannot be calculated
+     * @since 1.2.0
+     */
+    protected double calcNodeLoad(NodeMetrics nodeMetrics) {
+        ClusterMemberUtils.NodeLoad load = calcNodeLoadDetails(nodeMetrics);
+        return load != null ? load.load : -1;
+    }
+
+    /**
+     * @param msg
+     * @since 1.2.0
+     */
+    protected void eventClusterMetricsChanged(ClusterMetricsChanged msg) {
+        for (NodeMetrics nodeMetrics : msg.getNodeMetrics()) {
+            ClusterMemberUtils.updateNodeLoad(nodeMetrics.address(), calcNodeLoadDetails(nodeMetrics));
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -113,6 +193,13 @@ public class MasterActor extends BaseClusterActor {
         } catch (Exception e) {
             LOGGER.warn(e.getMessage(), e);
         }
+        if (clusterMetricsSubscribed) {
+            try {
+                ClusterMetricsExtension.get(getContext().system()).unsubscribe(self());
+            } catch (Exception e) {
+                LOGGER.warn(e.getMessage(), e);
+            }
+        }
         super.destroyActor();
     }
 
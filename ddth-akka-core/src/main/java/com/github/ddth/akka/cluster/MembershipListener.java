@@ -0,0 +1,23 @@
+package com.github.ddth.akka.cluster;
+
+import com.github.ddth.akka.cluster.messages.MembershipChangedMessage;
+
+/**
+ * Listener of cluster's membership changes (see
+ * {@link ClusterMemberUtils#subscribe(java.util.Collection, MembershipListener)}).
+ *
+ * <p>Listeners are notified in order of changes, while the membership is being updated: implementations must be fast
+ * and must not block.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+@FunctionalInterface
+public interface MembershipListener {
+    /**
+     * Called when membership of a subscribed role changes (and once per subscribed role on subscribe).
+     *
+     * @param change
+     */
+    void onMembershipChanged(MembershipChangedMessage change);
+}
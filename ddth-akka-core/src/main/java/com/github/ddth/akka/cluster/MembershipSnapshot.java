@@ -0,0 +1,221 @@
+package com.github.ddth.akka.cluster;
+
+import akka.actor.Address;
+import akka.cluster.Member;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.*;
+
+/**
+ * Immutable, versioned view of cluster's members.
+ *
+ * <p>
+ * Members of each role are indexed (oldest first) and the leader of each role (the oldest member) is precomputed at
+ * construction, so that reads are O(1) and never block. Updates create a new snapshot (copy-on-write) with a greater
+ * version.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public final class MembershipSnapshot {
+    /**
+     * Empty snapshot, version {@code 0}.
+     */
+    public final static MembershipSnapshot EMPTY = new MembershipSnapshot(0, Collections.emptyMap());
+
+    private final static Member[] NO_MEMBERS = new Member[0];
+
+    /**
+     * Oldest first, ties broken by address.
+     */
+    private final static Comparator<Member> AGE_ORDER = (a, b) -> a.isOlderThan(b) ?
+            -1 :
+            (b.isOlderThan(a) ? 1 : a.address().toString().compareTo(b.address().toString()));
+
+    /**
+     * Build a snapshot from a collection of members.
+     *
+     * @param version
+     * @param members
+     * @return
+     */
+    public static MembershipSnapshot of(long version, Collection<Member> members) {
+        Map<Address, Member> map = new HashMap<>();
+        members.forEach(m -> map.put(m.address(), m));
+        return new MembershipSnapshot(version, map);
+    }
+
+    private final long version;
+    private final Map<Address, Member> members;
+    private final Map<String, Member[]> membersByRole;
+    private final Map<String, Set<Member>> memberSetsByRole;
+
+    private MembershipSnapshot(long version, Map<Address, Member> members) {
+        this.version = version;
+        this.members = Collections.unmodifiableMap(members);
+
+        Map<String, List<Member>> byRole = new HashMap<>();
+        for (Member m : members.values()) {
+            byRole.computeIfAbsent(ClusterMemberUtils.ROLE_ALL, k -> new ArrayList<>()).add(m);
+            for (String role : m.getRoles()) {
+                if (!ClusterMemberUtils.ROLE_ALL.equals(role)) {
+                    byRole.computeIfAbsent(role, k -> new ArrayList<>()).add(m);
+                }
+            }
+        }
+        Map<String, Member[]> membersByRole = new HashMap<>();
+        Map<String, Set<Member>> memberSetsByRole = new HashMap<>();
+        byRole.forEach((role, list) -> {
+            Member[] arr = list.toArray(NO_MEMBERS);
+            Arrays.sort(arr, AGE_ORDER);
+            membersByRole.put(role, arr);
+            memberSetsByRole.put(role, Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(arr))));
+        });
+        this.membersByRole = membersByRole;
+        this.memberSetsByRole = memberSetsByRole;
+    }
+
+    /**
+     * Snapshot's version, increased on every change.
+     *
+     * @return
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Number of members.
+     *
+     * @return
+     */
+    public int size() {
+        return members.size();
+    }
+
+    /**
+     * Check if a node is a member.
+     *
+     * @param node
+     * @return
+     */
+    public boolean contains(Address node) {
+        return members.containsKey(node);
+    }
+
+    /**
+     * Get a member by address.
+     *
+     * @param node
+     * @return
+     */
+    public Member getMember(Address node) {
+        return members.get(node);
+    }
+
+    /**
+     * All members, as {@code address -> member}.
+     *
+     * @return
+     */
+    public Map<Address, Member> getMembers() {
+        return members;
+    }
+
+    /**
+     * Get leader node (the oldest member) for a role.
+     *
+     * @param role
+     * @return {@code null} if no member has the role
+     */
+    public Member getLeader(String role) {
+        Member[] arr = membersByRole.get(role);
+        return arr != null && arr.length > 0 ? arr[0] : null;
+    }
+
+    /**
+     * Check if a node is leader for a role.
+     *
+     * @param role
+     * @param node
+     * @return
+     */
+    public boolean isLeader(String role, Member node) {
+        Member leader = getLeader(role);
+        return leader != null && node != null && leader.address().equals(node.address());
+    }
+
+    /**
+     * Get all nodes for a role, oldest first.
+     *
+     * @param role
+     * @return an immutable set
+     */
+    public Set<Member> getNodes(String role) {
+        Set<Member> result = memberSetsByRole.get(role);
+        return result != null ? result : Collections.emptySet();
+    }
+
+    /**
+     * Number of nodes for a role.
+     *
+     * @param role
+     * @return
+     */
+    public int countNodes(String role) {
+        Member[] arr = membersByRole.get(role);
+        return arr != null ? arr.length : 0;
+    }
+
+    /**
+     * Get the i-th node (oldest first) for a role.
+     *
+     * @param role
+     * @param index
+     * @return
+     * @throws IndexOutOfBoundsException
+     */
+    public Member getNode(String role, int index) {
+        Member[] arr = membersByRole.get(role);
+        if (arr == null || index < 0 || index >= arr.length) {
+            throw new IndexOutOfBoundsException("Role [" + role + "], index " + index);
+        }
+        return arr[index];
+    }
+
+    /**
+     * Create a new snapshot with a member added (or updated).
+     *
+     * @param node
+     * @return
+     */
+    public MembershipSnapshot withMember(Member node) {
+        Map<Address, Member> map = new HashMap<>(members);
+        map.put(node.address(), node);
+        return new MembershipSnapshot(version + 1, map);
+    }
+
+    /**
+     * Create a new snapshot with a member removed.
+     *
+     * @param node
+     * @return
+     */
+    public MembershipSnapshot withoutMember(Member node) {
+        Map<Address, Member> map = new HashMap<>(members);
+        map.remove(node.address());
+        return new MembershipSnapshot(version + 1, map);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("version", version).append("members", members.keySet());
+        return tsb.toString();
+    }
+}
@@ -0,0 +1,239 @@
+package com.github.ddth.akka.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.cluster.Member;
+import com.github.ddth.akka.BaseMessage;
+import com.github.ddth.akka.cluster.messages.MembershipChangedMessage;
+import com.github.ddth.akka.utils.RendezvousHashing;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Route keys to nodes of a role using rendezvous hashing (see {@link RendezvousHashing}): the same key is always
+ * routed to the same node as long as that node is up; when a node joins or leaves, only keys owned by that node move.
+ *
+ * <p>
+ * The router subscribes to membership changes of its role (see
+ * {@link ClusterMemberUtils#subscribe(java.util.Collection, MembershipListener)}) and updates its node table
+ * incrementally. The table is immutable and swapped via a volatile reference, lookups ({@link #route(long)},
+ * {@link #route(String)}, {@link #routeTopN(long, Member[])}) do not lock nor allocate.
+ * </p>
+ *
+ * <p>Usage:</p>
+ * <pre>
+ * RendezvousRouter router = new RendezvousRouter(actorSystem, "worker").init();
+ * router.tell(customerId, "/user/cache-actor", message, self());
+ * ...
+ * router.destroy();
+ * </pre>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class RendezvousRouter implements MembershipListener {
+    private final static Member[] NO_MEMBERS = new Member[0];
+    private final static long[] NO_HASHES = new long[0];
+
+    /**
+     * Immutable node table.
+     */
+    private static class Table {
+        final Member[] members;
+        final String[] addresses;
+        final long[] hashes;
+
+        Table(Member[] members) {
+            this.members = members;
+            this.addresses = new String[members.length];
+            this.hashes = members.length > 0 ? new long[members.length] : NO_HASHES;
+            for (int i = 0; i < members.length; i++) {
+                addresses[i] = members[i].address().toString();
+                hashes[i] = RendezvousHashing.hash(addresses[i]);
+            }
+        }
+    }
+
+    private final static ThreadLocal<long[]> scratchScores = ThreadLocal.withInitial(() -> new long[8]);
+
+    private final ActorSystem actorSystem;
+    private final String role;
+    private volatile Table table = new Table(NO_MEMBERS);
+    private volatile long version = -1;
+
+    /**
+     * @param actorSystem
+     * @param role        nodes of this role are routed to ({@link ClusterMemberUtils#ROLE_ALL} means all nodes)
+     */
+    public RendezvousRouter(ActorSystem actorSystem, String role) {
+        this.actorSystem = actorSystem;
+        this.role = role;
+    }
+
+    /**
+     * Start listening to membership changes.
+     *
+     * @return
+     */
+    public RendezvousRouter init() {
+        ClusterMemberUtils.subscribe(Collections.singleton(role), this);
+        return this;
+    }
+
+    /**
+     * Stop listening to membership changes.
+     */
+    public void destroy() {
+        ClusterMemberUtils.unsubscribe(this);
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    /**
+     * Version of the membership snapshot the router is up to date with.
+     *
+     * @return
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Number of nodes.
+     *
+     * @return
+     */
+    public int size() {
+        return table.members.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method updates the node table.</p>
+     */
+    @Override
+    public void onMembershipChanged(MembershipChangedMessage change) {
+        if (!role.equals(change.role)) {
+            return;
+        }
+        List<Member> members = new ArrayList<>();
+        for (Member m : table.members) {
+            if (!change.removed.contains(m) && !change.added.contains(m)) {
+                members.add(m);
+            }
+        }
+        members.addAll(change.added);
+        members.sort(Comparator.comparing(m -> m.address().toString()));
+        table = new Table(members.toArray(NO_MEMBERS));
+        version = change.version;
+    }
+
+    /**
+     * Route a key to a node.
+     *
+     * @param key
+     * @return {@code null} if there is no node
+     */
+    public Member route(long key) {
+        Table t = table;
+        int i = RendezvousHashing.owner(t.hashes, key);
+        return i >= 0 ? t.members[i] : null;
+    }
+
+    /**
+     * Route a key to a node.
+     *
+     * @param key
+     * @return {@code null} if there is no node
+     */
+    public Member route(String key) {
+        return route(RendezvousHashing.hash(key));
+    }
+
+    /**
+     * Route a key to the top {@code out.length} nodes, by descending score (i.e. {@code out[0]} is
+     * {@link #route(long)}). Useful for replication or fallback.
+     *
+     * @param key
+     * @param out receives the nodes
+     * @return number of nodes put into {@code out} (less than {@code out.length} if there are not enough nodes)
+     */
+    public int routeTopN(long key, Member[] out) {
+        Table t = table;
+        int n = Math.min(out.length, t.members.length);
+        if (n == 0) {
+            return 0;
+        }
+        long[] scores = scratchScores.get();
+        if (scores.length < n) {
+            scores = new long[Math.max(n, scores.length * 2)];
+            scratchScores.set(scores);
+        }
+        int count = 0;
+        for (int i = 0; i < t.members.length; i++) {
+            long score = RendezvousHashing.score(t.hashes[i], key);
+            if (count == n && Long.compareUnsigned(score, scores[n - 1]) <= 0) {
+                continue;
+            }
+            // insertion into the sorted top-n
+            int j = count < n ? count++ : n - 1;
+            while (j > 0 && Long.compareUnsigned(score, scores[j - 1]) > 0) {
+                scores[j] = scores[j - 1];
+                out[j] = out[j - 1];
+                j--;
+            }
+            scores[j] = score;
+            out[j] = t.members[i];
+        }
+        return count;
+    }
+
+    /**
+     * Route a key to the top {@code out.length} nodes.
+     *
+     * @param key
+     * @param out
+     * @return
+     * @see #routeTopN(long, Member[])
+     */
+    public int routeTopN(String key, Member[] out) {
+        return routeTopN(RendezvousHashing.hash(key), out);
+    }
+
+    /**
+     * Send a message to an actor on the node that a key is routed to.
+     *
+     * @param key
+     * @param actorPath path of the actor on the node, e.g. {@code /user/my-actor}
+     * @param msg
+     * @param sender
+     * @return the node the message was sent to, {@code null} if there is no node (message is not sent)
+     */
+    public Member tell(String key, String actorPath, BaseMessage msg, ActorRef sender) {
+        Table t = table;
+        int i = RendezvousHashing.owner(t.hashes, RendezvousHashing.hash(key));
+        if (i < 0) {
+            return null;
+        }
+        actorSystem.actorSelection(t.addresses[i] + actorPath).tell(msg, sender);
+        return t.members[i];
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("role", role).append("version", version).append("nodes", table.addresses);
+        return tsb.toString();
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.ddth.akka.cluster.messages;
+
+import akka.cluster.Member;
+import com.github.ddth.akka.BaseMessage;
+import com.github.ddth.akka.cluster.ClusterMemberUtils;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Incremental membership change of a role, pushed to subscribers (see
+ * {@link ClusterMemberUtils#subscribe(java.util.Collection, com.github.ddth.akka.cluster.MembershipListener)}).
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class MembershipChangedMessage extends BaseMessage {
+    private static final long serialVersionUID = "1.2.0".hashCode();
+
+    /**
+     * The role this change is about.
+     */
+    public final String role;
+
+    /**
+     * Version of the membership snapshot after the change.
+     */
+    public final long version;
+
+    /**
+     * {@code true} if this is the current state sent on subscribe ({@link #added} contains all nodes).
+     */
+    public final boolean initial;
+
+    public final Set<Member> added, removed;
+
+    /**
+     * All nodes of the role after the change, oldest first.
+     */
+    public final Set<Member> nodes;
+
+    /**
+     * Leader of the role before/after the change, can be {@code null}.
+     */
+    public final Member previousLeader, leader;
+
+    public MembershipChangedMessage(String role, long version, boolean initial, Set<Member> added,
+            Set<Member> removed, Set<Member> nodes, Member previousLeader, Member leader) {
+        this.role = role;
+        this.version = version;
+        this.initial = initial;
+        this.added = Collections.unmodifiableSet(new LinkedHashSet<>(added));
+        this.removed = Collections.unmodifiableSet(new LinkedHashSet<>(removed));
+        this.nodes = Collections.unmodifiableSet(new LinkedHashSet<>(nodes));
+        this.previousLeader = previousLeader;
+        this.leader = leader;
+    }
+
+    /**
+     * Check if leader of the role has changed.
+     *
+     * @return
+     */
+    public boolean isLeaderChanged() {
+        return previousLeader == null ?
+                leader != null :
+                leader == null || !previousLeader.address().equals(leader.address());
+    }
+
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("role", role).append("version", version).append("initial", initial).append("added", added)
+                .append("removed", removed).append("leader", leader).appendSuper(super.toString());
+        return tsb.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package com.github.ddth.akka.cluster.scheduling;
+
+import com.github.ddth.akka.scheduling.PartitionAssignment;
+import com.github.ddth.akka.scheduling.TickMessage;
+import com.github.ddth.akka.scheduling.WorkerUtils;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Base class for non-blocking cluster workers: sub-class implements {@link #doJobAsync(String, TickMessage)} instead
+ * of {@link #doJob(String, TickMessage)}.
+ *
+ * <p>The job is considered finished (and locks are held) until the stage returned by
+ * {@link #doJobAsync(String, TickMessage)} completes.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public abstract class BaseAsyncClusterWorker extends BaseClusterWorker {
+    public BaseAsyncClusterWorker() {
+    }
+
+    public BaseAsyncClusterWorker(long lockTimeMs) {
+        super(lockTimeMs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected abstract CompletionStage<?> doJobAsync(String distributedLockId, TickMessage tick) throws Exception;
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method calls {@link #doJobAsync(String, TickMessage)}.</p>
+     */
+    @Override
+    protected CompletionStage<?> doJobAsync(String distributedLockId, TickMessage tick,
+            PartitionAssignment assignment) throws Exception {
+        return doJobAsync(distributedLockId, tick);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method calls {@link #doJobAsync(String, TickMessage)} and waits for the returned stage to complete.</p>
+     */
+    @Override
+    protected void doJob(String distributedLockId, TickMessage tick) throws Exception {
+        WorkerUtils.await(doJobAsync(distributedLockId, tick));
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.ddth.akka.scheduling;
+
+/**
+ * Adjust worker's effective cadence from job runs' feedback (see {@link JobFeedback}).
+ *
+ * <ul>
+ * <li>{@link JobFeedback#MORE_WORK}: a follow-up run is due after {@code minIntervalMs}.</li>
+ * <li>{@link JobFeedback#IDLE}: scheduled runs are skipped for an interval which starts at {@code minIntervalMs}
+ * and doubles after each consecutive idle run, up to {@code maxIntervalMs}.</li>
+ * <li>{@link JobFeedback#NONE}: worker follows its scheduling.</li>
+ * </ul>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class AdaptiveCadence {
+    private final long minIntervalMs, maxIntervalMs;
+    private long currentIntervalMs = 0, nextRunTs = 0;
+
+    /**
+     * @param minIntervalMs
+     * @param maxIntervalMs
+     */
+    public AdaptiveCadence(long minIntervalMs, long maxIntervalMs) {
+        this.minIntervalMs = Math.max(minIntervalMs, 1);
+        this.maxIntervalMs = Math.max(maxIntervalMs, this.minIntervalMs);
+    }
+
+    /**
+     * Check if a scheduled run is due.
+     *
+     * @param now
+     * @return
+     */
+    public synchronized boolean isDue(long now) {
+        return now >= nextRunTs;
+    }
+
+    /**
+     * Current back-off interval (in milliseconds), {@code 0} means worker follows its scheduling.
+     *
+     * @return
+     */
+    public synchronized long getCurrentIntervalMs() {
+        return currentIntervalMs;
+    }
+
+    /**
+     * Apply a job run's feedback.
+     *
+     * @param feedback
+     * @param now      time the job run finished
+     * @return delay (in milliseconds) before a follow-up run, {@code -1} if no follow-up run is needed
+     */
+    public synchronized long onFeedback(JobFeedback feedback, long now) {
+        if (feedback == JobFeedback.MORE_WORK) {
+            currentIntervalMs = minIntervalMs;
+            nextRunTs = now + minIntervalMs;
+            return minIntervalMs;
+        }
+        if (feedback == JobFeedback.IDLE) {
+            currentIntervalMs = currentIntervalMs <= 0 ? minIntervalMs : Math.min(maxIntervalMs, currentIntervalMs * 2);
+            nextRunTs = now + currentIntervalMs;
+            return -1;
+        }
+        currentIntervalMs = 0;
+        nextRunTs = 0;
+        return -1;
+    }
+}
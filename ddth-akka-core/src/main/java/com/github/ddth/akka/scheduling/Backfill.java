@@ -0,0 +1,282 @@
+package com.github.ddth.akka.scheduling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replay a worker's job over a list of past fire times, in parallel on a dedicated fixed thread pool.
+ *
+ * <p>Each fire time is replayed with a {@link BackfillTickMessage}. At most {@link #getParallelism()} replays are
+ * in flight at any time: a replay whose job returns a stage occupies its slot until the stage completes, without
+ * blocking a thread of the pool. Progress is logged every 10% and can be queried at any time
+ * ({@link #getCompleted()}, {@link #getProgress()}, {@link #getThroughput()}...).</p>
+ *
+ * <p>Replays are not throttled by anything else: they do not go through the worker's coordination policy, executor
+ * or max run time.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class Backfill {
+    private final static Logger LOGGER = LoggerFactory.getLogger(Backfill.class);
+
+    /**
+     * Job to replay one fire time.
+     */
+    @FunctionalInterface
+    public interface Job {
+        /**
+         * @param tick
+         * @return the stage that completes when the job finishes, {@code null} means the job has already finished
+         * @throws Exception
+         */
+        CompletionStage<?> run(TickMessage tick) throws Exception;
+    }
+
+    private final String name;
+    private final long[] fireTimes;
+    private final int parallelism;
+    private final Job job;
+    private final AtomicInteger succeeded = new AtomicInteger(), failed = new AtomicInteger();
+    private final AtomicInteger skipped = new AtomicInteger();
+    private final AtomicInteger reportedDecile = new AtomicInteger();
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private final CompletableFuture<Backfill> future = new CompletableFuture<>();
+    private volatile boolean cancelled = false;
+    private volatile long startTimestamp, endTimestamp;
+    private ExecutorService pool;
+
+    /**
+     * @param name        name of the backfill, used for logging and as thread name prefix
+     * @param fireTimes   fire times to replay
+     * @param parallelism max number of fire times replayed in parallel
+     * @param job
+     */
+    public Backfill(String name, Collection<Long> fireTimes, int parallelism, Job job) {
+        this.name = name;
+        this.fireTimes = fireTimes.stream().mapToLong(Long::longValue).toArray();
+        this.parallelism = Math.max(parallelism, 1);
+        this.job = job;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Total number of fire times to replay.
+     *
+     * @return
+     */
+    public int getTotal() {
+        return fireTimes.length;
+    }
+
+    public int getSucceeded() {
+        return succeeded.get();
+    }
+
+    public int getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * Number of fire times skipped because the backfill was cancelled.
+     *
+     * @return
+     */
+    public int getSkipped() {
+        return skipped.get();
+    }
+
+    /**
+     * Number of fire times replayed (successfully or not) or skipped so far.
+     *
+     * @return
+     */
+    public int getCompleted() {
+        return succeeded.get() + failed.get() + skipped.get();
+    }
+
+    /**
+     * Progress, from {@code 0.0} to {@code 1.0}.
+     *
+     * @return
+     */
+    public double getProgress() {
+        return fireTimes.length > 0 ? (double) getCompleted() / fireTimes.length : 1.0;
+    }
+
+    /**
+     * Time elapsed since the backfill started, in milliseconds.
+     *
+     * @return
+     */
+    public long getElapsedMs() {
+        long start = startTimestamp;
+        if (start == 0) {
+            return 0;
+        }
+        long end = endTimestamp;
+        return (end > 0 ? end : System.currentTimeMillis()) - start;
+    }
+
+    /**
+     * Number of fire times replayed per second.
+     *
+     * @return
+     */
+    public double getThroughput() {
+        long elapsedMs = getElapsedMs();
+        return elapsedMs > 0 ? (succeeded.get() + failed.get()) * 1000.0 / elapsedMs : 0.0;
+    }
+
+    /**
+     * A future that completes when all fire times have been replayed (or skipped).
+     *
+     * @return
+     */
+    public CompletableFuture<Backfill> getFuture() {
+        return future;
+    }
+
+    public boolean isDone() {
+        return future.isDone();
+    }
+
+    /**
+     * Skip fire times that have not been replayed yet. Running jobs are not interrupted.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Start replaying fire times.
+     *
+     * @return
+     */
+    public synchronized Backfill start() {
+        if (pool != null) {
+            return this;
+        }
+        startTimestamp = System.currentTimeMillis();
+        LOGGER.info("{" + name + "} Backfill started: " + fireTimes.length + " fire time(s), parallelism "
+                + parallelism + ".");
+        if (fireTimes.length == 0) {
+            finish();
+            return this;
+        }
+        AtomicInteger threadIndex = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, name + "-backfill-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // each slot replays fire times one after another
+        for (int i = 0, n = Math.min(parallelism, fireTimes.length); i < n; i++) {
+            pool.execute(this::replayNext);
+        }
+        return this;
+    }
+
+    private void finish() {
+        endTimestamp = System.currentTimeMillis();
+        LOGGER.info("{" + name + "} Backfill " + (cancelled ? "cancelled" : "finished") + ": " + this);
+        if (pool != null) {
+            pool.shutdown();
+        }
+        future.complete(this);
+    }
+
+    /**
+     * Replay fire times one after another, until a job returns a pending stage: the next fire time is then replayed
+     * when the stage completes.
+     */
+    private void replayNext() {
+        for (int index = nextIndex.getAndIncrement(); index < fireTimes.length; index = nextIndex
+                .getAndIncrement()) {
+            long fireTime = fireTimes[index];
+            if (cancelled) {
+                skipped.incrementAndGet();
+                onCompleted();
+                continue;
+            }
+            CompletionStage<?> stage;
+            try {
+                stage = job.run(new BackfillTickMessage(fireTime));
+            } catch (Throwable e) {
+                onReplayed(fireTime, e);
+                continue;
+            }
+            if (stage == null) {
+                onReplayed(fireTime, null);
+            } else {
+                stage.whenComplete((r, e) -> {
+                    onReplayed(fireTime, e);
+                    try {
+                        pool.execute(this::replayNext);
+                    } catch (RejectedExecutionException ree) {
+                        // pool has been shut down: backfill has finished
+                    }
+                });
+                return;
+            }
+        }
+    }
+
+    private void onReplayed(long fireTime, Throwable e) {
+        if (e == null) {
+            succeeded.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+            Throwable cause = WorkerUtils.unwrap(e);
+            LOGGER.error("{" + name + "} Error while backfilling " + new Date(fireTime) + ": " + cause.getMessage(),
+                    cause);
+        }
+        onCompleted();
+    }
+
+    private void onCompleted() {
+        int completed = getCompleted();
+        int decile = (int) (completed * 10L / fireTimes.length);
+        int reported = reportedDecile.get();
+        if (decile > reported && decile < 10 && reportedDecile.compareAndSet(reported, decile)) {
+            LOGGER.info("{" + name + "} Backfill progress: " + this);
+        }
+        if (completed == fireTimes.length) {
+            finish();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("total", fireTimes.length).append("succeeded", succeeded.get()).append("failed", failed.get())
+                .append("skipped", skipped.get()).append("elapsedMs", getElapsedMs())
+                .append("throughput", String.format("%.2f/s", getThroughput()));
+        return tsb.toString();
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.ddth.akka.scheduling;
+
+import java.util.Date;
+
+/**
+ * A synthetic "tick" to replay a past fire time of a worker's scheduling (see {@link Backfill}).
+ *
+ * <p>{@link #getTimestamp()} returns the replayed fire time rather than the time the message was created.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class BackfillTickMessage extends TickMessage {
+    private static final long serialVersionUID = "1.2.0".hashCode();
+
+    private final Date fireTime;
+
+    public BackfillTickMessage(long fireTimeMs) {
+        this.fireTime = new Date(fireTimeMs);
+    }
+
+    /**
+     * The replayed fire time.
+     *
+     * @return
+     */
+    @Override
+    public Date getTimestamp() {
+        return fireTime;
+    }
+}
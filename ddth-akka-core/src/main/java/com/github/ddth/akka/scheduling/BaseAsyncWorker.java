@@ -0,0 +1,55 @@
+package com.github.ddth.akka.scheduling;
+
+import com.github.ddth.dlock.IDLock;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Base class for non-blocking workers: sub-class implements {@link #doJobAsync(String, TickMessage)} instead of
+ * {@link #doJob(String, TickMessage)}.
+ *
+ * <p>The job is considered finished (and locks are held) until the stage returned by
+ * {@link #doJobAsync(String, TickMessage)} completes.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public abstract class BaseAsyncWorker extends BaseWorker {
+    public BaseAsyncWorker() {
+    }
+
+    public BaseAsyncWorker(IDLock dlock) {
+        super(dlock);
+    }
+
+    public BaseAsyncWorker(IDLock dlock, long dlockTimeMs) {
+        super(dlock, dlockTimeMs);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected abstract CompletionStage<?> doJobAsync(String lockId, TickMessage tick) throws Exception;
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method calls {@link #doJobAsync(String, TickMessage)}.</p>
+     */
+    @Override
+    protected CompletionStage<?> doJobAsync(String lockId, TickMessage tick, PartitionAssignment assignment)
+            throws Exception {
+        return doJobAsync(lockId, tick);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This method calls {@link #doJobAsync(String, TickMessage)} and waits for the returned stage to complete.</p>
+     */
+    @Override
+    protected void doJob(String lockId, TickMessage tick) throws Exception {
+        WorkerUtils.await(doJobAsync(lockId, tick));
+    }
+}
@@ -1,22 +1,32 @@
 package com.github.ddth.akka.scheduling;
 
+import akka.actor.ActorRef;
 import akka.actor.ActorSystem;
 import akka.actor.Scheduler;
 import com.github.ddth.akka.BaseActor;
 import com.github.ddth.akka.scheduling.annotation.Scheduling;
+import com.github.ddth.akka.scheduling.messages.BackfillMessage;
+import com.github.ddth.akka.scheduling.messages.GetWorkerMetricsMessage;
+import com.github.ddth.akka.scheduling.messages.GetWorkerMetricsResponseMessage;
+import com.github.ddth.akka.scheduling.messages.TriggerMessage;
+import com.github.ddth.akka.scheduling.state.WorkerState;
+import com.github.ddth.akka.scheduling.state.WorkerStateStore;
 import com.github.ddth.akka.utils.AkkaUtils;
 import com.github.ddth.dlock.IDLock;
 import com.github.ddth.dlock.LockResult;
 import com.github.ddth.dlock.impl.inmem.InmemDLock;
+import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import scala.concurrent.ExecutionContext;
 import scala.concurrent.duration.Duration;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 /**
  * Base class to implement workers.
@@ -32,10 +42,15 @@ import java.util.concurrent.locks.ReentrantLock;
  * <li>If {@link WorkerCoordinationPolicy#TAKE_ALL_TASKS} is returned, {@link #doJobTakeAllTasks(TickMessage)} is called.</li>
  * <li>If {@link WorkerCoordinationPolicy#LOCAL_SINGLETON} is returned, {@link #doJobLocalSingleton(TickMessage)} is called.</li>
  * <li>If {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} is returned, {@link #doJobGlobalSingleton(TickMessage)} is called.</li>
+ * <li>If {@link WorkerCoordinationPolicy#PARTITIONED} is returned, {@link #doJobPartitioned(TickMessage)} is called.</li>
+ * <li>If {@link WorkerCoordinationPolicy#GLOBAL_BOUNDED} is returned, {@link #doJobGlobalBounded(TickMessage)} is called.</li>
  * </ul>
  * </li>
  * <li>{@link #doJobTakeAllTasks(TickMessage)}, {@link #doJobLocalSingleton(TickMessage)} and {@link #doJobGlobalSingleton(TickMessage)} resolve worker coordinating stuff
  * and finally call {@link #doJob(String, TickMessage)}; sub-class override this method to implement its business logic.</li>
+ * <li>Since v1.2.0, non-blocking workers can override {@link #doJobAsync(String, TickMessage)} (or extend
+ * {@link BaseAsyncWorker}): the job is considered finished (and locks are held) until the returned
+ * {@link CompletionStage} completes.</li>
  * </ul>
  * </p>
  *
@@ -59,7 +74,8 @@ public abstract class BaseWorker extends BaseActor {
     private long dlockTimeMs = DEFAULT_DLOCK_TIME_MS;
     private IDLock dlock;
 
-    private final static Collection<Class<?>> channelSubscriptions = Collections.singleton(TickMessage.class);
+    private final static Collection<Class<?>> channelSubscriptions = Collections
+            .unmodifiableList(Arrays.asList(TickMessage.class, GetWorkerMetricsMessage.class));
 
     public BaseWorker() {
         parseAnnotation();
@@ -143,7 +159,13 @@ public abstract class BaseWorker extends BaseActor {
      */
     @Override
     protected Collection<Class<?>> channelSubscriptions() {
-        return channelSubscriptions;
+        Class<?>[] triggerEvents = getTriggerEvents();
+        if (triggerEvents.length == 0) {
+            return channelSubscriptions;
+        }
+        List<Class<?>> result = new ArrayList<>(channelSubscriptions);
+        result.addAll(Arrays.asList(triggerEvents));
+        return result;
     }
 
     /**
@@ -235,6 +257,19 @@ public abstract class BaseWorker extends BaseActor {
         return this;
     }
 
+    /**
+     * Check if this worker runs in single-node mode, i.e. its instances are not spread across several nodes.
+     *
+     * <p>This method returns {@code true} if the worker's lock is an in-memory one (see {@link #createDLock()}),
+     * which cannot coordinate instances on different nodes anyway. Sub-class may override this method.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean isSingleNodeMode() {
+        return dlock instanceof InmemDLock;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -243,18 +278,96 @@ public abstract class BaseWorker extends BaseActor {
         if (dlock == null) {
             dlock = createDLock();
         }
+        WorkerCoordinationPolicy wcp = getWorkerCoordinationPolicy();
+        if ((wcp == WorkerCoordinationPolicy.PARTITIONED || wcp == WorkerCoordinationPolicy.GLOBAL_BOUNDED)
+                && !isSingleNodeMode()) {
+            // every node would process all partitions / bound would apply per node
+            throw new IllegalStateException("Worker [" + getActorPath() + "]: " + wcp
+                    + " policy is supported in single-node mode only, use BaseClusterWorker instead.");
+        }
 
         // register message handler
         addMessageHandler(TickMessage.class, this::onTick);
+        addMessageHandler(GetWorkerMetricsMessage.class, this::onGetWorkerMetrics);
+        addMessageHandler(BackfillMessage.class, this::onBackfill);
+        initTriggers();
+        if (getAdaptiveMinIntervalMs() > 0) {
+            adaptiveCadence = new AdaptiveCadence(getAdaptiveMinIntervalMs(), getAdaptiveMaxIntervalMs());
+        }
+
+        loadWorkerState();
+        metrics.setName(getActorPath().toString()).registerMBean();
+        WorkerScheduleRegistry.register(getActorPath().toString(), ts -> {
+            try {
+                return isDue(ts);
+            } catch (IllegalStateException e) {
+                return false;
+            }
+        });
 
         super.initActor();
 
+        int poolSize = getExecutorPoolSize();
+        if (poolSize > 0) {
+            jobExecutor = WorkerUtils.newBoundedExecutor(getActorPath().name(), poolSize, getExecutorQueueSize());
+        }
+
         // fire off event for the first time
-        if (isRunFirstTimeRegardlessScheduling()) {
+        WorkerState state = getWorkerState();
+        if (isRunFirstTimeRegardlessScheduling() && (state == null || state.getLastSuccessTimestamp() <= 0)) {
             self().tell(new FirstTimeTickMessage(), self());
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.2.0
+     */
+    @Override
+    protected void destroyActor() throws Exception {
+        try {
+            if (jobExecutor != null) {
+                jobExecutor.shutdownNow();
+            }
+        } catch (Exception e) {
+            LOGGER.warn(e.getMessage(), e);
+        } finally {
+            jobExecutor = null;
+        }
+        if (triggerCoalescer != null) {
+            triggerCoalescer.stop();
+        }
+        metrics.unregisterMBean();
+        WorkerScheduleRegistry.unregister(getActorPath().toString());
+        super.destroyActor();
+    }
+
+    private final WorkerMetrics metrics = new WorkerMetrics();
+
+    /**
+     * Execution metrics of this worker.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    public WorkerMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * This method is called when a message of type {@link GetWorkerMetricsMessage} arrives.
+     *
+     * @param msg
+     * @since 1.2.0
+     */
+    protected void onGetWorkerMetrics(GetWorkerMetricsMessage msg) {
+        ActorRef replyTo = msg.replyTo != null ? msg.replyTo : sender();
+        if (replyTo != null) {
+            replyTo.tell(new GetWorkerMetricsResponseMessage(msg.getId(), metrics.snapshot()), self());
+        }
+    }
+
     private CronFormat scheduling;
 
     /**
@@ -292,6 +405,277 @@ public abstract class BaseWorker extends BaseActor {
         return this;
     }
 
+    private ScheduleSpread scheduleSpread;
+    private Long scheduleOffsetMs;
+
+    /**
+     * Spread window to shift fire times by a stable offset (see {@link #getScheduleOffsetMs()}).
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#spread()}. Otherwise this method returns {@link ScheduleSpread#NONE}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected ScheduleSpread getScheduleSpread() {
+        if (scheduleSpread == null && annotatedScheduling != null) {
+            setScheduleSpread(ScheduleSpread.parse(annotatedScheduling.spread()));
+        }
+        return scheduleSpread != null ? scheduleSpread : ScheduleSpread.NONE;
+    }
+
+    /**
+     * Spread window to shift fire times by a stable offset.
+     *
+     * @param scheduleSpread
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setScheduleSpread(ScheduleSpread scheduleSpread) {
+        this.scheduleSpread = scheduleSpread;
+        this.scheduleOffsetMs = null;
+        return this;
+    }
+
+    /**
+     * Key to derive the schedule offset from.
+     *
+     * <p>This method returns worker's path, which is the same for worker instances on different nodes.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected String getScheduleSpreadKey() {
+        return getActorPath().toStringWithoutAddress();
+    }
+
+    /**
+     * Offset (in milliseconds) fire times are shifted by: worker's task is due at {@code t} if its scheduling
+     * matches {@code t - offset}.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getScheduleOffsetMs() {
+        if (scheduleOffsetMs == null) {
+            scheduleOffsetMs = getScheduleSpread().offsetMs(getScheduleSpreadKey());
+        }
+        return scheduleOffsetMs.longValue();
+    }
+
+    /**
+     * Check if worker's task is due at a timestamp, taking {@link #getScheduleOffsetMs()} into account.
+     *
+     * @param timestampMs
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean isDue(long timestampMs) {
+        return getScheduling().matches(timestampMs - getScheduleOffsetMs());
+    }
+
+    private WorkerStateStore workerStateStore;
+    private volatile WorkerState workerState;
+    private volatile byte[] jobCursor;
+
+    /**
+     * Store to persist worker's state (last-run/last-success timestamps and job's cursor) across restarts.
+     *
+     * <p>If set, a "tick" is not taken if it is not newer than the persisted last-run timestamp, and
+     * {@link #isRunFirstTimeRegardlessScheduling()} is ignored if the worker has already run successfully.</p>
+     *
+     * @return {@code null} if worker's state is not persisted
+     * @since 1.2.0
+     */
+    public WorkerStateStore getWorkerStateStore() {
+        return workerStateStore;
+    }
+
+    /**
+     * Store to persist worker's state across restarts. Must be set before the worker starts.
+     *
+     * @param workerStateStore
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setWorkerStateStore(WorkerStateStore workerStateStore) {
+        this.workerStateStore = workerStateStore;
+        return this;
+    }
+
+    /**
+     * Key to store worker's state.
+     *
+     * <p>This method returns worker's name.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected String getWorkerStateKey() {
+        return getActorPath().name();
+    }
+
+    /**
+     * Current persistent state of this worker.
+     *
+     * @return {@code null} if worker's state is not persisted or the worker has never run
+     * @since 1.2.0
+     */
+    protected WorkerState getWorkerState() {
+        return workerState;
+    }
+
+    /**
+     * Cursor saved by the last successful job run.
+     *
+     * @return empty if no cursor has been saved
+     * @since 1.2.0
+     */
+    protected byte[] getJobCursor() {
+        byte[] cursor = jobCursor;
+        if (cursor != null) {
+            return cursor.clone();
+        }
+        WorkerState state = workerState;
+        return state != null ? state.getCursor() : ArrayUtils.EMPTY_BYTE_ARRAY;
+    }
+
+    /**
+     * Set job's cursor, which is persisted when the current job run finishes successfully.
+     *
+     * @param cursor
+     * @since 1.2.0
+     */
+    protected void setJobCursor(byte[] cursor) {
+        this.jobCursor = cursor != null ? cursor.clone() : ArrayUtils.EMPTY_BYTE_ARRAY;
+    }
+
+    private void loadWorkerState() {
+        WorkerStateStore store = getWorkerStateStore();
+        if (store != null) {
+            try {
+                workerState = store.get(getWorkerStateKey());
+            } catch (Exception e) {
+                LOGGER.error("{" + getActorPath() + "} Cannot load worker's state: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    private synchronized void updateWorkerState(TickMessage tick, boolean success) {
+        WorkerStateStore store = getWorkerStateStore();
+        if (store == null) {
+            return;
+        }
+        WorkerState state = workerState != null ? workerState : new WorkerState(getWorkerStateKey());
+        if (success) {
+            byte[] cursor = jobCursor;
+            state = state.withSuccess(System.currentTimeMillis(), cursor != null ? cursor : state.getCursor());
+        } else if (!(tick instanceof TriggeredTickMessage)) {
+            state = state.withRun(tick.getTimestamp().getTime());
+        } else {
+            return;
+        }
+        workerState = state;
+        store.put(state);
+    }
+
+    private Integer backfillParallelism;
+
+    /**
+     * Max number of fire times replayed in parallel when backfilling.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#backfillParallelism()}. Otherwise this method returns {@code 0}.
+     * {@code 0} means number of available processors.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected int getBackfillParallelism() {
+        if (backfillParallelism == null && annotatedScheduling != null) {
+            setBackfillParallelism(annotatedScheduling.backfillParallelism());
+        }
+        int value = backfillParallelism != null ? backfillParallelism.intValue() : 0;
+        return value > 0 ? value : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Max number of fire times replayed in parallel when backfilling.
+     *
+     * @param backfillParallelism
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setBackfillParallelism(int backfillParallelism) {
+        this.backfillParallelism = backfillParallelism;
+        return this;
+    }
+
+    /**
+     * Enumerate fire times of worker's scheduling (taking {@link #getScheduleOffsetMs()} into account) within
+     * range {@code [fromMs, toMs)}.
+     *
+     * @param fromMs
+     * @param toMs
+     * @return
+     * @since 1.2.0
+     */
+    protected List<Long> getBackfillFireTimes(long fromMs, long toMs) {
+        long offsetMs = getScheduleOffsetMs();
+        List<Long> result = new ArrayList<>();
+        for (long fireTime : getScheduling().listMatches(fromMs - offsetMs, toMs - offsetMs)) {
+            result.add(fireTime + offsetMs);
+        }
+        return result;
+    }
+
+    /**
+     * Replay worker's job over fire times within range {@code [fromMs, toMs)}, with
+     * {@link #getBackfillParallelism()}.
+     *
+     * @param fromMs
+     * @param toMs
+     * @return
+     * @since 1.2.0
+     */
+    public Backfill backfill(long fromMs, long toMs) {
+        return backfill(fromMs, toMs, 0);
+    }
+
+    /**
+     * Replay worker's job over fire times within range {@code [fromMs, toMs)}.
+     *
+     * <p>Each fire time is replayed by calling {@link #doJobAsync(String, TickMessage)} (or
+     * {@link #doJobAsync(String, TickMessage, PartitionAssignment)} with all partitions, for
+     * {@link WorkerCoordinationPolicy#PARTITIONED} workers) with a {@link BackfillTickMessage} and a {@code null}
+     * lock-id: backfill runs bypass coordination policy, worker's executor and max run time.</p>
+     *
+     * @param fromMs
+     * @param toMs
+     * @param parallelism max number of fire times replayed in parallel, {@code 0} means
+     *                    {@link #getBackfillParallelism()}
+     * @return the started backfill, to track progress and throughput
+     * @since 1.2.0
+     */
+    public Backfill backfill(long fromMs, long toMs, int parallelism) {
+        Backfill backfill = new Backfill(getActorPath().name(), getBackfillFireTimes(fromMs, toMs),
+                parallelism > 0 ? parallelism : getBackfillParallelism(),
+                tick -> getWorkerCoordinationPolicy() == WorkerCoordinationPolicy.PARTITIONED ?
+                        doJobAsync(null, tick, PartitionAssignment.single(getPartitionCount())) :
+                        doJobAsync(null, tick));
+        return backfill.start();
+    }
+
+    /**
+     * This method is called when a message of type {@link BackfillMessage} arrives.
+     *
+     * @param msg
+     * @since 1.2.0
+     */
+    protected void onBackfill(BackfillMessage msg) {
+        backfill(msg.fromTimestamp, msg.toTimestamp, msg.parallelism);
+    }
+
     private TickMessage lastTick;
 
     /**
@@ -357,10 +741,18 @@ public abstract class BaseWorker extends BaseActor {
         if (timestampMs + getLateTickThresholdMs() > System.currentTimeMillis()) {
             // verify if tick is not too old
             long lastTickTimestampMs = lastTick != null ? lastTick.getTimestamp().getTime() : 0;
+            WorkerState state = getWorkerState();
+            if (state != null && state.getLastRunTimestamp() > lastTickTimestampMs) {
+                // restarted: last run was persisted
+                lastTickTimestampMs = state.getLastRunTimestamp();
+            }
             if (lastTickTimestampMs == 0 || lastTickTimestampMs < timestampMs) {
                 // verify if the received tick is new
-                return getScheduling().matches(tick.getTimestamp());
+                return isDue(timestampMs);
             }
+            metrics.recordTickRejectedDuplicate();
+        } else {
+            metrics.recordTickRejectedLate();
         }
         return false;
     }
@@ -398,20 +790,41 @@ public abstract class BaseWorker extends BaseActor {
         return this;
     }
 
+    /**
+     * "Busy" events are logged at WARN level at most once per this period (in milliseconds), other
+     * occurrences are logged at DEBUG level.
+     *
+     * @since 1.2.0
+     */
+    protected final static long LOG_BUSY_WARN_INTERVAL_MS = 60000L;
+    private final AtomicLong lastLogBusyWarn = new AtomicLong(0);
+
     /**
      * Log a message explaining that the worker receives a task but is unable to
      * execute it because the worker is currently busy.
      *
+     * <p>Since v1.2.0, the message is logged at WARN level at most once per {@link #LOG_BUSY_WARN_INTERVAL_MS},
+     * along with number of "busy" events so far (see {@link #getMetrics()}).</p>
+     *
      * @param tick
      * @param isGlobal
      * @since 0.1.1.2
      */
     protected void logBusy(TickMessage tick, boolean isGlobal) {
-        if (isGlobal) {
-            LOGGER.warn(
-                    "{" + getActorPath() + "} Received TICK message, but another instance is taking the task. " + tick);
+        long now = System.currentTimeMillis();
+        long last = lastLogBusyWarn.get();
+        boolean warn = now - last >= LOG_BUSY_WARN_INTERVAL_MS && lastLogBusyWarn.compareAndSet(last, now);
+        if (!warn && !LOGGER.isDebugEnabled()) {
+            return;
+        }
+        String msg = isGlobal ?
+                "{" + getActorPath() + "} Received TICK message, but another instance is taking the task. " + tick :
+                "{" + getActorPath() + "} Received TICK message, but I am busy! " + tick;
+        if (warn) {
+            LOGGER.warn(msg + " (busy so far: local=" + metrics.getBusyLocalCount() + ", global=" + metrics
+                    .getBusyGlobalCount() + ")");
         } else {
-            LOGGER.warn("{" + getActorPath() + "} Received TICK message, but I am busy! " + tick);
+            LOGGER.debug(msg);
         }
     }
 
@@ -424,132 +837,1030 @@ public abstract class BaseWorker extends BaseActor {
      */
     protected abstract void doJob(String lockId, TickMessage tick) throws Exception;
 
-    private Lock localLock = new ReentrantLock(true);
+    /**
+     * Sub-class overrides this method to perform worker's business logic asynchronously.
+     *
+     * <p>The job is considered finished when the returned stage completes: coordination locks are held, max run time
+     * is applied and failures are reported until then.</p>
+     *
+     * <p>This method calls {@link #doJob(String, TickMessage)} and returns a completed stage.</p>
+     *
+     * @param lockId
+     * @param tick
+     * @return the stage that completes when the job finishes, {@code null} means the job has already finished
+     * @throws Exception
+     * @since 1.2.0
+     */
+    protected CompletionStage<?> doJobAsync(String lockId, TickMessage tick) throws Exception {
+        doJob(lockId, tick);
+        return CompletableFuture.completedFuture(null);
+    }
 
     /**
-     * Execute job, local singleton mode, called by
-     * {@link #onTick(TickMessage)}.
+     * Sub-class overrides this method to perform worker's business logic on the partitions assigned to the
+     * current node, used by {@link WorkerCoordinationPolicy#PARTITIONED} workers.
      *
+     * <p>This method simply calls {@link #doJob(String, TickMessage)}.</p>
+     *
+     * @param lockId
      * @param tick
-     * @since 0.1.1
+     * @param assignment partitions assigned to the current node
+     * @throws Exception
+     * @since 1.2.0
      */
-    protected void doJobLocalSingleton(TickMessage tick) {
-        if (localLock.tryLock()) {
-            try {
-                doJob(null, tick);
-            } catch (Exception e) {
-                LOGGER.error("{" + getActorPath() + "} Error while doing job: " + e.getMessage(), e);
-            } finally {
-                localLock.unlock();
-            }
-        } else {
-            logBusy(tick, false);
-        }
+    protected void doJob(String lockId, TickMessage tick, PartitionAssignment assignment) throws Exception {
+        doJob(lockId, tick);
     }
 
     /**
-     * Generate a dlock-id. Must be unique globally.
+     * Sub-class overrides this method to perform worker's business logic on the partitions assigned to the
+     * current node asynchronously, used by {@link WorkerCoordinationPolicy#PARTITIONED} workers.
      *
-     * @return
-     * @since 0.1.1.1
+     * <p>This method calls {@link #doJob(String, TickMessage, PartitionAssignment)} and returns a completed
+     * stage.</p>
+     *
+     * @param lockId
+     * @param tick
+     * @param assignment partitions assigned to the current node
+     * @return the stage that completes when the job finishes, {@code null} means the job has already finished
+     * @throws Exception
+     * @since 1.2.0
      */
-    protected String generateDLockId() {
-        return AkkaUtils.nextId();
+    protected CompletionStage<?> doJobAsync(String lockId, TickMessage tick, PartitionAssignment assignment)
+            throws Exception {
+        doJob(lockId, tick, assignment);
+        return CompletableFuture.completedFuture(null);
     }
 
-    private Boolean lockFairness;
+    private Integer partitionCount;
 
     /**
-     * If {@code true}, try to lock with fairness, if possible.
+     * Number of partitions, used by {@link WorkerCoordinationPolicy#PARTITIONED} workers.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#partitions()}. Otherwise this method returns {@code 64}.</p>
      *
      * @return
-     * @since 0.1.2
+     * @since 1.2.0
      */
-    protected boolean isLockFairness() {
-        if (lockFairness == null && annotatedScheduling != null) {
-            setLockFairness(annotatedScheduling.lockFairness());
+    protected int getPartitionCount() {
+        if (partitionCount == null && annotatedScheduling != null) {
+            setPartitionCount(annotatedScheduling.partitions());
         }
-        return lockFairness != null ? lockFairness.booleanValue() : false;
+        return partitionCount != null ? partitionCount.intValue() : 64;
     }
 
     /**
-     * If {@code true}, try to lock with fairness, if possible.
+     * Number of partitions, used by {@link WorkerCoordinationPolicy#PARTITIONED} workers.
      *
-     * @param lockFairness
+     * @param partitionCount
      * @return
-     * @since 0.1.2
+     * @since 1.2.0
      */
-    public BaseWorker setLockFairness(boolean lockFairness) {
-        this.lockFairness = lockFairness ? Boolean.TRUE : Boolean.FALSE;
+    public BaseWorker setPartitionCount(int partitionCount) {
+        this.partitionCount = partitionCount;
         return this;
     }
 
-    private int dlockWait = 0;
+    private Class<?>[] triggerEvents;
+    private Long triggerDebounceMs, triggerThrottleMs, triggerMaxWaitMs;
+    private TriggerCoalescer triggerCoalescer;
 
     /**
-     * Execute job, global singleton mode, called by {@link #onTick(TickMessage)}.
+     * Worker is also triggered by messages of these classes published to the actor system's event stream.
+     * Triggered runs bypass scheduling check and are coalesced according to {@link #getTriggerDebounceMs()},
+     * {@link #getTriggerThrottleMs()} and {@link #getTriggerMaxWaitMs()}.
      *
-     * <p>
-     * Do not forget to release lock. However, delay a short period before
-     * releasing lock to avoid the case that {@link #doJob(String, TickMessage)}
-     * is do fast that worker instance on another node may receive the very same
-     * tick-message and execute the same task.
-     * </p>
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#triggerEvents()}. Otherwise this method returns an empty array.</p>
      *
-     * @param tick
-     * @since 0.1.1
+     * @return
+     * @since 1.2.0
      */
-    protected void doJobGlobalSingleton(TickMessage tick) {
-        String dlockId = generateDLockId();
-        if (isLockFairness() ? lock(dlockWait, dlockId, getLockDuration()) : lock(dlockId, getLockDuration())) {
-            try {
-                dlockWait = 0;
-                doJob(dlockId, tick);
-            } catch (Exception e) {
-                LOGGER.error("{" + getActorPath() + "} Error while doing job: " + e.getMessage(), e);
-            } finally {
-                /**
-                 * Do not forget to release lock. However, delay a short period
-                 * before releasing lock to avoid the case that
-                 * {@link #doJob(String, TickMessage)} is so fast that worker
-                 * instances on other nodes may receive the very same
-                 * tick-message and execute the same task.
-                 */
-                ActorSystem actorSystem = getActorSystem();
-                Scheduler scheduler = actorSystem != null ? actorSystem.scheduler() : null;
-                if (scheduler != null) {
-                    scheduler.scheduleOnce(Duration.create(1, TimeUnit.SECONDS), () -> unlock(dlockId),
-                            getExecutionContextExecutor(AkkaUtils.AKKA_DISPATCHER_WORKERS));
-                } else {
-                    LOGGER.warn("Cannot obtain a Scheduler from ActorSystem.");
-                    unlock(dlockId);
-                }
-            }
-        } else {
-            dlockWait++;
-            logBusy(tick, true);
+    protected Class<?>[] getTriggerEvents() {
+        if (triggerEvents == null && annotatedScheduling != null) {
+            setTriggerEvents(annotatedScheduling.triggerEvents());
         }
+        return triggerEvents != null ? triggerEvents : ArrayUtils.EMPTY_CLASS_ARRAY;
     }
 
     /**
-     * Execute job, take-all-tasks mode, called by {@link #onTick(TickMessage)}.
+     * Worker is also triggered by messages of these classes published to the actor system's event stream.
      *
-     * @param tick
-     * @since 0.1.1
+     * <p>Note: trigger events must be set before the actor starts.</p>
+     *
+     * @param triggerEvents
+     * @return
+     * @since 1.2.0
      */
-    protected void doJobTakeAllTasks(TickMessage tick) {
-        try {
-            doJob(null, tick);
-        } catch (Exception e) {
-            LOGGER.error("{" + getActorPath() + "} Error while doing job: " + e.getMessage(), e);
-        }
+    public BaseWorker setTriggerEvents(Class<?>... triggerEvents) {
+        this.triggerEvents = triggerEvents;
+        return this;
     }
 
-    private void _onTick(TickMessage tick) {
-        WorkerCoordinationPolicy wcp = getWorkerCoordinationPolicy();
-        switch (wcp) {
-        case LOCAL_SINGLETON:
-            doJobLocalSingleton(tick);
+    /**
+     * Debounce (in milliseconds) for triggered runs, {@code 0} means no debounce.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#triggerDebounce()}. Otherwise this method returns {@code 0}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getTriggerDebounceMs() {
+        if (triggerDebounceMs == null && annotatedScheduling != null) {
+            setTriggerDebounceMs(annotatedScheduling.triggerDebounce());
+        }
+        return triggerDebounceMs != null ? triggerDebounceMs.longValue() : 0;
+    }
+
+    /**
+     * Debounce (in milliseconds) for triggered runs, {@code 0} means no debounce.
+     *
+     * @param triggerDebounceMs
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setTriggerDebounceMs(long triggerDebounceMs) {
+        this.triggerDebounceMs = triggerDebounceMs;
+        return this;
+    }
+
+    /**
+     * Throttle (in milliseconds) for triggered runs, {@code 0} means no throttle.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#triggerThrottle()}. Otherwise this method returns {@code 0}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getTriggerThrottleMs() {
+        if (triggerThrottleMs == null && annotatedScheduling != null) {
+            setTriggerThrottleMs(annotatedScheduling.triggerThrottle());
+        }
+        return triggerThrottleMs != null ? triggerThrottleMs.longValue() : 0;
+    }
+
+    /**
+     * Throttle (in milliseconds) for triggered runs, {@code 0} means no throttle.
+     *
+     * @param triggerThrottleMs
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setTriggerThrottleMs(long triggerThrottleMs) {
+        this.triggerThrottleMs = triggerThrottleMs;
+        return this;
+    }
+
+    /**
+     * Max wait (in milliseconds) for debounced runs, {@code 0} means no limit.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#triggerMaxWait()}. Otherwise this method returns {@code 0}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getTriggerMaxWaitMs() {
+        if (triggerMaxWaitMs == null && annotatedScheduling != null) {
+            setTriggerMaxWaitMs(annotatedScheduling.triggerMaxWait());
+        }
+        return triggerMaxWaitMs != null ? triggerMaxWaitMs.longValue() : 0;
+    }
+
+    /**
+     * Max wait (in milliseconds) for debounced runs, {@code 0} means no limit.
+     *
+     * @param triggerMaxWaitMs
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setTriggerMaxWaitMs(long triggerMaxWaitMs) {
+        this.triggerMaxWaitMs = triggerMaxWaitMs;
+        return this;
+    }
+
+    private Long adaptiveMinIntervalMs, adaptiveMaxIntervalMs;
+    private AdaptiveCadence adaptiveCadence;
+    /* feedback reported by the job run executing on the current thread */
+    private final static ThreadLocal<AtomicReference<JobFeedback>> runJobFeedback = new ThreadLocal<>();
+    private final AtomicBoolean followUpPending = new AtomicBoolean(false);
+
+    /**
+     * Min interval (in milliseconds) of adaptive cadence, {@code 0} means adaptive cadence is disabled.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#adaptiveMinInterval()}. Otherwise this method returns {@code 0}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getAdaptiveMinIntervalMs() {
+        if (adaptiveMinIntervalMs == null && annotatedScheduling != null) {
+            setAdaptiveMinIntervalMs(annotatedScheduling.adaptiveMinInterval());
+        }
+        return adaptiveMinIntervalMs != null ? adaptiveMinIntervalMs.longValue() : 0;
+    }
+
+    /**
+     * Min interval (in milliseconds) of adaptive cadence, {@code 0} means adaptive cadence is disabled.
+     *
+     * <p>Note: adaptive cadence must be configured before the actor starts.</p>
+     *
+     * @param adaptiveMinIntervalMs
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setAdaptiveMinIntervalMs(long adaptiveMinIntervalMs) {
+        this.adaptiveMinIntervalMs = adaptiveMinIntervalMs;
+        return this;
+    }
+
+    /**
+     * Max interval (in milliseconds) of adaptive cadence.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#adaptiveMaxInterval()}. Otherwise this method returns {@code 0}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getAdaptiveMaxIntervalMs() {
+        if (adaptiveMaxIntervalMs == null && annotatedScheduling != null) {
+            setAdaptiveMaxIntervalMs(annotatedScheduling.adaptiveMaxInterval());
+        }
+        return adaptiveMaxIntervalMs != null ? adaptiveMaxIntervalMs.longValue() : 0;
+    }
+
+    /**
+     * Max interval (in milliseconds) of adaptive cadence.
+     *
+     * @param adaptiveMaxIntervalMs
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setAdaptiveMaxIntervalMs(long adaptiveMaxIntervalMs) {
+        this.adaptiveMaxIntervalMs = adaptiveMaxIntervalMs;
+        return this;
+    }
+
+    /**
+     * Adaptive cadence of this worker, {@code null} if adaptive cadence is disabled.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected AdaptiveCadence getAdaptiveCadence() {
+        return adaptiveCadence;
+    }
+
+    /**
+     * Report feedback of the current job run, used by synchronous jobs (asynchronous jobs can complete their
+     * stages with a {@link JobFeedback} instead).
+     *
+     * <p>Feedback is carried by the run itself: this method must be called from the thread executing the job
+     * (e.g. within {@link #doJob(String, TickMessage)}), calls from elsewhere are ignored.</p>
+     *
+     * @param feedback
+     * @since 1.2.0
+     */
+    protected void reportJobFeedback(JobFeedback feedback) {
+        AtomicReference<JobFeedback> current = runJobFeedback.get();
+        if (current != null) {
+            current.set(feedback);
+        } else {
+            LOGGER.warn("{" + getActorPath() + "} Job feedback [" + feedback
+                    + "] is not reported from a job run, ignored.");
+        }
+    }
+
+    /**
+     * Called when a job run ends, to adjust worker's effective cadence (see {@link AdaptiveCadence}).
+     *
+     * @param tick
+     * @param result result of the job's stage, or feedback reported by the run via
+     *               {@link #reportJobFeedback(JobFeedback)} if the stage completed with {@code null}
+     * @param error  error the job ended with, {@code null} if the job ended normally
+     * @since 1.2.0
+     */
+    protected void onJobFeedback(TickMessage tick, Object result, Throwable error) {
+        AdaptiveCadence cadence = adaptiveCadence;
+        if (cadence == null || WorkerUtils.unwrap(error) instanceof RejectedExecutionException) {
+            return;
+        }
+        JobFeedback feedback = error != null ?
+                JobFeedback.NONE :
+                result instanceof JobFeedback ? (JobFeedback) result : JobFeedback.NONE;
+        long delayMs = cadence.onFeedback(feedback, System.currentTimeMillis());
+        ActorSystem actorSystem = getActorSystem();
+        if (delayMs >= 0 && actorSystem != null && followUpPending.compareAndSet(false, true)) {
+            actorSystem.scheduler().scheduleOnce(Duration.create(delayMs, TimeUnit.MILLISECONDS), () -> {
+                followUpPending.set(false);
+                self().tell(new TriggeredTickMessage(feedback, 1, System.currentTimeMillis()), self());
+            }, getExecutionContextExecutor(AkkaUtils.AKKA_DISPATCHER_WORKERS));
+        }
+    }
+
+    private void initTriggers() {
+        Class<?>[] triggerEvents = getTriggerEvents();
+        if (triggerEvents.length == 0) {
+            return;
+        }
+        ActorSystem actorSystem = getActorSystem();
+        triggerCoalescer = new TriggerCoalescer(getTriggerDebounceMs(), getTriggerThrottleMs(), getTriggerMaxWaitMs(),
+                actorSystem != null ? actorSystem.scheduler() : null,
+                getExecutionContextExecutor(AkkaUtils.AKKA_DISPATCHER_WORKERS), tick -> self().tell(tick, self()));
+        addMessageHandler(TriggerMessage.class, this::onTriggerEvent);
+        for (Class<?> clazz : triggerEvents) {
+            addMessageHandler(clazz, this::onTriggerEvent);
+        }
+    }
+
+    /**
+     * This method is called when a trigger event arrives.
+     *
+     * @param event
+     * @since 1.2.0
+     */
+    protected void onTriggerEvent(Object event) {
+        if (triggerCoalescer != null) {
+            triggerCoalescer.onEvent(event);
+        }
+    }
+
+    private Integer executorPoolSize, executorQueueSize;
+    private Long maxRunTimeMs;
+    private Boolean blockingJob;
+    private Boolean lockLease;
+    private Long lockReleaseGuardMs;
+    private ExecutorService jobExecutor;
+
+    /**
+     * Number of threads of the dedicated thread pool to execute worker's job. {@code 0} means
+     * job is executed on the shared dispatcher.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#executorPoolSize()}. Otherwise this method returns {@code 0}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected int getExecutorPoolSize() {
+        if (executorPoolSize == null && annotatedScheduling != null) {
+            setExecutorPoolSize(annotatedScheduling.executorPoolSize());
+        }
+        return executorPoolSize != null ? executorPoolSize.intValue() : 0;
+    }
+
+    /**
+     * Number of threads of the dedicated thread pool to execute worker's job. {@code 0} means
+     * job is executed on the shared dispatcher.
+     *
+     * <p>Note: this setting takes effect only if set before the actor starts.</p>
+     *
+     * @param executorPoolSize
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setExecutorPoolSize(int executorPoolSize) {
+        this.executorPoolSize = executorPoolSize;
+        return this;
+    }
+
+    /**
+     * Number of jobs can be queued when all threads of the dedicated thread pool are busy.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#executorQueueSize()}. Otherwise this method returns {@code 0}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected int getExecutorQueueSize() {
+        if (executorQueueSize == null && annotatedScheduling != null) {
+            setExecutorQueueSize(annotatedScheduling.executorQueueSize());
+        }
+        return executorQueueSize != null ? executorQueueSize.intValue() : 0;
+    }
+
+    /**
+     * Number of jobs can be queued when all threads of the dedicated thread pool are busy.
+     *
+     * <p>Note: this setting takes effect only if set before the actor starts.</p>
+     *
+     * @param executorQueueSize
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setExecutorQueueSize(int executorQueueSize) {
+        this.executorQueueSize = executorQueueSize;
+        return this;
+    }
+
+    /**
+     * Max run time (in milliseconds) of a job, {@code 0} means no limit.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#maxRunTime()}. Otherwise this method returns {@code 0}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getMaxRunTimeMs() {
+        if (maxRunTimeMs == null && annotatedScheduling != null) {
+            setMaxRunTimeMs(annotatedScheduling.maxRunTime());
+        }
+        return maxRunTimeMs != null ? maxRunTimeMs.longValue() : 0;
+    }
+
+    /**
+     * Max run time (in milliseconds) of a job, {@code 0} means no limit.
+     *
+     * @param maxRunTimeMs
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setMaxRunTimeMs(long maxRunTimeMs) {
+        this.maxRunTimeMs = maxRunTimeMs;
+        return this;
+    }
+
+    /**
+     * Is worker's job blocking?
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#blocking()}. Otherwise this method returns {@code false}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean isBlockingJob() {
+        if (blockingJob == null && annotatedScheduling != null) {
+            setBlockingJob(annotatedScheduling.blocking());
+        }
+        return blockingJob != null ? blockingJob.booleanValue() : false;
+    }
+
+    /**
+     * Is worker's job blocking?
+     *
+     * @param blockingJob
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setBlockingJob(boolean blockingJob) {
+        this.blockingJob = blockingJob ? Boolean.TRUE : Boolean.FALSE;
+        return this;
+    }
+
+    /**
+     * Is lock lease mode enabled?
+     *
+     * <p>In lease mode, the lock acquired by {@link #doJobGlobalSingleton(TickMessage)} is periodically renewed
+     * (see {@link #getLockRenewInterval()}) while the job is running.</p>
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#lockLease()}. Otherwise this method returns {@code false}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected boolean isLockLease() {
+        if (lockLease == null && annotatedScheduling != null) {
+            setLockLease(annotatedScheduling.lockLease());
+        }
+        return lockLease != null ? lockLease.booleanValue() : false;
+    }
+
+    /**
+     * Enable/Disable lock lease mode.
+     *
+     * @param lockLease
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setLockLease(boolean lockLease) {
+        this.lockLease = lockLease ? Boolean.TRUE : Boolean.FALSE;
+        return this;
+    }
+
+    private Integer maxConcurrentRuns;
+
+    /**
+     * Max number of tasks executed simultaneously across all nodes, used by
+     * {@link WorkerCoordinationPolicy#GLOBAL_BOUNDED} workers.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#maxConcurrentRuns()}. Otherwise this method returns {@code 1}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected int getMaxConcurrentRuns() {
+        if (maxConcurrentRuns == null && annotatedScheduling != null) {
+            setMaxConcurrentRuns(annotatedScheduling.maxConcurrentRuns());
+        }
+        return maxConcurrentRuns != null ? maxConcurrentRuns.intValue() : 1;
+    }
+
+    /**
+     * Max number of tasks executed simultaneously across all nodes. Must be set before the worker starts.
+     *
+     * @param maxConcurrentRuns
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setMaxConcurrentRuns(int maxConcurrentRuns) {
+        this.maxConcurrentRuns = Math.max(maxConcurrentRuns, 1);
+        return this;
+    }
+
+    /**
+     * Interval (in milliseconds) to renew the lock in lease mode. Default value: 1/3 of lock's duration.
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getLockRenewInterval() {
+        return Math.max(getLockDuration() / 3, 1);
+    }
+
+    /**
+     * Delay (in milliseconds) before releasing the lock after the job finishes.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method returns value
+     * of {@link Scheduling#lockReleaseGuard()}. Negative value means default: {@code 1000} in classic mode,
+     * {@code 0} (release immediately) in lease mode.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected long getLockReleaseGuardMs() {
+        if (lockReleaseGuardMs == null && annotatedScheduling != null) {
+            setLockReleaseGuardMs(annotatedScheduling.lockReleaseGuard());
+        }
+        long value = lockReleaseGuardMs != null ? lockReleaseGuardMs.longValue() : -1;
+        return value >= 0 ? value : (isLockLease() ? 0 : 1000);
+    }
+
+    /**
+     * Delay (in milliseconds) before releasing the lock after the job finishes, negative value means default.
+     *
+     * @param lockReleaseGuardMs
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setLockReleaseGuardMs(long lockReleaseGuardMs) {
+        this.lockReleaseGuardMs = lockReleaseGuardMs;
+        return this;
+    }
+
+    /**
+     * Executor to execute worker's job.
+     *
+     * <p>If {@link #getExecutorPoolSize()} is positive, this method returns the dedicated bounded thread pool
+     * of this worker. Otherwise this method returns {@code null}, meaning job is executed on the thread that
+     * handles the "tick" message. Sub-class may override this method to supply its own executor.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected Executor getJobExecutor() {
+        return jobExecutor;
+    }
+
+    /**
+     * Execute {@link #doJobAsync(String, TickMessage)} on {@link #getJobExecutor()}, applying
+     * {@link #getMaxRunTimeMs()}.
+     *
+     * @param lockId
+     * @param tick
+     * @return a future that completes when the job finishes or fails (a timed-out job fails with
+     * {@link TimeoutException} when it actually ends)
+     * @since 1.2.0
+     */
+    protected CompletableFuture<Object> executeJob(String lockId, TickMessage tick) {
+        return executeJob(lockId, tick, null);
+    }
+
+    /**
+     * Execute {@link #doJobAsync(String, TickMessage, PartitionAssignment)} (or
+     * {@link #doJobAsync(String, TickMessage)} if {@code assignment} is {@code null}) on {@link #getJobExecutor()},
+     * applying {@link #getMaxRunTimeMs()}.
+     *
+     * @param lockId
+     * @param tick
+     * @param assignment
+     * @return a future that completes when the job finishes or fails (a timed-out job fails with
+     * {@link TimeoutException} when it actually ends)
+     * @since 1.2.0
+     */
+    protected CompletableFuture<Object> executeJob(String lockId, TickMessage tick,
+            PartitionAssignment assignment) {
+        return executeJob(lockId, tick, assignment, null);
+    }
+
+    /**
+     * Execute {@link #doJobAsync(String, TickMessage, PartitionAssignment)} (or
+     * {@link #doJobAsync(String, TickMessage)} if {@code assignment} is {@code null}) on {@link #getJobExecutor()},
+     * applying {@link #getMaxRunTimeMs()}.
+     *
+     * @param lockId
+     * @param tick
+     * @param assignment
+     * @param onTimeout  called right after {@link #onJobTimeout(TickMessage, TimeoutException)}, as soon as the run
+     *                   exceeds {@link #getMaxRunTimeMs()} (e.g. to release the run's distributed lock); can be
+     *                   {@code null}
+     * @return a future that completes when the job finishes or fails (a timed-out job fails with
+     * {@link TimeoutException} when it actually ends)
+     * @since 1.2.0
+     */
+    protected CompletableFuture<Object> executeJob(String lockId, TickMessage tick,
+            PartitionAssignment assignment, Runnable onTimeout) {
+        Executor executor = getJobExecutor();
+        ActorSystem actorSystem = getActorSystem();
+        CompletableFuture<Object> result = WorkerUtils
+                .runJobAsync(executor, actorSystem != null ? actorSystem.scheduler() : null,
+                        getExecutionContextExecutor(AkkaUtils.AKKA_DISPATCHER_WORKERS), getMaxRunTimeMs(),
+                        executor == null && isBlockingJob(), () -> {
+                            long start = System.currentTimeMillis();
+                            long cpuStart = WorkerMetrics.currentThreadCpuTime();
+                            metrics.recordRunStart(start - tick.getTimestamp().getTime());
+                            updateWorkerState(tick, false);
+                            CompletionStage<?> stage = null;
+                            AtomicReference<JobFeedback> feedback = new AtomicReference<>();
+                            AtomicReference<JobFeedback> outerFeedback = runJobFeedback.get();
+                            runJobFeedback.set(feedback);
+                            try {
+                                stage = assignment != null ?
+                                        doJobAsync(lockId, tick, assignment) :
+                                        doJobAsync(lockId, tick);
+                            } finally {
+                                if (outerFeedback != null) {
+                                    runJobFeedback.set(outerFeedback);
+                                } else {
+                                    runJobFeedback.remove();
+                                }
+                                // CPU time is measured for the synchronous part of the job only
+                                long cpuTime = cpuStart >= 0 ? WorkerMetrics.currentThreadCpuTime() - cpuStart : -1;
+                                if (stage == null) {
+                                    metrics.recordRunFinish(System.currentTimeMillis() - start, cpuTime);
+                                } else {
+                                    stage = stage.whenComplete((r, e) -> metrics
+                                            .recordRunFinish(System.currentTimeMillis() - start, cpuTime));
+                                }
+                            }
+                            JobFeedback reported = feedback.get();
+                            if (reported != null) {
+                                // feedback reported by this run becomes its result, unless the stage has one
+                                stage = (stage != null ? stage : CompletableFuture.completedFuture(null))
+                                        .thenApply(r -> r != null ? r : reported);
+                            }
+                            return stage;
+                        }, e -> {
+                            onJobTimeout(tick, e);
+                            if (onTimeout != null) {
+                                onTimeout.run();
+                            }
+                        });
+        return result.whenComplete((r, e) -> {
+            Throwable cause = WorkerUtils.unwrap(e);
+            if (cause != null && !(cause instanceof RejectedExecutionException)) {
+                metrics.recordRunFailure(cause instanceof TimeoutException);
+            }
+            if (e == null) {
+                updateWorkerState(tick, true);
+            } else {
+                // cursor of a failed run is discarded
+                jobCursor = null;
+            }
+            onJobFeedback(tick, r, e);
+        });
+    }
+
+    /**
+     * Called as soon as a job run exceeds {@link #getMaxRunTimeMs()}.
+     *
+     * <p>The job is interrupted, but it may keep running until it checks its interrupted status. The run's
+     * distributed lock (or semaphore permit) is released right away; the local lock, if any, is held until the job
+     * actually ends. This method logs a warning; sub-class may override it.</p>
+     *
+     * @param tick
+     * @param e
+     * @since 1.2.0
+     */
+    protected void onJobTimeout(TickMessage tick, TimeoutException e) {
+        LOGGER.warn("{" + getActorPath() + "} Job for tick [" + tick.getId() + "] " + e.getMessage()
+                + " Interrupted, distributed lock released.");
+    }
+
+    private RetryPolicy retryPolicy;
+
+    /**
+     * Policy to retry failed job runs.
+     *
+     * <p>If worker is annotated by {@link Scheduling}, this method builds the policy from
+     * {@link Scheduling#retryMaxAttempts()}, {@link Scheduling#retryBackoff()}, {@link Scheduling#retryMaxBackoff()},
+     * {@link Scheduling#retryJitter()} and {@link Scheduling#retryOn()}. Otherwise this method returns
+     * {@link RetryPolicy#NONE}.</p>
+     *
+     * @return
+     * @since 1.2.0
+     */
+    protected RetryPolicy getRetryPolicy() {
+        if (retryPolicy == null && annotatedScheduling != null) {
+            setRetryPolicy(new RetryPolicy(annotatedScheduling.retryMaxAttempts(), annotatedScheduling.retryBackoff(),
+                    annotatedScheduling.retryMaxBackoff(), annotatedScheduling.retryJitter(),
+                    annotatedScheduling.retryOn()));
+        }
+        return retryPolicy != null ? retryPolicy : RetryPolicy.NONE;
+    }
+
+    /**
+     * Policy to retry failed job runs.
+     *
+     * @param retryPolicy
+     * @return
+     * @since 1.2.0
+     */
+    public BaseWorker setRetryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Execute job, retrying failed attempts according to {@link #getRetryPolicy()}.
+     *
+     * <p>Retries are scheduled on the actor system's scheduler; the lock (if any) is held across attempts.</p>
+     *
+     * @param lockId
+     * @param tick
+     * @param assignment
+     * @param beforeRetry called right before each retry (e.g. to renew the lock), returns {@code false} to give up;
+     *                    can be {@code null}
+     * @return a future that completes when an attempt succeeds, or with the error of the last attempt
+     * @since 1.2.0
+     */
+    protected CompletableFuture<Object> executeJobWithRetry(String lockId, TickMessage tick,
+            PartitionAssignment assignment, BooleanSupplier beforeRetry) {
+        return executeJobWithRetry(lockId, tick, assignment, beforeRetry, null);
+    }
+
+    /**
+     * Execute job, retrying failed attempts according to {@link #getRetryPolicy()}.
+     *
+     * @param lockId
+     * @param tick
+     * @param assignment
+     * @param beforeRetry called right before each retry (e.g. to renew the lock), returns {@code false} to give up;
+     *                    can be {@code null}
+     * @param onTimeout   called as soon as an attempt exceeds {@link #getMaxRunTimeMs()} (see
+     *                    {@link #executeJob(String, TickMessage, PartitionAssignment, Runnable)}); can be {@code null}
+     * @return a future that completes when an attempt succeeds, or with the error of the last attempt
+     * @since 1.2.0
+     */
+    protected CompletableFuture<Object> executeJobWithRetry(String lockId, TickMessage tick,
+            PartitionAssignment assignment, BooleanSupplier beforeRetry, Runnable onTimeout) {
+        RetryPolicy policy = getRetryPolicy();
+        if (policy.getMaxAttempts() <= 1) {
+            return executeJob(lockId, tick, assignment, onTimeout);
+        }
+        ActorSystem actorSystem = getActorSystem();
+        return WorkerUtils.runWithRetry(attempt -> executeJob(lockId, tick, assignment, onTimeout), policy,
+                actorSystem != null ? actorSystem.scheduler() : null,
+                getExecutionContextExecutor(AkkaUtils.AKKA_DISPATCHER_WORKERS), beforeRetry,
+                (attempt, e, backoffMs) -> LOGGER.warn(
+                        "{" + getActorPath() + "} Attempt #" + attempt + " failed (" + e.getMessage() + "), retry in "
+                                + backoffMs + "ms: " + tick));
+    }
+
+    /**
+     * Called when a job run ends abnormally.
+     *
+     * @param tick
+     * @param e
+     * @since 1.2.0
+     */
+    protected void onJobError(TickMessage tick, Throwable e) {
+        Throwable cause = WorkerUtils.unwrap(e);
+        if (cause instanceof RejectedExecutionException) {
+            metrics.recordBusy(false);
+            logBusy(tick, false);
+        } else if (cause instanceof TimeoutException) {
+            LOGGER.error("{" + getActorPath() + "} Job was interrupted: " + cause.getMessage() + " " + tick);
+        } else {
+            LOGGER.error("{" + getActorPath() + "} Error while doing job: " + cause.getMessage(), cause);
+        }
+    }
+
+    private Semaphore localLock = new Semaphore(1, true);
+
+    /**
+     * Execute job, local singleton mode, called by
+     * {@link #onTick(TickMessage)}.
+     *
+     * @param tick
+     * @since 0.1.1
+     */
+    protected void doJobLocalSingleton(TickMessage tick) {
+        if (localLock.tryAcquire()) {
+            executeJobWithRetry(null, tick, null, null).whenComplete((r, e) -> {
+                localLock.release();
+                if (e != null) {
+                    onJobError(tick, e);
+                }
+            });
+        } else {
+            metrics.recordBusy(false);
+            logBusy(tick, false);
+        }
+    }
+
+    /**
+     * Generate a dlock-id. Must be unique globally.
+     *
+     * @return
+     * @since 0.1.1.1
+     */
+    protected String generateDLockId() {
+        return AkkaUtils.nextId();
+    }
+
+    private Boolean lockFairness;
+
+    /**
+     * If {@code true}, try to lock with fairness, if possible.
+     *
+     * @return
+     * @since 0.1.2
+     */
+    protected boolean isLockFairness() {
+        if (lockFairness == null && annotatedScheduling != null) {
+            setLockFairness(annotatedScheduling.lockFairness());
+        }
+        return lockFairness != null ? lockFairness.booleanValue() : false;
+    }
+
+    /**
+     * If {@code true}, try to lock with fairness, if possible.
+     *
+     * @param lockFairness
+     * @return
+     * @since 0.1.2
+     */
+    public BaseWorker setLockFairness(boolean lockFairness) {
+        this.lockFairness = lockFairness ? Boolean.TRUE : Boolean.FALSE;
+        return this;
+    }
+
+    private int dlockWait = 0;
+
+    /**
+     * Execute job, global singleton mode, called by {@link #onTick(TickMessage)}.
+     *
+     * <p>
+     * Do not forget to release lock. However, delay a short period before
+     * releasing lock to avoid the case that {@link #doJob(String, TickMessage)}
+     * is do fast that worker instance on another node may receive the very same
+     * tick-message and execute the same task (see {@link #getLockReleaseGuardMs()}).
+     * </p>
+     *
+     * <p>In lease mode (see {@link #isLockLease()}), lock is renewed every {@link #getLockRenewInterval()}
+     * while the job is running.</p>
+     *
+     * <p>If the job is rejected by the executor, lock is released immediately. If the job times out, lease is
+     * stopped and lock is released right away, without waiting for the job to actually end.</p>
+     *
+     * @param tick
+     * @since 0.1.1
+     */
+    protected void doJobGlobalSingleton(TickMessage tick) {
+        String dlockId = generateDLockId();
+        long lockStart = System.currentTimeMillis();
+        boolean locked =
+                isLockFairness() ? lock(dlockWait, dlockId, getLockDuration()) : lock(dlockId, getLockDuration());
+        metrics.recordLock(System.currentTimeMillis() - lockStart, locked);
+        if (locked) {
+            dlockWait = 0;
+            ActorSystem actorSystem = getActorSystem();
+            Scheduler scheduler = actorSystem != null ? actorSystem.scheduler() : null;
+            ExecutionContext ec = getExecutionContextExecutor(AkkaUtils.AKKA_DISPATCHER_WORKERS);
+            WorkerUtils.Lease lease = isLockLease() ? new WorkerUtils.Lease(() -> lock(dlockId, getLockDuration()),
+                    () -> LOGGER.warn("{" + getActorPath() + "} Lost lock lease while doing job " + tick))
+                    .start(scheduler, ec, getLockRenewInterval()) : null;
+            // lock is released once: either as soon as the job times out, or when the job ends
+            AtomicBoolean released = new AtomicBoolean(false);
+            BooleanSupplier renewLock = lease != null ?
+                    () -> !lease.isEnded() :
+                    () -> !released.get() && lock(dlockId, getLockDuration());
+            Runnable releaseOnTimeout = () -> {
+                if (released.compareAndSet(false, true)) {
+                    if (lease != null) {
+                        lease.end();
+                    }
+                    unlock(dlockId);
+                }
+            };
+            executeJobWithRetry(dlockId, tick, null, renewLock, releaseOnTimeout).whenComplete((r, e) -> {
+                if (e != null) {
+                    onJobError(tick, e);
+                }
+                if (released.compareAndSet(false, true)) {
+                    if (lease != null) {
+                        lease.end();
+                    }
+                    long guardMs = WorkerUtils.isAborted(e) ? 0 : getLockReleaseGuardMs();
+                    if (!WorkerUtils.releaseLock(scheduler, ec, guardMs, () -> unlock(dlockId))) {
+                        LOGGER.warn("Cannot obtain a Scheduler from ActorSystem.");
+                    }
+                }
+            });
+        } else {
+            dlockWait++;
+            metrics.recordBusy(true);
+            logBusy(tick, true);
+        }
+    }
+
+    /**
+     * Execute job, take-all-tasks mode, called by {@link #onTick(TickMessage)}.
+     *
+     * @param tick
+     * @since 0.1.1
+     */
+    protected void doJobTakeAllTasks(TickMessage tick) {
+        executeJobWithRetry(null, tick, null, null).whenComplete((r, e) -> {
+            if (e != null) {
+                onJobError(tick, e);
+            }
+        });
+    }
+
+    /**
+     * Execute job, partitioned mode, called by {@link #onTick(TickMessage)}.
+     *
+     * <p>Partitioned mode is supported in single-node mode only (see {@link #isSingleNodeMode()}): all partitions
+     * are assigned to this worker instance. Worker can take only one task at a time.</p>
+     *
+     * @param tick
+     * @since 1.2.0
+     */
+    protected void doJobPartitioned(TickMessage tick) {
+        PartitionAssignment assignment = PartitionAssignment.single(getPartitionCount());
+        if (localLock.tryAcquire()) {
+            executeJobWithRetry(null, tick, assignment, null).whenComplete((r, e) -> {
+                localLock.release();
+                if (e != null) {
+                    onJobError(tick, e);
+                }
+            });
+        } else {
+            metrics.recordBusy(false);
+            logBusy(tick, false);
+        }
+    }
+
+    private Semaphore boundedPermits;
+
+    private synchronized Semaphore boundedPermits() {
+        if (boundedPermits == null) {
+            boundedPermits = new Semaphore(getMaxConcurrentRuns(), true);
+        }
+        return boundedPermits;
+    }
+
+    /**
+     * Execute job, global bounded mode, called by {@link #onTick(TickMessage)}.
+     *
+     * <p>Global bounded mode is supported in single-node mode only (see {@link #isSingleNodeMode()}): the worker's
+     * only instance executes at most {@link #getMaxConcurrentRuns()} tasks simultaneously. Permits are local to the
+     * node: a timed-out task holds its permit until it actually ends.</p>
+     *
+     * @param tick
+     * @since 1.2.0
+     */
+    protected void doJobGlobalBounded(TickMessage tick) {
+        Semaphore permits = boundedPermits();
+        if (permits.tryAcquire()) {
+            executeJobWithRetry(null, tick, null, null).whenComplete((r, e) -> {
+                permits.release();
+                if (e != null) {
+                    onJobError(tick, e);
+                }
+            });
+        } else {
+            metrics.recordBusy(true);
+            logBusy(tick, true);
+        }
+    }
+
+    private void _onTick(TickMessage tick) {
+        WorkerCoordinationPolicy wcp = getWorkerCoordinationPolicy();
+        switch (wcp) {
+        case LOCAL_SINGLETON:
+            doJobLocalSingleton(tick);
             break;
         case GLOBAL_SINGLETON:
             doJobGlobalSingleton(tick);
@@ -557,10 +1868,18 @@ public abstract class BaseWorker extends BaseActor {
         case TAKE_ALL_TASKS:
             doJobTakeAllTasks(tick);
             break;
+        case PARTITIONED:
+            doJobPartitioned(tick);
+            break;
+        case GLOBAL_BOUNDED:
+            doJobGlobalBounded(tick);
+            break;
         default:
             LOGGER.error("Received unrecognized worker-coordinator-policy value: " + wcp);
         }
-        setLastTick(tick);
+        if (!(tick instanceof TriggeredTickMessage)) {
+            setLastTick(tick);
+        }
     }
 
     /**
@@ -569,7 +1888,12 @@ public abstract class BaseWorker extends BaseActor {
      * @param tick
      */
     protected void onTick(TickMessage tick) {
-        if (isTickMatched(tick) || tick instanceof FirstTimeTickMessage) {
+        if (!(tick instanceof TriggeredTickMessage) && !(tick instanceof FirstTimeTickMessage)
+                && adaptiveCadence != null && !adaptiveCadence.isDue(System.currentTimeMillis())) {
+            // backing off
+            return;
+        }
+        if (tick instanceof TriggeredTickMessage || isTickMatched(tick) || tick instanceof FirstTimeTickMessage) {
             if (handleMessageAsync) {
                 getExecutionContextExecutor(AkkaUtils.AKKA_DISPATCHER_WORKERS).execute(() -> _onTick(tick));
             } else {
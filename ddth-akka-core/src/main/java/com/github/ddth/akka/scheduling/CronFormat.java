@@ -3,8 +3,10 @@ package com.github.ddth.akka.scheduling;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -494,6 +496,17 @@ public class CronFormat {
             return false;
         }
 
+        return matchesDate(timestamp);
+    }
+
+    /**
+     * Matches the date part (day of month, month and day of week) of this cron format against a timestamp.
+     *
+     * @param timestamp
+     * @return
+     * @since 1.2.0
+     */
+    private boolean matchesDate(Calendar timestamp) {
         if (!dayOfMonth.matches(timestamp.get(Calendar.DAY_OF_MONTH))) {
             return false;
         }
@@ -534,6 +547,46 @@ public class CronFormat {
         return true;
     }
 
+    /**
+     * List all timestamps (at second granularity) within range {@code [fromMillis, toMillis)} this cron format
+     * matches.
+     *
+     * <p>Days, hours and minutes that do not match are skipped as a whole, so that listing sparse schedules over
+     * long ranges is cheap.</p>
+     *
+     * @param fromMillis
+     * @param toMillis
+     * @return
+     * @since 1.2.0
+     */
+    public List<Long> listMatches(long fromMillis, long toMillis) {
+        List<Long> result = new ArrayList<>();
+        Calendar cal = Calendar.getInstance();
+        // round up to the next whole second
+        cal.setTimeInMillis(Math.floorDiv(fromMillis + 999, 1000) * 1000);
+        while (cal.getTimeInMillis() < toMillis) {
+            if (!matchesDate(cal)) {
+                cal.add(Calendar.DAY_OF_MONTH, 1);
+                cal.set(Calendar.HOUR_OF_DAY, 0);
+                cal.set(Calendar.MINUTE, 0);
+                cal.set(Calendar.SECOND, 0);
+            } else if (!hour.matches(cal.get(Calendar.HOUR_OF_DAY))) {
+                cal.add(Calendar.HOUR_OF_DAY, 1);
+                cal.set(Calendar.MINUTE, 0);
+                cal.set(Calendar.SECOND, 0);
+            } else if (!minute.matches(cal.get(Calendar.MINUTE))) {
+                cal.add(Calendar.MINUTE, 1);
+                cal.set(Calendar.SECOND, 0);
+            } else {
+                if (second.matches(cal.get(Calendar.SECOND))) {
+                    result.add(cal.getTimeInMillis());
+                }
+                cal.add(Calendar.SECOND, 1);
+            }
+        }
+        return result;
+    }
+
     /*----------------------------------------------------------------------*/
 
     /**
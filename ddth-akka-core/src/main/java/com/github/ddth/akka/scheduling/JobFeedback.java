@@ -0,0 +1,34 @@
+package com.github.ddth.akka.scheduling;
+
+/**
+ * Hint a job run returns to adjust worker's effective cadence (see {@link AdaptiveCadence}).
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public enum JobFeedback {
+    /**
+     * No hint: worker follows its scheduling.
+     */
+    NONE(0),
+
+    /**
+     * More work is pending: run again soon.
+     */
+    MORE_WORK(1),
+
+    /**
+     * Nothing to do: back off.
+     */
+    IDLE(2);
+
+    private int value;
+
+    JobFeedback(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,145 @@
+package com.github.ddth.akka.scheduling;
+
+import com.github.ddth.akka.utils.RendezvousHashing;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.*;
+
+/**
+ * Partitions of a job assigned to a node, used by {@link WorkerCoordinationPolicy#PARTITIONED} workers.
+ *
+ * <p>Partitions are assigned to nodes using rendezvous hashing, so that membership changes move as few
+ * partitions as possible.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class PartitionAssignment {
+    /**
+     * Assignment where one node owns all partitions.
+     *
+     * @param partitionCount
+     * @return
+     */
+    public static PartitionAssignment single(int partitionCount) {
+        int[] partitions = new int[Math.max(partitionCount, 0)];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = i;
+        }
+        return new PartitionAssignment(partitions, partitions.length, 0, 1);
+    }
+
+    /**
+     * Calculate partitions assigned to a node.
+     *
+     * @param selfNode       id of the current node
+     * @param nodes          ids of all live nodes; {@code selfNode} is added if missing
+     * @param partitionCount total number of partitions
+     * @return
+     */
+    public static PartitionAssignment compute(String selfNode, Collection<String> nodes, int partitionCount) {
+        SortedSet<String> sortedNodes = new TreeSet<>(nodes);
+        sortedNodes.add(selfNode);
+        long[] nodeHashes = new long[sortedNodes.size()];
+        int selfIndex = 0, i = 0;
+        for (String node : sortedNodes) {
+            if (node.equals(selfNode)) {
+                selfIndex = i;
+            }
+            nodeHashes[i++] = RendezvousHashing.hash(node);
+        }
+        int[] buff = new int[Math.max(partitionCount, 0)];
+        int n = 0;
+        for (int p = 0; p < partitionCount; p++) {
+            if (RendezvousHashing.owner(nodeHashes, p) == selfIndex) {
+                buff[n++] = p;
+            }
+        }
+        return new PartitionAssignment(Arrays.copyOf(buff, n), Math.max(partitionCount, 0), selfIndex,
+                nodeHashes.length);
+    }
+
+    private final int[] partitions;
+    private final int partitionCount, nodeIndex, nodeCount;
+
+    public PartitionAssignment(int[] partitions, int partitionCount, int nodeIndex, int nodeCount) {
+        this.partitions = partitions;
+        this.partitionCount = partitionCount;
+        this.nodeIndex = nodeIndex;
+        this.nodeCount = nodeCount;
+    }
+
+    /**
+     * Partitions (in ascending order) assigned to the current node.
+     *
+     * @return
+     */
+    public int[] getPartitions() {
+        return partitions.clone();
+    }
+
+    /**
+     * Check if a partition is assigned to the current node.
+     *
+     * @param partition
+     * @return
+     */
+    public boolean owns(int partition) {
+        return Arrays.binarySearch(partitions, partition) >= 0;
+    }
+
+    /**
+     * Check if a key (e.g. hash value of a row's id) belongs to a partition assigned to the current node.
+     *
+     * @param key
+     * @return
+     */
+    public boolean ownsKey(long key) {
+        return partitionCount > 0 && owns((int) Math.floorMod(key, (long) partitionCount));
+    }
+
+    /**
+     * Is there any partition assigned to the current node?
+     *
+     * @return
+     */
+    public boolean isEmpty() {
+        return partitions.length == 0;
+    }
+
+    /**
+     * Total number of partitions.
+     *
+     * @return
+     */
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /**
+     * Index of the current node, amongst all live nodes (sorted by id).
+     *
+     * @return
+     */
+    public int getNodeIndex() {
+        return nodeIndex;
+    }
+
+    /**
+     * Number of live nodes.
+     *
+     * @return
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("node", nodeIndex + "/" + nodeCount)
+                .append("partitions", partitions.length + "/" + partitionCount);
+        return tsb.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.github.ddth.akka.scheduling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Policy to retry failed job runs: max attempts, exponential backoff with jitter and retryable exceptions.
+ *
+ * <p>Backoff before attempt {@code n+1} is {@code min(initialBackoff * 2^(n-1), maxBackoff)}, reduced by a random
+ * amount of up to {@code jitter} (0.0 to 1.0) of its value.</p>
+ *
+ * <p>If no retryable exception is specified, any error is retryable except {@link java.util.concurrent.TimeoutException}
+ * and {@link java.util.concurrent.RejectedExecutionException} (see {@link WorkerUtils#isAborted(Throwable)}).</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class RetryPolicy {
+    /* must be initialized before NONE */
+    @SuppressWarnings("unchecked")
+    private final static Class<? extends Throwable>[] NO_CLASSES = (Class<? extends Throwable>[]) new Class<?>[0];
+
+    /**
+     * No retry.
+     */
+    public final static RetryPolicy NONE = new RetryPolicy(1, 0, 0, 0.0);
+
+    private final int maxAttempts;
+    private final long initialBackoffMs, maxBackoffMs;
+    private final double jitter;
+    private final Class<? extends Throwable>[] retryOn;
+
+    public RetryPolicy(int maxAttempts, long initialBackoffMs, long maxBackoffMs, double jitter) {
+        this(maxAttempts, initialBackoffMs, maxBackoffMs, jitter, NO_CLASSES);
+    }
+
+    /**
+     * @param maxAttempts      max number of attempts (including the first one), {@code 1} or less means no retry
+     * @param initialBackoffMs backoff (in milliseconds) before the first retry
+     * @param maxBackoffMs     max backoff (in milliseconds), {@code 0} or less means no limit
+     * @param jitter           fraction of backoff to randomize, from {@code 0.0} to {@code 1.0}
+     * @param retryOn          retryable exceptions, empty means any non-aborted error
+     */
+    public RetryPolicy(int maxAttempts, long initialBackoffMs, long maxBackoffMs, double jitter,
+            Class<? extends Throwable>[] retryOn) {
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoffMs = Math.max(initialBackoffMs, 0);
+        this.maxBackoffMs = maxBackoffMs;
+        this.jitter = Math.min(Math.max(jitter, 0.0), 1.0);
+        this.retryOn = retryOn != null ? retryOn.clone() : NO_CLASSES;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMs() {
+        return initialBackoffMs;
+    }
+
+    public long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public Class<? extends Throwable>[] getRetryOn() {
+        return retryOn.clone();
+    }
+
+    /**
+     * Check if a failed attempt should be retried.
+     *
+     * @param error   error the attempt ended with
+     * @param attempt number of the failed attempt, starting from {@code 1}
+     * @return
+     */
+    public boolean shouldRetry(Throwable error, int attempt) {
+        if (attempt >= maxAttempts || error == null) {
+            return false;
+        }
+        Throwable cause = WorkerUtils.unwrap(error);
+        if (retryOn.length == 0) {
+            return !WorkerUtils.isAborted(cause);
+        }
+        for (Class<? extends Throwable> clazz : retryOn) {
+            if (clazz.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Calculate backoff (without jitter) before the next attempt.
+     *
+     * @param attempt number of the failed attempt, starting from {@code 1}
+     * @return
+     */
+    public long getBackoffMs(int attempt) {
+        int shift = Math.max(attempt - 1, 0);
+        long backoff = initialBackoffMs == 0 || shift < Long.numberOfLeadingZeros(initialBackoffMs) - 1 ?
+                initialBackoffMs << shift :
+                Long.MAX_VALUE;
+        return maxBackoffMs > 0 ? Math.min(backoff, maxBackoffMs) : backoff;
+    }
+
+    /**
+     * Calculate backoff (with jitter) before the next attempt.
+     *
+     * @param attempt number of the failed attempt, starting from {@code 1}
+     * @return
+     */
+    public long nextBackoffMs(int attempt) {
+        long backoff = getBackoffMs(attempt);
+        return jitter > 0 ? backoff - (long) (backoff * jitter * ThreadLocalRandom.current().nextDouble()) : backoff;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("maxAttempts", maxAttempts).append("initialBackoffMs", initialBackoffMs)
+                .append("maxBackoffMs", maxBackoffMs).append("jitter", jitter).append("retryOn", retryOn);
+        return tsb.toString();
+    }
+}
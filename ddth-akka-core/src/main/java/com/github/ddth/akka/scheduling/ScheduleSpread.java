@@ -0,0 +1,85 @@
+package com.github.ddth.akka.scheduling;
+
+import com.github.ddth.akka.utils.RendezvousHashing;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Spread window to shift workers' fire times by a stable offset, so that workers with the same scheduling do not
+ * fire at the same "tick".
+ *
+ * <p>Format: {@code [<min>-]<max>[unit]}, where unit is one of {@code s} (seconds, default), {@code m} (minutes)
+ * or {@code h} (hours). Examples: {@code "30s"}, {@code "0-30s"}, {@code "10-50"}, {@code "0-5m"}.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class ScheduleSpread {
+    /**
+     * No spread.
+     */
+    public final static ScheduleSpread NONE = new ScheduleSpread(0, 0);
+
+    private final static Pattern PATTERN = Pattern.compile("^\\s*(?:(\\d+)\\s*-\\s*)?(\\d+)\\s*([smhSMH]?)\\s*$");
+
+    /**
+     * Parse spread window from a string.
+     *
+     * @param input
+     * @return {@link #NONE} if {@code input} is empty
+     * @throws IllegalArgumentException if {@code input} is invalid
+     */
+    public static ScheduleSpread parse(String input) {
+        if (StringUtils.isBlank(input)) {
+            return NONE;
+        }
+        Matcher m = PATTERN.matcher(input);
+        if (!m.matches()) {
+            throw new IllegalArgumentException("Invalid spread [" + input + "].");
+        }
+        String unit = m.group(3).toLowerCase();
+        int multiplier = "h".equals(unit) ? 3600 : "m".equals(unit) ? 60 : 1;
+        long min = m.group(1) != null ? Long.parseLong(m.group(1)) * multiplier : 0;
+        long max = Long.parseLong(m.group(2)) * multiplier;
+        if (min > max) {
+            throw new IllegalArgumentException("Invalid spread [" + input + "]: min is greater than max.");
+        }
+        return new ScheduleSpread(min, max);
+    }
+
+    private final long minSeconds, maxSeconds;
+
+    public ScheduleSpread(long minSeconds, long maxSeconds) {
+        this.minSeconds = minSeconds;
+        this.maxSeconds = maxSeconds;
+    }
+
+    public long getMinSeconds() {
+        return minSeconds;
+    }
+
+    public long getMaxSeconds() {
+        return maxSeconds;
+    }
+
+    /**
+     * Calculate the stable offset (in milliseconds) for a key.
+     *
+     * @param key e.g. worker's name (and node's address)
+     * @return offset within the window, in whole seconds
+     */
+    public long offsetMs(String key) {
+        long range = maxSeconds - minSeconds + 1;
+        if (maxSeconds <= 0 || range <= 1) {
+            return minSeconds * 1000L;
+        }
+        return (minSeconds + Long.remainderUnsigned(RendezvousHashing.hash(key), range)) * 1000L;
+    }
+
+    @Override
+    public String toString() {
+        return minSeconds + "-" + maxSeconds + "s";
+    }
+}
@@ -1,8 +1,10 @@
 package com.github.ddth.akka.scheduling;
 
 import com.github.ddth.akka.BaseMessage;
+import org.apache.commons.lang3.StringUtils;
 
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * A message that encapsulates a "tick".
@@ -35,4 +37,28 @@ public class TickMessage extends BaseMessage {
     public TickMessage(String id, String replyToId, Map<String, Object> tags) {
         super(id, replyToId, tags);
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Ticks are stored in distributed-data (e.g. last "tick" of cluster-workers): a tick and its copy received
+     * from another node must be equal, or replicas would drop it when merging.</p>
+     *
+     * @since 1.2.0
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(getId(), getTimestamp());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 1.2.0
+     */
+    @Override
+    public boolean equals(Object obj) {
+        return obj == this || (obj instanceof TickMessage && StringUtils.equals(getId(), ((TickMessage) obj).getId())
+                && Objects.equals(getTimestamp(), ((TickMessage) obj).getTimestamp()));
+    }
 }
@@ -0,0 +1,153 @@
+package com.github.ddth.akka.scheduling;
+
+import akka.actor.Cancellable;
+import akka.actor.Scheduler;
+import scala.concurrent.ExecutionContext;
+import scala.concurrent.duration.Duration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Coalesce trigger events into {@link TriggeredTickMessage}s, applying debounce, throttle and max-wait.
+ *
+ * <ul>
+ * <li>Debounce: fire once after no event has been received for {@code debounceMs}.</li>
+ * <li>Max-wait: with debounce, do not postpone firing more than {@code maxWaitMs} after the first pending
+ * event.</li>
+ * <li>Throttle: fire at most once per {@code throttleMs}.</li>
+ * </ul>
+ *
+ * <p>If none of the above is set, every event fires right away.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class TriggerCoalescer {
+    /**
+     * Calculate the time pending events are due to fire.
+     *
+     * @param debounceMs
+     * @param throttleMs
+     * @param maxWaitMs
+     * @param firstEventTs time the first pending event was received
+     * @param lastEventTs  time the last pending event was received
+     * @param lastFireTs   time of the last firing, {@code 0} if never fired
+     * @return
+     */
+    public static long dueTime(long debounceMs, long throttleMs, long maxWaitMs, long firstEventTs, long lastEventTs,
+            long lastFireTs) {
+        long due = lastEventTs;
+        if (debounceMs > 0) {
+            due = lastEventTs + debounceMs;
+            if (maxWaitMs > 0) {
+                due = Math.min(due, firstEventTs + maxWaitMs);
+            }
+        }
+        if (throttleMs > 0 && lastFireTs > 0) {
+            due = Math.max(due, lastFireTs + throttleMs);
+        }
+        return due;
+    }
+
+    private final long debounceMs, throttleMs, maxWaitMs;
+    private final Scheduler scheduler;
+    private final ExecutionContext ec;
+    private final Consumer<TriggeredTickMessage> onFire;
+
+    private int eventCount = 0;
+    private Object lastEvent;
+    private long firstEventTs, lastEventTs, lastFireTs;
+    private Cancellable timer;
+    private long timerDue, timerGeneration;
+    private boolean stopped = false;
+
+    /**
+     * @param debounceMs
+     * @param throttleMs
+     * @param maxWaitMs
+     * @param scheduler  scheduler to fire delayed events, if {@code null} events fire right away
+     * @param ec         execution context for the scheduler's callback
+     * @param onFire     called when pending events fire
+     */
+    public TriggerCoalescer(long debounceMs, long throttleMs, long maxWaitMs, Scheduler scheduler,
+            ExecutionContext ec, Consumer<TriggeredTickMessage> onFire) {
+        this.debounceMs = debounceMs;
+        this.throttleMs = throttleMs;
+        this.maxWaitMs = maxWaitMs;
+        this.scheduler = scheduler;
+        this.ec = ec;
+        this.onFire = onFire;
+    }
+
+    private void cancelTimer() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+    }
+
+    /**
+     * Called when a trigger event is received.
+     *
+     * @param event
+     */
+    public void onEvent(Object event) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (stopped) {
+                return;
+            }
+            if (eventCount == 0) {
+                firstEventTs = now;
+            }
+            eventCount++;
+            lastEvent = event;
+            lastEventTs = now;
+            long due = dueTime(debounceMs, throttleMs, maxWaitMs, firstEventTs, lastEventTs, lastFireTs);
+            if (due > now && scheduler != null) {
+                if (timer == null || timerDue != due) {
+                    cancelTimer();
+                    long generation = ++timerGeneration;
+                    timerDue = due;
+                    timer = scheduler.scheduleOnce(Duration.create(due - now, TimeUnit.MILLISECONDS),
+                            () -> fire(generation), ec);
+                }
+                return;
+            }
+            cancelTimer();
+        }
+        fire(-1);
+    }
+
+    /**
+     * @param generation generation of the timer that fires, {@code -1} if not fired by a timer
+     */
+    private void fire(long generation) {
+        TriggeredTickMessage tick;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (stopped || eventCount == 0 || (generation >= 0 && generation != timerGeneration)) {
+                // nothing pending, or this timer has been superseded by a later one
+                return;
+            }
+            timer = null;
+            timerGeneration++;
+            tick = new TriggeredTickMessage(lastEvent, eventCount, firstEventTs);
+            eventCount = 0;
+            lastEvent = null;
+            lastFireTs = now;
+        }
+        onFire.accept(tick);
+    }
+
+    /**
+     * Stop coalescing: pending events are discarded.
+     */
+    public synchronized void stop() {
+        stopped = true;
+        cancelTimer();
+        eventCount = 0;
+        lastEvent = null;
+    }
+}
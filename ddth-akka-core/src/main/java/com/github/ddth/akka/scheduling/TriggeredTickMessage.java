@@ -0,0 +1,47 @@
+package com.github.ddth.akka.scheduling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Date;
+
+/**
+ * A "tick" fired by trigger events rather than by worker's scheduling (see {@link TriggerCoalescer}).
+ *
+ * <p>Triggered "ticks" bypass scheduling check and do not update worker's last "tick".</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class TriggeredTickMessage extends TickMessage {
+    private static final long serialVersionUID = "1.2.0".hashCode();
+
+    /**
+     * The last event that triggered this "tick".
+     */
+    public final transient Object lastEvent;
+
+    /**
+     * Number of events coalesced into this "tick".
+     */
+    public final int eventCount;
+
+    /**
+     * Time the first event coalesced into this "tick" was received.
+     */
+    public final Date firstEventTimestamp;
+
+    public TriggeredTickMessage(Object lastEvent, int eventCount, long firstEventTimestampMs) {
+        this.lastEvent = lastEvent;
+        this.eventCount = eventCount;
+        this.firstEventTimestamp = new Date(firstEventTimestampMs);
+    }
+
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("eventCount", eventCount).append("firstEventTimestamp", firstEventTimestamp)
+                .append("lastEvent", lastEvent).appendSuper(super.toString());
+        return tsb.toString();
+    }
+}
@@ -23,7 +23,28 @@ public enum WorkerCoordinationPolicy {
      * Once worker takes a task, all of its instances on all nodes are marked
      * "busy" and can no longer take any more task until free.
      */
-    GLOBAL_SINGLETON(2);
+    GLOBAL_SINGLETON(2),
+
+    /**
+     * Job is split into partitions, which are spread across all live nodes: on each "tick", every node
+     * executes the job for the partitions assigned to it (see {@link PartitionAssignment}). On one node,
+     * worker can take only one task at a time.
+     *
+     * @since 1.2.0
+     */
+    PARTITIONED(3),
+
+    /**
+     * At most {@code K} tasks can be executed simultaneously across all nodes (see
+     * {@link com.github.ddth.akka.scheduling.annotation.Scheduling#maxConcurrentRuns()}): on each "tick", every node
+     * that is not already executing the task tries to acquire a permit from a cluster-wide counting semaphore and
+     * executes the task only if it succeeds. Hence, like {@link #TAKE_ALL_TASKS}, the same task can be executed on up
+     * to {@code K} nodes simultaneously (one at a time per node), and the job is responsible for sharing out work
+     * amongst them (e.g. consuming from a queue).
+     *
+     * @since 1.2.0
+     */
+    GLOBAL_BOUNDED(4);
 
     private int value;
 
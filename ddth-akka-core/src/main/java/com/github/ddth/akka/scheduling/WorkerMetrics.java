@@ -0,0 +1,534 @@
+package com.github.ddth.akka.scheduling;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Serializable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution metrics of a worker.
+ *
+ * <p>
+ * Metrics of all workers on a node are kept in a registry (see {@link #getAll()}), and can be
+ * exposed via JMX (see {@link #registerMBean()}). All durations are in milliseconds.
+ * </p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class WorkerMetrics implements WorkerMetricsMBean {
+    /**
+     * JMX domain that worker metrics are registered under.
+     */
+    public final static String JMX_DOMAIN = "com.github.ddth.akka";
+
+    private final static Logger LOGGER = LoggerFactory.getLogger(WorkerMetrics.class);
+
+    private final static ConcurrentMap<String, WorkerMetrics> registry = new ConcurrentHashMap<>();
+
+    /**
+     * Get metrics of a worker by name.
+     *
+     * @param name
+     * @return
+     */
+    public static WorkerMetrics get(String name) {
+        return registry.get(name);
+    }
+
+    /**
+     * Get metrics of all workers on this node.
+     *
+     * @return
+     */
+    public static Collection<WorkerMetrics> getAll() {
+        return Collections.unmodifiableCollection(registry.values());
+    }
+
+    private final static ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Get CPU time of the current thread, in nanoseconds.
+     *
+     * @return CPU time in nanoseconds, or {@code -1} if not supported
+     */
+    public static long currentThreadCpuTime() {
+        try {
+            return threadMXBean.isCurrentThreadCpuTimeSupported() ? threadMXBean.getCurrentThreadCpuTime() : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * A simple histogram of durations (in milliseconds) with fixed exponential buckets.
+     */
+    public static class Histogram {
+        /**
+         * Buckets' upper bounds, in milliseconds.
+         */
+        public final static long[] BUCKETS = { 1, 2, 5, 10, 20, 50, 100, 200, 500, 1000, 2000, 5000, 10000, 30000,
+                60000, 300000, 600000, 1800000, 3600000, Long.MAX_VALUE };
+
+        private final LongAdder[] counts = new LongAdder[BUCKETS.length];
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+        public Histogram() {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        public void record(long valueMs) {
+            long value = Math.max(0, valueMs);
+            int i = 0;
+            while (value > BUCKETS[i]) {
+                i++;
+            }
+            counts[i].increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        public void reset() {
+            for (LongAdder counter : counts) {
+                counter.reset();
+            }
+            sum.reset();
+            max.reset();
+        }
+
+        public long[] getCounts() {
+            long[] result = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                result[i] = counts[i].sum();
+            }
+            return result;
+        }
+
+        public long getCount() {
+            long result = 0;
+            for (LongAdder counter : counts) {
+                result += counter.sum();
+            }
+            return result;
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        public double getMean() {
+            long count = getCount();
+            return count > 0 ? (double) getSum() / count : 0;
+        }
+
+        /**
+         * Get the (approximate) percentile value, i.e. upper bound of the bucket the percentile falls into.
+         *
+         * @param percentile value in range {@code (0, 100]}
+         * @return
+         */
+        public long getPercentile(double percentile) {
+            return percentile(getCounts(), percentile, getMax());
+        }
+
+        static long percentile(long[] counts, double percentile, long max) {
+            long total = 0;
+            for (long c : counts) {
+                total += c;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long threshold = (long) Math.ceil(total * percentile / 100.0);
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i];
+                if (cumulative >= threshold) {
+                    return Math.min(BUCKETS[i], max);
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Immutable snapshot of a {@link WorkerMetrics}.
+     */
+    public static class Snapshot implements Serializable {
+        private static final long serialVersionUID = "1.2.0".hashCode();
+
+        public final String name;
+        public final long timestamp = System.currentTimeMillis();
+        public final long runCount, runFailureCount, runTimeoutCount, cpuTimeTotalMs;
+        public final long[] runDurationBuckets, schedulingLagBuckets, lockLatencyBuckets;
+        public final long runDurationMaxMs, runDurationSumMs, schedulingLagMaxMs, schedulingLagSumMs;
+        public final long lockAcquiredCount, lockFailureCount, lockLatencyMaxMs, lockLatencySumMs;
+        public final long busyLocalCount, busyGlobalCount, tickRejectedLateCount, tickRejectedDuplicateCount;
+
+        public Snapshot(WorkerMetrics metrics) {
+            name = metrics.name;
+            runCount = metrics.runCount.sum();
+            runFailureCount = metrics.runFailureCount.sum();
+            runTimeoutCount = metrics.runTimeoutCount.sum();
+            cpuTimeTotalMs = TimeUnit.NANOSECONDS.toMillis(metrics.cpuTimeNanos.sum());
+            runDurationBuckets = metrics.runDuration.getCounts();
+            runDurationMaxMs = metrics.runDuration.getMax();
+            runDurationSumMs = metrics.runDuration.getSum();
+            schedulingLagBuckets = metrics.schedulingLag.getCounts();
+            schedulingLagMaxMs = metrics.schedulingLag.getMax();
+            schedulingLagSumMs = metrics.schedulingLag.getSum();
+            lockAcquiredCount = metrics.lockAcquiredCount.sum();
+            lockFailureCount = metrics.lockFailureCount.sum();
+            lockLatencyBuckets = metrics.lockLatency.getCounts();
+            lockLatencyMaxMs = metrics.lockLatency.getMax();
+            lockLatencySumMs = metrics.lockLatency.getSum();
+            busyLocalCount = metrics.busyLocalCount.sum();
+            busyGlobalCount = metrics.busyGlobalCount.sum();
+            tickRejectedLateCount = metrics.tickRejectedLateCount.sum();
+            tickRejectedDuplicateCount = metrics.tickRejectedDuplicateCount.sum();
+        }
+
+        public long runDurationPercentile(double percentile) {
+            return Histogram.percentile(runDurationBuckets, percentile, runDurationMaxMs);
+        }
+
+        public long schedulingLagPercentile(double percentile) {
+            return Histogram.percentile(schedulingLagBuckets, percentile, schedulingLagMaxMs);
+        }
+
+        public long lockLatencyPercentile(double percentile) {
+            return Histogram.percentile(lockLatencyBuckets, percentile, lockLatencyMaxMs);
+        }
+
+        /**
+         * Export snapshot's data as a map.
+         *
+         * @return
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("name", name);
+            result.put("timestamp", timestamp);
+            result.put("run_count", runCount);
+            result.put("run_failure_count", runFailureCount);
+            result.put("run_timeout_count", runTimeoutCount);
+            result.put("run_duration_p50", runDurationPercentile(50));
+            result.put("run_duration_p99", runDurationPercentile(99));
+            result.put("run_duration_max", runDurationMaxMs);
+            result.put("scheduling_lag_p99", schedulingLagPercentile(99));
+            result.put("cpu_time_total", cpuTimeTotalMs);
+            result.put("lock_acquired_count", lockAcquiredCount);
+            result.put("lock_failure_count", lockFailureCount);
+            result.put("lock_latency_p99", lockLatencyPercentile(99));
+            result.put("busy_local_count", busyLocalCount);
+            result.put("busy_global_count", busyGlobalCount);
+            result.put("tick_rejected_late_count", tickRejectedLateCount);
+            result.put("tick_rejected_duplicate_count", tickRejectedDuplicateCount);
+            return result;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+            toMap().forEach(tsb::append);
+            return tsb.toString();
+        }
+    }
+
+    private String name;
+    private ObjectName objectName;
+
+    private final LongAdder runCount = new LongAdder(), runFailureCount = new LongAdder(),
+            runTimeoutCount = new LongAdder(), cpuTimeNanos = new LongAdder();
+    private final Histogram runDuration = new Histogram(), schedulingLag = new Histogram(),
+            lockLatency = new Histogram();
+    private final LongAdder lockAcquiredCount = new LongAdder(), lockFailureCount = new LongAdder();
+    private final LongAdder busyLocalCount = new LongAdder(), busyGlobalCount = new LongAdder();
+    private final LongAdder tickRejectedLateCount = new LongAdder(), tickRejectedDuplicateCount = new LongAdder();
+
+    public WorkerMetrics() {
+    }
+
+    public WorkerMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    public WorkerMetrics setName(String name) {
+        this.name = name;
+        return this;
+    }
+
+    /**
+     * Put this metrics to the node's registry and register it as a MBean.
+     *
+     * @return
+     */
+    public WorkerMetrics registerMBean() {
+        registry.put(name, this);
+        try {
+            MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(
+                    JMX_DOMAIN + ":type=" + WorkerMetrics.class.getSimpleName() + ",name=" + ObjectName.quote(name));
+            try {
+                mbs.registerMBean(this, objectName);
+            } catch (InstanceAlreadyExistsException e) {
+                // left over from a previous incarnation of the worker
+                mbs.unregisterMBean(objectName);
+                mbs.registerMBean(this, objectName);
+            }
+            this.objectName = objectName;
+        } catch (Exception e) {
+            LOGGER.warn("Cannot register MBean for worker [" + name + "]: " + e.getMessage(), e);
+        }
+        return this;
+    }
+
+    /**
+     * Remove this metrics from the node's registry and unregister it from MBean server.
+     *
+     * @return
+     */
+    public WorkerMetrics unregisterMBean() {
+        // the MBean may have been taken over by a newer incarnation of the worker, leave it alone
+        boolean current = registry.remove(name, this);
+        try {
+            if (objectName != null && current) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Cannot unregister MBean for worker [" + name + "]: " + e.getMessage(), e);
+        } finally {
+            objectName = null;
+        }
+        return this;
+    }
+
+    /**
+     * Take a snapshot of current metrics.
+     *
+     * @return
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(this);
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * Record a job run has just started.
+     *
+     * @param schedulingLagMs lag from tick's timestamp to job's start
+     */
+    public void recordRunStart(long schedulingLagMs) {
+        runCount.increment();
+        schedulingLag.record(schedulingLagMs);
+    }
+
+    /**
+     * Record a job run has finished.
+     *
+     * @param durationMs
+     * @param cpuTimeNanos CPU time used by the job, negative value is ignored
+     */
+    public void recordRunFinish(long durationMs, long cpuTimeNanos) {
+        runDuration.record(durationMs);
+        if (cpuTimeNanos > 0) {
+            this.cpuTimeNanos.add(cpuTimeNanos);
+        }
+    }
+
+    /**
+     * Record a job run has failed.
+     *
+     * @param isTimeout
+     */
+    public void recordRunFailure(boolean isTimeout) {
+        if (isTimeout) {
+            runTimeoutCount.increment();
+        } else {
+            runFailureCount.increment();
+        }
+    }
+
+    /**
+     * Record a lock acquisition.
+     *
+     * @param latencyMs
+     * @param acquired
+     */
+    public void recordLock(long latencyMs, boolean acquired) {
+        lockLatency.record(latencyMs);
+        if (acquired) {
+            lockAcquiredCount.increment();
+        } else {
+            lockFailureCount.increment();
+        }
+    }
+
+    /**
+     * Record a "busy" event.
+     *
+     * @param isGlobal
+     */
+    public void recordBusy(boolean isGlobal) {
+        if (isGlobal) {
+            busyGlobalCount.increment();
+        } else {
+            busyLocalCount.increment();
+        }
+    }
+
+    /**
+     * Record a "tick" rejected because it came too late.
+     */
+    public void recordTickRejectedLate() {
+        tickRejectedLateCount.increment();
+    }
+
+    /**
+     * Record a "tick" rejected because it is not newer than the last one.
+     */
+    public void recordTickRejectedDuplicate() {
+        tickRejectedDuplicateCount.increment();
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    @Override
+    public long getRunCount() {
+        return runCount.sum();
+    }
+
+    @Override
+    public long getRunFailureCount() {
+        return runFailureCount.sum();
+    }
+
+    @Override
+    public long getRunTimeoutCount() {
+        return runTimeoutCount.sum();
+    }
+
+    @Override
+    public double getRunDurationMean() {
+        return runDuration.getMean();
+    }
+
+    @Override
+    public long getRunDurationP50() {
+        return runDuration.getPercentile(50);
+    }
+
+    @Override
+    public long getRunDurationP99() {
+        return runDuration.getPercentile(99);
+    }
+
+    @Override
+    public long getRunDurationMax() {
+        return runDuration.getMax();
+    }
+
+    @Override
+    public double getSchedulingLagMean() {
+        return schedulingLag.getMean();
+    }
+
+    @Override
+    public long getSchedulingLagP99() {
+        return schedulingLag.getPercentile(99);
+    }
+
+    @Override
+    public long getCpuTimeTotal() {
+        return TimeUnit.NANOSECONDS.toMillis(cpuTimeNanos.sum());
+    }
+
+    @Override
+    public long getLockAcquiredCount() {
+        return lockAcquiredCount.sum();
+    }
+
+    @Override
+    public long getLockFailureCount() {
+        return lockFailureCount.sum();
+    }
+
+    @Override
+    public double getLockLatencyMean() {
+        return lockLatency.getMean();
+    }
+
+    @Override
+    public long getLockLatencyP99() {
+        return lockLatency.getPercentile(99);
+    }
+
+    @Override
+    public long getBusyLocalCount() {
+        return busyLocalCount.sum();
+    }
+
+    @Override
+    public long getBusyGlobalCount() {
+        return busyGlobalCount.sum();
+    }
+
+    @Override
+    public long getTickRejectedLateCount() {
+        return tickRejectedLateCount.sum();
+    }
+
+    @Override
+    public long getTickRejectedDuplicateCount() {
+        return tickRejectedDuplicateCount.sum();
+    }
+
+    @Override
+    public void reset() {
+        runCount.reset();
+        runFailureCount.reset();
+        runTimeoutCount.reset();
+        cpuTimeNanos.reset();
+        runDuration.reset();
+        schedulingLag.reset();
+        lockLatency.reset();
+        lockAcquiredCount.reset();
+        lockFailureCount.reset();
+        busyLocalCount.reset();
+        busyGlobalCount.reset();
+        tickRejectedLateCount.reset();
+        tickRejectedDuplicateCount.reset();
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.ddth.akka.scheduling;
+
+/**
+ * JMX interface of {@link WorkerMetrics}.
+ *
+ * <p>All durations are in milliseconds.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public interface WorkerMetricsMBean {
+    String getName();
+
+    long getRunCount();
+
+    long getRunFailureCount();
+
+    long getRunTimeoutCount();
+
+    double getRunDurationMean();
+
+    long getRunDurationP50();
+
+    long getRunDurationP99();
+
+    long getRunDurationMax();
+
+    double getSchedulingLagMean();
+
+    long getSchedulingLagP99();
+
+    long getCpuTimeTotal();
+
+    long getLockAcquiredCount();
+
+    long getLockFailureCount();
+
+    double getLockLatencyMean();
+
+    long getLockLatencyP99();
+
+    long getBusyLocalCount();
+
+    long getBusyGlobalCount();
+
+    long getTickRejectedLateCount();
+
+    long getTickRejectedDuplicateCount();
+
+    /**
+     * Reset all counters.
+     */
+    void reset();
+}
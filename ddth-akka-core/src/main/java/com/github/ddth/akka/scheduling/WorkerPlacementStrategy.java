@@ -0,0 +1,30 @@
+package com.github.ddth.akka.scheduling;
+
+/**
+ * Define which node takes the task of a {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} worker.
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public enum WorkerPlacementStrategy {
+    /**
+     * The node that acquires the lock first takes the task.
+     */
+    LOCK_RACE(0),
+
+    /**
+     * The node with the lowest recent load takes the task. If nodes' load is unknown or stale, fall back to
+     * {@link #LOCK_RACE}.
+     */
+    LEAST_LOADED(1);
+
+    private int value;
+
+    WorkerPlacementStrategy(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,94 @@
+package com.github.ddth.akka.scheduling;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongPredicate;
+
+/**
+ * Node-level registry of workers' schedules, to report how many runs are due per second and find hot spots.
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class WorkerScheduleRegistry {
+    private final static ConcurrentMap<String, LongPredicate> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Register a worker's schedule.
+     *
+     * @param name  worker's name
+     * @param isDue test if a run is due at a timestamp (UNIX timestamp in milliseconds)
+     */
+    public static void register(String name, LongPredicate isDue) {
+        schedules.put(name, isDue);
+    }
+
+    /**
+     * Unregister a worker's schedule.
+     *
+     * @param name
+     */
+    public static void unregister(String name) {
+        schedules.remove(name);
+    }
+
+    /**
+     * Names of registered workers.
+     *
+     * @return
+     */
+    public static Set<String> getWorkerNames() {
+        return Collections.unmodifiableSet(new TreeSet<>(schedules.keySet()));
+    }
+
+    /**
+     * Count runs due per second.
+     *
+     * @param startMs    start time (UNIX timestamp in milliseconds), truncated to second
+     * @param numSeconds number of seconds to count, e.g. {@code 3600} for the next hour
+     * @return array of {@code numSeconds} elements, element {@code i} is number of runs due at second
+     * {@code startMs/1000 + i}
+     */
+    public static int[] getDueRunsPerSecond(long startMs, int numSeconds) {
+        long start = startMs - startMs % 1000;
+        int[] result = new int[numSeconds];
+        Collection<LongPredicate> predicates = new ArrayList<>(schedules.values());
+        for (int i = 0; i < numSeconds; i++) {
+            long ts = start + i * 1000L;
+            for (LongPredicate isDue : predicates) {
+                if (isDue.test(ts)) {
+                    result[i]++;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find seconds at which at least {@code minRuns} runs are due.
+     *
+     * @param startMs    start time (UNIX timestamp in milliseconds), truncated to second
+     * @param numSeconds number of seconds to scan, e.g. {@code 3600} for the next hour
+     * @param minRuns
+     * @return map of {second:names of workers due at that second}, sorted by time
+     */
+    public static SortedMap<Date, List<String>> getHotSpots(long startMs, int numSeconds, int minRuns) {
+        long start = startMs - startMs % 1000;
+        SortedMap<Date, List<String>> result = new TreeMap<>();
+        Map<String, LongPredicate> snapshot = new TreeMap<>(schedules);
+        for (int i = 0; i < numSeconds; i++) {
+            long ts = start + i * 1000L;
+            List<String> dueWorkers = new ArrayList<>();
+            snapshot.forEach((name, isDue) -> {
+                if (isDue.test(ts)) {
+                    dueWorkers.add(name);
+                }
+            });
+            if (dueWorkers.size() >= Math.max(minRuns, 1)) {
+                result.put(new Date(ts), dueWorkers);
+            }
+        }
+        return result;
+    }
+}
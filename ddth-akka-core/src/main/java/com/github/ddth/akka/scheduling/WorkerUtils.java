@@ -0,0 +1,530 @@
+package com.github.ddth.akka.scheduling;
+
+import akka.actor.Cancellable;
+import akka.actor.Scheduler;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import scala.concurrent.ExecutionContext;
+import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
+
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+/**
+ * Utility class to execute workers' jobs.
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class WorkerUtils {
+    /**
+     * A job's body.
+     */
+    @FunctionalInterface
+    public interface Job {
+        void run() throws Exception;
+    }
+
+    /**
+     * An asynchronous job's body: the job is considered finished when the returned stage completes.
+     */
+    @FunctionalInterface
+    public interface AsyncJob {
+        /**
+         * @return the stage that completes when the job finishes, {@code null} means the job has already finished
+         * @throws Exception
+         */
+        CompletionStage<?> run() throws Exception;
+    }
+
+    /**
+     * Unwrap {@link CompletionException} to get the actual cause.
+     *
+     * @param e
+     * @return
+     */
+    public static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    /**
+     * Check if a job did not run to the end because it timed out or was rejected by the executor.
+     *
+     * @param e error the job run ended with, {@code null} if the job ended normally
+     * @return
+     */
+    public static boolean isAborted(Throwable e) {
+        Throwable cause = unwrap(e);
+        return cause instanceof TimeoutException || cause instanceof RejectedExecutionException;
+    }
+
+    /**
+     * Create a bounded thread pool to execute jobs of a worker.
+     *
+     * @param name      name of the pool, used as thread name prefix
+     * @param poolSize  number of threads
+     * @param queueSize number of pending jobs can be queued, {@code 0} means jobs are rejected when all threads are busy
+     * @return
+     */
+    public static ExecutorService newBoundedExecutor(String name, int poolSize, int queueSize) {
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+        ThreadFactory threadFactory = new BasicThreadFactory.Builder()
+                .namingPattern(name.replace("%", "%%") + "-%d").daemon(true).build();
+        return new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS, queue, threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Run a blocking job, wrapped in a {@link ForkJoinPool.ManagedBlocker}.
+     *
+     * <p>If the current thread belongs to a {@link ForkJoinPool}, the pool is allowed to
+     * activate a spare thread while the job blocks, so that its parallelism is preserved.
+     * Otherwise the job is simply executed.</p>
+     *
+     * @param job
+     * @throws Exception
+     */
+    public static void runBlocking(Job job) throws Exception {
+        BlockingJob blocker = new BlockingJob(job);
+        ForkJoinPool.managedBlock(blocker);
+        if (blocker.error != null) {
+            throw blocker.error;
+        }
+    }
+
+    /**
+     * Wait for the stage of an asynchronous job to complete, rethrowing its failure.
+     *
+     * @param stage {@code null} means the job has already finished
+     * @throws Exception
+     */
+    public static void await(CompletionStage<?> stage) throws Exception {
+        if (stage == null) {
+            return;
+        }
+        try {
+            stage.toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            Throwable cause = unwrap(e.getCause());
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static class BlockingJob implements ForkJoinPool.ManagedBlocker {
+        private final Job job;
+        private boolean done = false;
+        private Exception error;
+
+        public BlockingJob(Job job) {
+            this.job = job;
+        }
+
+        @Override
+        public boolean block() {
+            try {
+                job.run();
+            } catch (Exception e) {
+                error = e;
+            } finally {
+                done = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return done;
+        }
+    }
+
+    /**
+     * Keep track of the thread executing a job (and of the job's stage) so that it can be interrupted.
+     */
+    private static class JobRun {
+        private Thread thread;
+        private Future<?> stage;
+        private boolean started = false, finished = false, interrupted = false;
+        private TimeoutException timeout;
+
+        synchronized boolean start() {
+            if (timeout != null) {
+                return false;
+            }
+            started = true;
+            thread = Thread.currentThread();
+            return true;
+        }
+
+        /**
+         * The synchronous part of the job has returned.
+         *
+         * @return the stage to cancel, if the job has timed out meanwhile
+         */
+        synchronized Future<?> returned(CompletionStage<?> stage) {
+            if (interrupted) {
+                // clear the interrupted status before the thread is reused
+                Thread.interrupted();
+            }
+            thread = null;
+            if (stage instanceof Future) {
+                if (timeout != null) {
+                    return (Future<?>) stage;
+                }
+                this.stage = (Future<?>) stage;
+            }
+            return null;
+        }
+
+        synchronized void finish() {
+            stage = null;
+            finished = true;
+        }
+
+        synchronized boolean isStarted() {
+            return started;
+        }
+
+        synchronized TimeoutException getTimeout() {
+            return timeout;
+        }
+
+        /**
+         * Mark the job as timed out and interrupt it.
+         *
+         * @return the stage to cancel (can be {@code null}), or {@code null} if the job has already finished
+         */
+        synchronized Optional<Future<?>> timeout(TimeoutException e) {
+            if (finished || timeout != null) {
+                return null;
+            }
+            timeout = e;
+            if (thread != null) {
+                interrupted = true;
+                thread.interrupt();
+            }
+            return Optional.ofNullable(stage);
+        }
+    }
+
+    /**
+     * Execute a job.
+     *
+     * <ul>
+     * <li>If {@code executor} is {@code null}, the job is executed on the current thread. Otherwise, the job is
+     * submitted to the {@code executor}; if the executor rejects the job, the returned future completes
+     * exceptionally with {@link RejectedExecutionException}.</li>
+     * <li>If {@code maxRunTimeMs} is positive, the job is interrupted once it runs longer than {@code maxRunTimeMs}.
+     * Interruption is only advisory: the returned future completes (exceptionally with {@link TimeoutException})
+     * only when the job actually ends, so that the caller knows when the thread is free again. Use the
+     * {@code onTimeout} listener of {@link #runJobAsync(Executor, Scheduler, ExecutionContext, long, boolean, AsyncJob,
+     * Consumer)} to release resources (e.g. distributed locks) as soon as the job times out.
+     * A job that times out before it has started is not executed, and the future completes right away.</li>
+     * <li>If {@code blocking} is {@code true}, the job is wrapped in a {@link ForkJoinPool.ManagedBlocker}
+     * (see {@link #runBlocking(Job)}).</li>
+     * </ul>
+     *
+     * @param executor
+     * @param scheduler    scheduler to enforce {@code maxRunTimeMs}
+     * @param ec           execution context for the scheduler's callback
+     * @param maxRunTimeMs max run time in milliseconds, {@code 0} means no limit
+     * @param blocking
+     * @param job
+     * @return a future that completes when the job ends
+     */
+    public static CompletableFuture<Void> runJob(Executor executor, Scheduler scheduler, ExecutionContext ec,
+            long maxRunTimeMs, boolean blocking, Job job) {
+        return runJobAsync(executor, scheduler, ec, maxRunTimeMs, blocking, () -> {
+            job.run();
+            return null;
+        }).thenApply(r -> null);
+    }
+
+    /**
+     * Execute an asynchronous job.
+     *
+     * <p>Same as {@link #runJobAsync(Executor, Scheduler, ExecutionContext, long, boolean, AsyncJob, Consumer)},
+     * without timeout listener.</p>
+     *
+     * @param executor
+     * @param scheduler
+     * @param ec
+     * @param maxRunTimeMs
+     * @param blocking
+     * @param job
+     * @return
+     */
+    public static CompletableFuture<Object> runJobAsync(Executor executor, Scheduler scheduler, ExecutionContext ec,
+            long maxRunTimeMs, boolean blocking, AsyncJob job) {
+        return runJobAsync(executor, scheduler, ec, maxRunTimeMs, blocking, job, null);
+    }
+
+    /**
+     * Execute an asynchronous job.
+     *
+     * <p>Same as {@link #runJob(Executor, Scheduler, ExecutionContext, long, boolean, Job)}, except that the
+     * job is considered finished when the stage returned by the job completes. The returned future completes with
+     * the stage's result. If the job times out, the thread running the synchronous part of the job is interrupted,
+     * and the job's stage is cancelled if it is a {@link Future}; the returned future completes when the thread
+     * returns and the stage completes.</p>
+     *
+     * @param executor
+     * @param scheduler    scheduler to enforce {@code maxRunTimeMs}
+     * @param ec           execution context for the scheduler's callback
+     * @param maxRunTimeMs max run time in milliseconds, {@code 0} means no limit
+     * @param blocking
+     * @param job
+     * @param onTimeout    called as soon as the job exceeds {@code maxRunTimeMs}, before it actually ends (e.g. to
+     *                     release the job's distributed lock), can be
+     *                     {@code null}
+     * @return a future that completes when the job's stage completes, or the job fails, or the job is not executed
+     * @since 1.2.0
+     */
+    public static CompletableFuture<Object> runJobAsync(Executor executor, Scheduler scheduler, ExecutionContext ec,
+            long maxRunTimeMs, boolean blocking, AsyncJob job, Consumer<TimeoutException> onTimeout) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        JobRun jobRun = new JobRun();
+        if (maxRunTimeMs > 0 && scheduler != null) {
+            Cancellable watchdog = scheduler.scheduleOnce(Duration.create(maxRunTimeMs, TimeUnit.MILLISECONDS), () -> {
+                TimeoutException timeout = new TimeoutException("Job exceeded max run time of " + maxRunTimeMs + "ms.");
+                Optional<Future<?>> stage = jobRun.timeout(timeout);
+                if (stage == null) {
+                    // already finished
+                    return;
+                }
+                if (onTimeout != null) {
+                    onTimeout.accept(timeout);
+                }
+                if (!jobRun.isStarted()) {
+                    // timed out before it had a chance to start, it will not start
+                    result.completeExceptionally(timeout);
+                }
+                stage.ifPresent(f -> f.cancel(true));
+            }, ec);
+            result.whenComplete((r, e) -> watchdog.cancel());
+        }
+        Runnable task = () -> {
+            if (!jobRun.start()) {
+                return;
+            }
+            CompletionStage<?> stage = null;
+            Throwable error = null;
+            try {
+                if (blocking) {
+                    CompletionStage<?>[] _stage = new CompletionStage<?>[1];
+                    runBlocking(() -> _stage[0] = job.run());
+                    stage = _stage[0];
+                } else {
+                    stage = job.run();
+                }
+            } catch (Throwable e) {
+                error = e;
+            }
+            Future<?> toCancel = jobRun.returned(stage);
+            if (toCancel != null) {
+                toCancel.cancel(true);
+            }
+            if (error != null || stage == null) {
+                jobRun.finish();
+                complete(result, jobRun, null, error);
+            } else {
+                stage.whenComplete((r, e) -> {
+                    jobRun.finish();
+                    complete(result, jobRun, r, e);
+                });
+            }
+        };
+        if (executor == null) {
+            task.run();
+        } else {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }
+        return result;
+    }
+
+    private static void complete(CompletableFuture<Object> result, JobRun jobRun, Object value, Throwable error) {
+        TimeoutException timeout = jobRun.getTimeout();
+        if (timeout != null) {
+            result.completeExceptionally(timeout);
+        } else if (error != null) {
+            result.completeExceptionally(unwrap(error));
+        } else {
+            result.complete(value);
+        }
+    }
+
+    /**
+     * Listener to be notified when a failed job run is going to be retried.
+     */
+    @FunctionalInterface
+    public interface RetryListener {
+        /**
+         * @param attempt   number of the failed attempt, starting from {@code 1}
+         * @param error     error the attempt ended with
+         * @param backoffMs delay (in milliseconds) before the next attempt
+         */
+        void onRetry(int attempt, Throwable error, long backoffMs);
+    }
+
+    /**
+     * Run a job, retrying failed attempts according to a {@link RetryPolicy}.
+     *
+     * <p>Retries are scheduled on {@code scheduler}, no thread is blocked while waiting for the next attempt.
+     * If {@code scheduler} is {@code null}, failed attempts are not retried.</p>
+     *
+     * @param attempt     function to run one attempt, given the attempt number (starting from {@code 1})
+     * @param policy
+     * @param scheduler   scheduler to schedule retries
+     * @param ec          execution context for the scheduler's callback
+     * @param beforeRetry called right before each retry (e.g. to renew a lock), returns {@code false} to give up;
+     *                    can be {@code null}
+     * @param listener    can be {@code null}
+     * @return a future that completes when an attempt succeeds, or with the error of the last attempt
+     */
+    public static CompletableFuture<Object> runWithRetry(IntFunction<CompletableFuture<Object>> attempt,
+            RetryPolicy policy, Scheduler scheduler, ExecutionContext ec, BooleanSupplier beforeRetry,
+            RetryListener listener) {
+        CompletableFuture<Object> result = new CompletableFuture<>();
+        runAttempt(1, attempt, policy, scheduler, ec, beforeRetry, listener, result);
+        return result;
+    }
+
+    private static void runAttempt(int n, IntFunction<CompletableFuture<Object>> attempt, RetryPolicy policy,
+            Scheduler scheduler, ExecutionContext ec, BooleanSupplier beforeRetry, RetryListener listener,
+            CompletableFuture<Object> result) {
+        attempt.apply(n).whenComplete((r, e) -> {
+            if (e == null) {
+                result.complete(r);
+            } else if (scheduler == null || policy == null || !policy.shouldRetry(e, n)) {
+                result.completeExceptionally(unwrap(e));
+            } else {
+                long backoffMs = policy.nextBackoffMs(n);
+                if (listener != null) {
+                    listener.onRetry(n, unwrap(e), backoffMs);
+                }
+                scheduler.scheduleOnce(Duration.create(backoffMs, TimeUnit.MILLISECONDS), () -> {
+                    boolean proceed;
+                    try {
+                        proceed = beforeRetry == null || beforeRetry.getAsBoolean();
+                    } catch (RuntimeException ex) {
+                        proceed = false;
+                    }
+                    if (proceed) {
+                        runAttempt(n + 1, attempt, policy, scheduler, ec, beforeRetry, listener, result);
+                    } else {
+                        result.completeExceptionally(unwrap(e));
+                    }
+                }, ec);
+            }
+        });
+    }
+
+    /**
+     * A lock lease: the lock is periodically renewed while the job is running.
+     *
+     * <p>Renewing is done by re-acquiring the lock with the same lock-id, which extends the lock's expiry.
+     * Once {@link #end()} returns, the lock is guaranteed not to be renewed anymore, so that it is safe to
+     * release the lock.</p>
+     */
+    public static class Lease {
+        private final BooleanSupplier renewer;
+        private final Runnable onLost;
+        private Cancellable heartbeat;
+        private boolean ended = false;
+
+        /**
+         * @param renewer function to renew the lock, returns {@code false} if the lock could not be renewed
+         * @param onLost  called (once) when the lock could not be renewed, can be {@code null}
+         */
+        public Lease(BooleanSupplier renewer, Runnable onLost) {
+            this.renewer = renewer;
+            this.onLost = onLost;
+        }
+
+        /**
+         * Start the heartbeat that renews the lock every {@code renewIntervalMs}.
+         *
+         * @param scheduler
+         * @param ec
+         * @param renewIntervalMs
+         * @return
+         */
+        public synchronized Lease start(Scheduler scheduler, ExecutionContext ec, long renewIntervalMs) {
+            if (!ended && heartbeat == null && scheduler != null && renewIntervalMs > 0) {
+                FiniteDuration interval = Duration.create(renewIntervalMs, TimeUnit.MILLISECONDS);
+                heartbeat = scheduler.schedule(interval, interval, this::renew, ec);
+            }
+            return this;
+        }
+
+        private synchronized void renew() {
+            if (ended) {
+                return;
+            }
+            boolean renewed;
+            try {
+                renewed = renewer.getAsBoolean();
+            } catch (RuntimeException e) {
+                renewed = false;
+            }
+            if (!renewed) {
+                end();
+                if (onLost != null) {
+                    onLost.run();
+                }
+            }
+        }
+
+        /**
+         * Check if the lease has ended, either by {@link #end()} or because the lock could not be renewed.
+         *
+         * @return
+         */
+        public synchronized boolean isEnded() {
+            return ended;
+        }
+
+        /**
+         * Stop renewing the lock.
+         */
+        public synchronized void end() {
+            ended = true;
+            if (heartbeat != null) {
+                heartbeat.cancel();
+                heartbeat = null;
+            }
+        }
+    }
+
+    /**
+     * Release a lock, after a guard period.
+     *
+     * @param scheduler
+     * @param ec
+     * @param guardMs   delay (in milliseconds) before releasing the lock, {@code 0} means release immediately
+     * @param unlock    function to release the lock
+     * @return {@code false} if the lock was to be released after a guard period, but {@code scheduler} is
+     * {@code null} (the lock is released immediately in this case)
+     */
+    public static boolean releaseLock(Scheduler scheduler, ExecutionContext ec, long guardMs, Runnable unlock) {
+        if (guardMs <= 0) {
+            unlock.run();
+            return true;
+        }
+        if (scheduler == null) {
+            unlock.run();
+            return false;
+        }
+        scheduler.scheduleOnce(Duration.create(guardMs, TimeUnit.MILLISECONDS), unlock, ec);
+        return true;
+    }
+}
@@ -8,6 +8,7 @@ import java.lang.annotation.Target;
 import com.github.ddth.akka.scheduling.BaseWorker;
 import com.github.ddth.akka.scheduling.CronFormat;
 import com.github.ddth.akka.scheduling.WorkerCoordinationPolicy;
+import com.github.ddth.akka.scheduling.WorkerPlacementStrategy;
 
 /**
  * Annotation to define worker's scheduling in {@code CronFormat}.
@@ -56,4 +57,226 @@ public @interface Scheduling {
      * @return
      */
     boolean lockFairness() default true;
+
+    /**
+     * Number of threads of the dedicated thread pool to execute worker's job. {@code 0} means
+     * job is executed on the shared dispatcher.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    int executorPoolSize() default 0;
+
+    /**
+     * Number of jobs can be queued when all threads of the dedicated thread pool are busy
+     * (see {@link #executorPoolSize()}). {@code 0} means no queueing: the "tick" is treated as
+     * "busy".
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    int executorQueueSize() default 0;
+
+    /**
+     * Max run time (in milliseconds) of a job, {@code 0} means no limit. Job running longer than this
+     * duration is interrupted; its distributed lock (or semaphore permit) is released right away, local locks are held
+     * until it actually ends.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long maxRunTime() default 0;
+
+    /**
+     * Set to {@code true} if worker's job is blocking (e.g. doing I/O). Blocking jobs executed on the
+     * shared dispatcher are wrapped in a {@link java.util.concurrent.ForkJoinPool.ManagedBlocker}.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    boolean blocking() default false;
+
+    /**
+     * Lease mode for {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} workers: if {@code true}, the lock is
+     * periodically renewed (every 1/3 of {@link #lockTime()}) while the job is running, so that a job running
+     * longer than {@link #lockTime()} does not lose exclusivity.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    boolean lockLease() default false;
+
+    /**
+     * Delay (in milliseconds) before releasing the lock after the job finishes, used by
+     * {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} workers. The delay protects against worker
+     * instances on other nodes executing the very same "tick". {@code -1} means default value:
+     * {@code 1000} in classic mode and {@code 0} (release immediately) in lease mode
+     * (see {@link #lockLease()}).
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long lockReleaseGuard() default -1;
+
+    /**
+     * Number of partitions, used by {@link WorkerCoordinationPolicy#PARTITIONED} workers.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    int partitions() default 64;
+
+    /**
+     * Placement strategy of {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} workers, used in cluster mode.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    WorkerPlacementStrategy placementStrategy() default WorkerPlacementStrategy.LOCK_RACE;
+
+    /**
+     * Worker is also triggered by messages of these classes, published to the actor system's event stream
+     * (or, for cluster workers, to {@link #triggerTopics()}). Triggered runs bypass scheduling check
+     * (see {@link com.github.ddth.akka.scheduling.TriggeredTickMessage}).
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    Class<?>[] triggerEvents() default {};
+
+    /**
+     * Cluster worker is also triggered by messages published to these cluster topics: messages of
+     * {@link #triggerEvents()} classes or {@link com.github.ddth.akka.scheduling.messages.TriggerMessage}.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    String[] triggerTopics() default {};
+
+    /**
+     * Debounce (in milliseconds) for triggered runs: run once after no trigger event has been received for
+     * this period. {@code 0} means no debounce.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long triggerDebounce() default 0;
+
+    /**
+     * Throttle (in milliseconds) for triggered runs: at most one triggered run per this period. {@code 0}
+     * means no throttle.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long triggerThrottle() default 0;
+
+    /**
+     * Max wait (in milliseconds) for debounced runs: a triggered run is not postponed more than this period
+     * after the first pending trigger event. {@code 0} means no limit.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long triggerMaxWait() default 0;
+
+    /**
+     * Min interval (in milliseconds) of adaptive cadence: a job run returning
+     * {@link com.github.ddth.akka.scheduling.JobFeedback#MORE_WORK} is followed by another run after this
+     * interval. {@code 0} means adaptive cadence is disabled.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long adaptiveMinInterval() default 0;
+
+    /**
+     * Max interval (in milliseconds) of adaptive cadence: while job runs return
+     * {@link com.github.ddth.akka.scheduling.JobFeedback#IDLE}, scheduled runs are skipped for an
+     * exponentially growing interval, up to this value.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long adaptiveMaxInterval() default 0;
+
+    /**
+     * Spread window to shift fire times by a stable offset derived from worker's name (and node's address, for
+     * workers whose coordination policy is {@link WorkerCoordinationPolicy#TAKE_ALL_TASKS} or
+     * {@link WorkerCoordinationPolicy#LOCAL_SINGLETON}), e.g. {@code "0-30s"}
+     * (see {@link com.github.ddth.akka.scheduling.ScheduleSpread}). Empty string means no spread.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    String spread() default "";
+
+    /**
+     * Max number of fire times replayed in parallel (on each node) when backfilling (see
+     * {@link com.github.ddth.akka.scheduling.Backfill}). {@code 0} means number of available processors.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    int backfillParallelism() default 0;
+
+    /**
+     * Max number of attempts (including the first one) of a job run, {@code 1} means failed runs are not retried
+     * (see {@link com.github.ddth.akka.scheduling.RetryPolicy}).
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    int retryMaxAttempts() default 1;
+
+    /**
+     * Backoff (in milliseconds) before the first retry, doubled after each failed attempt.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long retryBackoff() default 1000;
+
+    /**
+     * Max backoff (in milliseconds) between two attempts.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    long retryMaxBackoff() default 60000;
+
+    /**
+     * Fraction of backoff to randomize (from {@code 0.0} to {@code 1.0}).
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    double retryJitter() default 0.5;
+
+    /**
+     * Retryable exceptions. Empty means any error, except job timeouts and rejections.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    Class<? extends Throwable>[] retryOn() default {};
+
+    /**
+     * (Cluster-workers with {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} policy only) If {@code true}, last "tick"
+     * is kept locally and refreshed via distributed-data change notifications; a majority read/write is done only when
+     * the node wins the lock.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    boolean lastTickCached() default false;
+
+    /**
+     * (Workers with {@link WorkerCoordinationPolicy#GLOBAL_BOUNDED} policy only) Max number of tasks executed
+     * simultaneously across all nodes.
+     * 
+     * @return
+     * @since 1.2.0
+     */
+    int maxConcurrentRuns() default 1;
 }
@@ -0,0 +1,38 @@
+package com.github.ddth.akka.scheduling.messages;
+
+import com.github.ddth.akka.BaseMessage;
+
+/**
+ * Send this message to a worker to replay its scheduling over a past period (see
+ * {@link com.github.ddth.akka.scheduling.BaseWorker#backfill(long, long, int)}).
+ *
+ * <p>In cluster mode, publish this message to the worker's backfill topic (see
+ * {@link com.github.ddth.akka.cluster.scheduling.BaseClusterWorker#backfillTopic(String)}) so that fire times
+ * are spread across all nodes.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class BackfillMessage extends BaseMessage {
+    private static final long serialVersionUID = "1.2.0".hashCode();
+
+    /**
+     * Range of fire times to replay: {@code [fromTimestamp, toTimestamp)}.
+     */
+    public final long fromTimestamp, toTimestamp;
+
+    /**
+     * Max number of fire times replayed in parallel on each node, {@code 0} means worker's default.
+     */
+    public final int parallelism;
+
+    public BackfillMessage(long fromTimestamp, long toTimestamp) {
+        this(fromTimestamp, toTimestamp, 0);
+    }
+
+    public BackfillMessage(long fromTimestamp, long toTimestamp, int parallelism) {
+        this.fromTimestamp = fromTimestamp;
+        this.toTimestamp = toTimestamp;
+        this.parallelism = parallelism;
+    }
+}
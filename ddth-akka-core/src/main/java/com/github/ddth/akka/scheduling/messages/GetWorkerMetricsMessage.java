@@ -0,0 +1,37 @@
+package com.github.ddth.akka.scheduling.messages;
+
+import akka.actor.ActorRef;
+import com.github.ddth.akka.BaseMessage;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Send this message to a worker, or publish it to the actor system's event stream to query all workers on the node,
+ * to ask for workers' execution metrics.
+ *
+ * <p>Workers send back {@link GetWorkerMetricsResponseMessage} to {@link #replyTo}, or to the sender if
+ * {@link #replyTo} is {@code null}.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class GetWorkerMetricsMessage extends BaseMessage {
+    private static final long serialVersionUID = "1.2.0".hashCode();
+
+    public final ActorRef replyTo;
+
+    public GetWorkerMetricsMessage() {
+        this(null);
+    }
+
+    public GetWorkerMetricsMessage(ActorRef replyTo) {
+        this.replyTo = replyTo;
+    }
+
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("replyTo", replyTo).appendSuper(super.toString());
+        return tsb.toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.github.ddth.akka.scheduling.messages;
+
+import com.github.ddth.akka.BaseMessage;
+import com.github.ddth.akka.scheduling.WorkerMetrics;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Workers send back this message in reply to {@link GetWorkerMetricsMessage} message.
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class GetWorkerMetricsResponseMessage extends BaseMessage {
+    private static final long serialVersionUID = "1.2.0".hashCode();
+
+    public final WorkerMetrics.Snapshot metrics;
+
+    public GetWorkerMetricsResponseMessage(String replyToId, WorkerMetrics.Snapshot metrics) {
+        setReplyToId(replyToId);
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("metrics", metrics).appendSuper(super.toString());
+        return tsb.toString();
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.ddth.akka.scheduling.messages;
+
+import com.github.ddth.akka.BaseMessage;
+
+import java.util.Map;
+
+/**
+ * Publish this message to workers' trigger topics (or to the actor system's event stream, if it is one of
+ * workers' trigger events) to trigger event-driven workers.
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class TriggerMessage extends BaseMessage {
+    private static final long serialVersionUID = "1.2.0".hashCode();
+
+    public TriggerMessage() {
+    }
+
+    public TriggerMessage(Map<String, Object> tags) {
+        super(tags);
+    }
+}
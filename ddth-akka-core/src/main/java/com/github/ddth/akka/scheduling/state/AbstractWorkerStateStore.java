@@ -0,0 +1,169 @@
+package com.github.ddth.akka.scheduling.state;
+
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abstract implementation of {@link WorkerStateStore} with write-behind.
+ *
+ * <p>{@link #put(WorkerState)} only updates in-memory maps; pending states are persisted in batches
+ * by a background thread every {@link #getFlushIntervalMs()} (and when the store is closed). Only the latest
+ * state of each worker is written. If a batch fails, its states are kept and retried on the next flush.</p>
+ *
+ * <p>Sub-class must call {@link #init()} before using the store.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public abstract class AbstractWorkerStateStore implements WorkerStateStore {
+    private final Logger LOGGER = LoggerFactory.getLogger(AbstractWorkerStateStore.class);
+
+    /**
+     * 1 second
+     */
+    public final static long DEFAULT_FLUSH_INTERVAL_MS = 1000;
+
+    private long flushIntervalMs = DEFAULT_FLUSH_INTERVAL_MS;
+    private final Map<String, WorkerState> cache = new ConcurrentHashMap<>();
+    private final Map<String, WorkerState> pending = new ConcurrentHashMap<>();
+    private final Object flushLock = new Object();
+    private ScheduledExecutorService flusher;
+
+    /**
+     * Interval (in milliseconds) to persist pending writes.
+     *
+     * @return
+     */
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    /**
+     * Interval (in milliseconds) to persist pending writes.
+     *
+     * @param flushIntervalMs
+     * @return
+     */
+    public AbstractWorkerStateStore setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+        return this;
+    }
+
+    /**
+     * Initialize the store and start the background flusher.
+     *
+     * @return
+     */
+    public AbstractWorkerStateStore init() {
+        if (flusher == null && flushIntervalMs > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(
+                    new BasicThreadFactory.Builder().namingPattern(getClass().getSimpleName() + "-%d").daemon(true)
+                            .build());
+            flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs,
+                    TimeUnit.MILLISECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * Stop the background flusher and persist pending writes.
+     */
+    public void destroy() {
+        try {
+            if (flusher != null) {
+                flusher.shutdown();
+                flusher.awaitTermination(flushIntervalMs, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flusher = null;
+        }
+        flushQuietly();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        destroy();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WorkerState get(String workerName) {
+        WorkerState state = pending.get(workerName);
+        if (state == null) {
+            state = cache.get(workerName);
+        }
+        if (state == null) {
+            state = read(workerName);
+            if (state != null) {
+                WorkerState existing = cache.putIfAbsent(workerName, state);
+                state = existing != null ? existing : state;
+            }
+        }
+        return state;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(WorkerState state) {
+        cache.put(state.getWorkerName(), state);
+        pending.put(state.getWorkerName(), state);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() {
+        synchronized (flushLock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<WorkerState> batch = new ArrayList<>(pending.values());
+            writeBatch(batch);
+            // states updated while the batch was being written stay pending
+            batch.forEach(state -> pending.remove(state.getWorkerName(), state));
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            LOGGER.error("Error while persisting workers' state: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Read a worker's state from the underlying storage.
+     *
+     * @param workerName
+     * @return {@code null} if not found
+     */
+    protected abstract WorkerState read(String workerName);
+
+    /**
+     * Persist a batch of states to the underlying storage. The batch contains at most one state per worker.
+     *
+     * @param batch
+     */
+    protected abstract void writeBatch(Collection<WorkerState> batch);
+}
@@ -0,0 +1,46 @@
+package com.github.ddth.akka.scheduling.state;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory implementation of {@link WorkerStateStore}: state is kept for the lifetime of the JVM only.
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class InmemWorkerStateStore implements WorkerStateStore {
+    private final Map<String, WorkerState> states = new ConcurrentHashMap<>();
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public WorkerState get(String workerName) {
+        return states.get(workerName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void put(WorkerState state) {
+        states.put(state.getWorkerName(), state);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void flush() {
+        // EMPTY
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        // EMPTY
+    }
+}
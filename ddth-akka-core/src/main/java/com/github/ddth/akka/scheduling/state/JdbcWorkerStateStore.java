@@ -0,0 +1,155 @@
+package com.github.ddth.akka.scheduling.state;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link WorkerStateStore}.
+ *
+ * <p>States are stored in a table (default name {@link #DEFAULT_TABLE_NAME}) with the following structure:</p>
+ * <pre>
+ * CREATE TABLE worker_state (
+ *     worker_name     VARCHAR(255)    NOT NULL PRIMARY KEY,
+ *     last_run        BIGINT          NOT NULL,
+ *     last_success    BIGINT          NOT NULL,
+ *     job_cursor      VARBINARY(4096)
+ * );
+ * </pre>
+ *
+ * <p>Each batch is written in one transaction: existing rows are updated, then missing rows are inserted,
+ * both using JDBC batch statements. Rows whose update count is not reported by the driver (e.g.
+ * {@link Statement#SUCCESS_NO_INFO}) are checked for existence one by one before being inserted.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class JdbcWorkerStateStore extends AbstractWorkerStateStore {
+    public final static String DEFAULT_TABLE_NAME = "worker_state";
+
+    private final DataSource dataSource;
+    private String tableName = DEFAULT_TABLE_NAME;
+    private String sqlSelect, sqlExists, sqlUpdate, sqlInsert;
+
+    public JdbcWorkerStateStore(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public JdbcWorkerStateStore setTableName(String tableName) {
+        this.tableName = tableName;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public JdbcWorkerStateStore init() {
+        sqlSelect = "SELECT last_run, last_success, job_cursor FROM " + tableName + " WHERE worker_name=?";
+        sqlExists = "SELECT 1 FROM " + tableName + " WHERE worker_name=?";
+        sqlUpdate = "UPDATE " + tableName + " SET last_run=?, last_success=?, job_cursor=? WHERE worker_name=?";
+        sqlInsert = "INSERT INTO " + tableName
+                + " (last_run, last_success, job_cursor, worker_name) VALUES (?, ?, ?, ?)";
+        super.init();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected WorkerState read(String workerName) {
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement pstm = conn.prepareStatement(sqlSelect)) {
+            pstm.setString(1, workerName);
+            try (ResultSet rs = pstm.executeQuery()) {
+                return rs.next() ?
+                        new WorkerState(workerName, rs.getLong(1), rs.getLong(2), rs.getBytes(3)) :
+                        null;
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void bind(PreparedStatement pstm, WorkerState state) throws SQLException {
+        pstm.setLong(1, state.getLastRunTimestamp());
+        pstm.setLong(2, state.getLastSuccessTimestamp());
+        pstm.setBytes(3, state.getCursor());
+        pstm.setString(4, state.getWorkerName());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void writeBatch(Collection<WorkerState> batch) {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                List<WorkerState> states = new ArrayList<>(batch);
+                List<WorkerState> missing = new ArrayList<>();
+                List<WorkerState> unknown = new ArrayList<>();
+                try (PreparedStatement pstm = conn.prepareStatement(sqlUpdate)) {
+                    for (WorkerState state : states) {
+                        bind(pstm, state);
+                        pstm.addBatch();
+                    }
+                    int[] counts = pstm.executeBatch();
+                    for (int i = 0; i < states.size(); i++) {
+                        if (i >= counts.length || counts[i] < 0) {
+                            // SUCCESS_NO_INFO or not reported: the row may or may not exist
+                            unknown.add(states.get(i));
+                        } else if (counts[i] == 0) {
+                            missing.add(states.get(i));
+                        }
+                    }
+                }
+                if (!unknown.isEmpty()) {
+                    try (PreparedStatement pstm = conn.prepareStatement(sqlExists)) {
+                        for (WorkerState state : unknown) {
+                            pstm.setString(1, state.getWorkerName());
+                            try (ResultSet rs = pstm.executeQuery()) {
+                                if (!rs.next()) {
+                                    missing.add(state);
+                                }
+                            }
+                        }
+                    }
+                }
+                if (!missing.isEmpty()) {
+                    try (PreparedStatement pstm = conn.prepareStatement(sqlInsert)) {
+                        for (WorkerState state : missing) {
+                            bind(pstm, state);
+                            pstm.addBatch();
+                        }
+                        pstm.executeBatch();
+                    }
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
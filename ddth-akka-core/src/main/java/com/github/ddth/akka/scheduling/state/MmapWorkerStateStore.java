@@ -0,0 +1,245 @@
+package com.github.ddth.akka.scheduling.state;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+/**
+ * {@link WorkerStateStore} implementation that appends states to a memory-mapped file, for single-node deployments.
+ *
+ * <p>Each record is {@code [length:int][body][crc32:int]}; the length is written last so that a torn write is
+ * never read back. On start, the file is scanned and the latest record of each worker wins. When the file is
+ * full, it is compacted (only the latest record of each worker is kept) into a new file, which replaces the old
+ * one atomically.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class MmapWorkerStateStore extends AbstractWorkerStateStore {
+    /**
+     * 1 MB
+     */
+    public final static int DEFAULT_INITIAL_CAPACITY = 1024 * 1024;
+
+    private final File file;
+    private int initialCapacity = DEFAULT_INITIAL_CAPACITY;
+    private final Map<String, WorkerState> index = new ConcurrentHashMap<>();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePos;
+
+    public MmapWorkerStateStore(File file) {
+        this.file = file;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Initial size (in bytes) of the file.
+     *
+     * @return
+     */
+    public int getInitialCapacity() {
+        return initialCapacity;
+    }
+
+    /**
+     * Initial size (in bytes) of the file.
+     *
+     * @param initialCapacity
+     * @return
+     */
+    public MmapWorkerStateStore setInitialCapacity(int initialCapacity) {
+        this.initialCapacity = initialCapacity;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public MmapWorkerStateStore init() {
+        synchronized (this) {
+            try {
+                open((int) Math.max(file.length(), initialCapacity));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            writePos = scan();
+        }
+        super.init();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        super.destroy();
+        synchronized (this) {
+            try {
+                if (buffer != null) {
+                    buffer.force();
+                }
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                buffer = null;
+                channel = null;
+            }
+        }
+    }
+
+    private void open(int capacity) throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    /**
+     * Scan the file to rebuild the index.
+     *
+     * @return position right after the last valid record
+     */
+    private int scan() {
+        int pos = 0;
+        while (pos + 4 <= buffer.capacity()) {
+            int length = buffer.getInt(pos);
+            if (length <= 0 || pos + 4 + length + 4 > buffer.capacity()) {
+                break;
+            }
+            byte[] body = new byte[length];
+            ByteBuffer dup = buffer.duplicate();
+            dup.position(pos + 4);
+            dup.get(body);
+            if (dup.getInt() != crc32(body)) {
+                break;
+            }
+            WorkerState state = decode(body);
+            index.put(state.getWorkerName(), state);
+            pos += 4 + length + 4;
+        }
+        return pos;
+    }
+
+    private static int crc32(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    static byte[] encode(WorkerState state) {
+        byte[] name = state.getWorkerName().getBytes(StandardCharsets.UTF_8);
+        byte[] cursor = state.getCursor();
+        ByteBuffer bb = ByteBuffer.allocate(2 + name.length + 8 + 8 + 4 + cursor.length);
+        bb.putShort((short) name.length).put(name);
+        bb.putLong(state.getLastRunTimestamp()).putLong(state.getLastSuccessTimestamp());
+        bb.putInt(cursor.length).put(cursor);
+        return bb.array();
+    }
+
+    static WorkerState decode(byte[] body) {
+        ByteBuffer bb = ByteBuffer.wrap(body);
+        byte[] name = new byte[bb.getShort() & 0xFFFF];
+        bb.get(name);
+        long lastRun = bb.getLong();
+        long lastSuccess = bb.getLong();
+        byte[] cursor = new byte[bb.getInt()];
+        bb.get(cursor);
+        return new WorkerState(new String(name, StandardCharsets.UTF_8), lastRun, lastSuccess, cursor);
+    }
+
+    private static int append(ByteBuffer buffer, int pos, byte[] body) {
+        ByteBuffer dup = buffer.duplicate();
+        dup.position(pos + 4);
+        dup.put(body).putInt(crc32(body));
+        // length is written last: the record becomes visible only when it is complete
+        buffer.putInt(pos, body.length);
+        return pos + 4 + body.length + 4;
+    }
+
+    /**
+     * Rewrite the latest record of each worker into a new file.
+     *
+     * @param extraBytes extra space needed right after compaction
+     * @throws IOException
+     */
+    private void compact(int extraBytes) throws IOException {
+        List<byte[]> records = new ArrayList<>();
+        long liveBytes = 0;
+        for (WorkerState state : index.values()) {
+            byte[] body = encode(state);
+            records.add(body);
+            liveBytes += 4 + body.length + 4;
+        }
+        long capacity = Math.max(initialCapacity, 2 * (liveBytes + extraBytes));
+        if (capacity > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Workers' state does not fit into file [" + file + "].");
+        }
+        File tmpFile = new File(file.getPath() + ".tmp");
+        try (FileChannel tmpChannel = FileChannel.open(tmpFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer tmpBuffer = tmpChannel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            int pos = 0;
+            for (byte[] body : records) {
+                pos = append(tmpBuffer, pos, body);
+            }
+            tmpBuffer.force();
+            writePos = pos;
+        }
+        channel.close();
+        Files.move(tmpFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        open((int) capacity);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected WorkerState read(String workerName) {
+        return index.get(workerName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected synchronized void writeBatch(Collection<WorkerState> batch) {
+        if (buffer == null) {
+            throw new IllegalStateException("Store is not initialized or has been closed.");
+        }
+        try {
+            for (WorkerState state : batch) {
+                byte[] body = encode(state);
+                if (writePos + 4 + body.length + 4 > buffer.capacity()) {
+                    compact(4 + body.length + 4);
+                }
+                writePos = append(buffer, writePos, body);
+                index.put(state.getWorkerName(), state);
+            }
+            buffer.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
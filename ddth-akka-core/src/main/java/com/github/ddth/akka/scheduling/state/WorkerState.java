@@ -0,0 +1,120 @@
+package com.github.ddth.akka.scheduling.state;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+import java.util.Arrays;
+
+/**
+ * Persistent state of a worker: last-run and last-success timestamps, plus a small opaque cursor.
+ *
+ * <p>Instances of this class are immutable.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class WorkerState {
+    private final static byte[] EMPTY_CURSOR = new byte[0];
+
+    private final String workerName;
+    private final long lastRunTimestamp, lastSuccessTimestamp;
+    private final byte[] cursor;
+
+    public WorkerState(String workerName) {
+        this(workerName, 0, 0, null);
+    }
+
+    public WorkerState(String workerName, long lastRunTimestamp, long lastSuccessTimestamp, byte[] cursor) {
+        this.workerName = workerName;
+        this.lastRunTimestamp = lastRunTimestamp;
+        this.lastSuccessTimestamp = lastSuccessTimestamp;
+        this.cursor = cursor != null ? cursor.clone() : EMPTY_CURSOR;
+    }
+
+    public String getWorkerName() {
+        return workerName;
+    }
+
+    /**
+     * Timestamp of the last "tick" the worker took.
+     *
+     * @return {@code 0} if the worker has never run
+     */
+    public long getLastRunTimestamp() {
+        return lastRunTimestamp;
+    }
+
+    /**
+     * Timestamp when the last successful job run finished.
+     *
+     * @return {@code 0} if the worker has never run successfully
+     */
+    public long getLastSuccessTimestamp() {
+        return lastSuccessTimestamp;
+    }
+
+    /**
+     * Opaque cursor saved by the last successful job run.
+     *
+     * @return a copy of the cursor, empty (never {@code null}) if no cursor has been saved
+     */
+    public byte[] getCursor() {
+        return cursor.length > 0 ? cursor.clone() : EMPTY_CURSOR;
+    }
+
+    /**
+     * Create a new state with updated last-run timestamp.
+     *
+     * @param timestamp
+     * @return
+     */
+    public WorkerState withRun(long timestamp) {
+        return new WorkerState(workerName, timestamp, lastSuccessTimestamp, cursor);
+    }
+
+    /**
+     * Create a new state with updated last-success timestamp and cursor.
+     *
+     * @param timestamp
+     * @param cursor
+     * @return
+     */
+    public WorkerState withSuccess(long timestamp, byte[] cursor) {
+        return new WorkerState(workerName, lastRunTimestamp, timestamp, cursor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof WorkerState)) {
+            return false;
+        }
+        WorkerState other = (WorkerState) obj;
+        return workerName.equals(other.workerName) && lastRunTimestamp == other.lastRunTimestamp
+                && lastSuccessTimestamp == other.lastSuccessTimestamp && Arrays.equals(cursor, other.cursor);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return workerName.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        ToStringBuilder tsb = new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE);
+        tsb.append("workerName", workerName).append("lastRun", lastRunTimestamp)
+                .append("lastSuccess", lastSuccessTimestamp).append("cursorLength", cursor.length);
+        return tsb.toString();
+    }
+}
@@ -0,0 +1,38 @@
+package com.github.ddth.akka.scheduling.state;
+
+/**
+ * Store to persist workers' state (see {@link WorkerState}) across restarts.
+ *
+ * <p>{@link #put(WorkerState)} is called on the job's hot path and must not block on I/O: implementations are
+ * expected to buffer writes and persist them in batches (see {@link AbstractWorkerStateStore}).</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public interface WorkerStateStore extends AutoCloseable {
+    /**
+     * Get the state of a worker.
+     *
+     * @param workerName
+     * @return {@code null} if no state has been stored for the worker
+     */
+    WorkerState get(String workerName);
+
+    /**
+     * Store the state of a worker. The state is persisted asynchronously.
+     *
+     * @param state
+     */
+    void put(WorkerState state);
+
+    /**
+     * Persist all pending writes.
+     */
+    void flush();
+
+    /**
+     * Flush pending writes and release resources.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,72 @@
+package com.github.ddth.akka.utils;
+
+/**
+ * Rendezvous (highest-random-weight) hashing utility.
+ *
+ * <p>Each (node, key) pair is given a pseudo-random score; a key is owned by the node with the highest score.
+ * When a node joins or leaves, only keys owned by that node move.</p>
+ *
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 1.2.0
+ */
+public class RendezvousHashing {
+    /**
+     * Finalizer of the SplitMix64 generator, a fast 64-bit mixing function.
+     *
+     * @param z
+     * @return
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Calculate 64-bit hash value of a string (FNV-1a over its chars, then mixed).
+     *
+     * @param str
+     * @return
+     */
+    public static long hash(String str) {
+        long h = 0xCBF29CE484222325L;
+        if (str != null) {
+            for (int i = 0, n = str.length(); i < n; i++) {
+                h ^= str.charAt(i);
+                h *= 0x100000001B3L;
+            }
+        }
+        return mix(h);
+    }
+
+    /**
+     * Score of a (node, key) pair.
+     *
+     * @param nodeHash hash value of the node (see {@link #hash(String)})
+     * @param key
+     * @return
+     */
+    public static long score(long nodeHash, long key) {
+        return mix(nodeHash ^ mix(key + 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Find the node that owns a key.
+     *
+     * @param nodeHashes hash values of nodes (see {@link #hash(String)})
+     * @param key
+     * @return index of the owner node in {@code nodeHashes}, {@code -1} if {@code nodeHashes} is empty
+     */
+    public static int owner(long[] nodeHashes, long key) {
+        int owner = -1;
+        long max = 0;
+        for (int i = 0; i < nodeHashes.length; i++) {
+            long score = score(nodeHashes[i], key);
+            if (owner < 0 || Long.compareUnsigned(score, max) > 0) {
+                owner = i;
+                max = score;
+            }
+        }
+        return owner;
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.scheduling.BaseClusterWorker;
+import com.github.ddth.akka.scheduling.TickMessage;
+import com.github.ddth.akka.scheduling.WorkerCoordinationPolicy;
+import com.github.ddth.akka.scheduling.annotation.Scheduling;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Lease mode of {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} cluster workers: the distributed-data lock is
+ * renewed while the job is running, checked by trying to take the lock with another lock-id.
+ */
+public class ClusterLockLeaseTest extends TestCase {
+
+    public ClusterLockLeaseTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(ClusterLockLeaseTest.class);
+    }
+
+    private final static String OTHER_OWNER = "other-owner";
+
+    private final static AtomicInteger lockAttempts = new AtomicInteger();
+    private static volatile CountDownLatch jobDone;
+
+    /**
+     * Commands to the test worker, answered with the result.
+     */
+    private static class Run {
+    }
+
+    private static class TryLock {
+        final String lockId;
+
+        TryLock(String lockId) {
+            this.lockId = lockId;
+        }
+    }
+
+    @Scheduling(value = "0 0 0 1 1 *", workerCoordinationPolicy = WorkerCoordinationPolicy.GLOBAL_SINGLETON, lockLease = true, executorPoolSize = 1)
+    public static class LeaseWorker extends BaseClusterWorker {
+        private final long runTimeMs;
+        private final boolean renewFails;
+
+        public LeaseWorker(long runTimeMs, long lockTimeMs, long guardMs, boolean renewFails) {
+            this.runTimeMs = runTimeMs;
+            this.renewFails = renewFails;
+            // handle commands on the actor's thread, so that they can be answered to sender()
+            setHandleMessageAsync(false);
+            setLockDuration(lockTimeMs);
+            setLockReleaseGuardMs(guardMs);
+        }
+
+        @Override
+        protected void initActor() throws Exception {
+            super.initActor();
+            addMessageHandler(Run.class, msg -> {
+                doJobGlobalSingleton(new TickMessage());
+                sender().tell(Boolean.TRUE, self());
+            });
+            addMessageHandler(TryLock.class,
+                    msg -> sender().tell(ddLock(getLockKey(), msg.lockId, 1, TimeUnit.MINUTES), self()));
+        }
+
+        @Override
+        protected boolean ddLock(String key, String lockId, long lockTimeout, TimeUnit lockTimeoutUnit) {
+            if (lockId.startsWith(OTHER_OWNER)) {
+                return super.ddLock(key, lockId, lockTimeout, lockTimeoutUnit);
+            }
+            boolean renewal = lockAttempts.incrementAndGet() > 1;
+            return renewal && renewFails ? false : super.ddLock(key, lockId, lockTimeout, lockTimeoutUnit);
+        }
+
+        @Override
+        protected void doJob(String distributedLockId, TickMessage tick) {
+            // ignore interruption
+            long end = System.currentTimeMillis() + runTimeMs;
+            while (System.currentTimeMillis() < end) {
+            }
+            jobDone.countDown();
+        }
+    }
+
+    private ActorSystem actorSystem;
+
+    @Override
+    protected void setUp() throws Exception {
+        actorSystem = ClusterTestUtils.startSingleNodeCluster("ddth-akka-lock-lease-test");
+        lockAttempts.set(0);
+        jobDone = new CountDownLatch(1);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClusterTestUtils.stop(actorSystem);
+    }
+
+    private static Object ask(ActorRef worker, Object msg) throws Exception {
+        return Patterns.ask(worker, msg, java.time.Duration.ofSeconds(10)).toCompletableFuture().get();
+    }
+
+    private ActorRef run(long runTimeMs, long lockTimeMs, long guardMs, boolean renewFails) throws Exception {
+        ActorRef worker = actorSystem.actorOf(
+                Props.create(LeaseWorker.class, runTimeMs, lockTimeMs, guardMs, renewFails), "lease-worker");
+        assertEquals(Boolean.TRUE, ask(worker, new Run()));
+        return worker;
+    }
+
+    public void testLeaseRenewedWhileRunning() throws Exception {
+        ActorRef worker = run(1500, 600, 0, false);
+        // the run outlasts the lock's duration: the lock is still held thanks to renewals
+        Thread.sleep(1000);
+        assertEquals(1, jobDone.getCount());
+        assertEquals(Boolean.FALSE, ask(worker, new TryLock(OTHER_OWNER + "-1")));
+        assertTrue("Renewed " + (lockAttempts.get() - 1) + " times", lockAttempts.get() > 3);
+        // released after the run
+        assertTrue(jobDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertEquals(Boolean.TRUE, ask(worker, new TryLock(OTHER_OWNER + "-2")));
+    }
+
+    public void testLeaseReleasedWithinGuardAfterRun() throws Exception {
+        ActorRef worker = run(300, 3000, 800, false);
+        assertTrue(jobDone.await(5, TimeUnit.SECONDS));
+        // held during the guard
+        Thread.sleep(200);
+        assertEquals(Boolean.FALSE, ask(worker, new TryLock(OTHER_OWNER + "-1")));
+        int attemptsAfterRun = lockAttempts.get();
+        // released once the guard has passed, long before the lock expires
+        Thread.sleep(1000);
+        assertEquals(Boolean.TRUE, ask(worker, new TryLock(OTHER_OWNER + "-2")));
+        assertEquals(attemptsAfterRun, lockAttempts.get());
+    }
+
+    public void testLeaseStopsWhenRenewalFails() throws Exception {
+        ActorRef worker = run(2500, 600, 0, true);
+        // not renewed: the lock expires while the job is still running
+        Thread.sleep(1200);
+        assertEquals(1, jobDone.getCount());
+        assertEquals(Boolean.TRUE, ask(worker, new TryLock(OTHER_OWNER)));
+        // acquisition, then one failed renewal
+        assertEquals(2, lockAttempts.get());
+        assertTrue(jobDone.await(5, TimeUnit.SECONDS));
+        assertEquals(2, lockAttempts.get());
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorSystem;
+import akka.actor.Address;
+import akka.cluster.Cluster;
+import akka.cluster.Member;
+import akka.cluster.Member$;
+import akka.cluster.MemberStatus;
+import akka.cluster.UniqueAddress;
+import com.github.ddth.akka.utils.AkkaUtils;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import scala.concurrent.duration.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Helpers to start an in-JVM cluster, or to build cluster members, for tests.
+ */
+public class ClusterTestUtils {
+    /**
+     * Start a single-node cluster (on a random port) and wait until the node is up.
+     *
+     * @param systemName
+     * @return
+     * @throws Exception
+     */
+    public static ActorSystem startSingleNodeCluster(String systemName) throws Exception {
+        return startCluster(systemName, 1).get(0);
+    }
+
+    /**
+     * Start a cluster of {@code numNodes} nodes (on random ports) and wait until every node sees all nodes up.
+     *
+     * @param systemName
+     * @param numNodes
+     * @return
+     * @throws Exception
+     */
+    public static List<ActorSystem> startCluster(String systemName, int numNodes) throws Exception {
+        Config config = ConfigFactory.parseString(
+                "akka.actor.provider = cluster\n" + "akka.remote.netty.tcp.hostname = \"127.0.0.1\"\n"
+                        + "akka.remote.netty.tcp.port = 0\n"
+                        + "akka.actor.warn-about-java-serializer-usage = off\n").withFallback(ConfigFactory.load());
+        List<ActorSystem> nodes = new ArrayList<>();
+        for (int i = 0; i < numNodes; i++) {
+            ActorSystem node = AkkaUtils.createActorSystem(systemName, config);
+            nodes.add(node);
+            Cluster.get(node).join(Cluster.get(nodes.get(0)).selfAddress());
+        }
+        long deadline = System.currentTimeMillis() + 30000;
+        while (System.currentTimeMillis() < deadline) {
+            boolean formed = true;
+            for (ActorSystem node : nodes) {
+                int numUp = 0;
+                for (Member m : Cluster.get(node).state().getMembers()) {
+                    if (m.status() == MemberStatus.up()) {
+                        numUp++;
+                    }
+                }
+                formed &= numUp == numNodes;
+            }
+            if (formed) {
+                return nodes;
+            }
+            Thread.sleep(100);
+        }
+        stop(nodes);
+        throw new IllegalStateException("Cluster did not form in time.");
+    }
+
+    public static void stop(ActorSystem actorSystem) throws Exception {
+        stop(Collections.singletonList(actorSystem));
+    }
+
+    public static void stop(List<ActorSystem> nodes) throws Exception {
+        for (ActorSystem node : nodes) {
+            node.terminate();
+        }
+        for (ActorSystem node : nodes) {
+            scala.concurrent.Await.ready(node.whenTerminated(), Duration.create(30, TimeUnit.SECONDS));
+        }
+    }
+
+    /**
+     * Build a member that is up.
+     *
+     * @param port     port of the member's address (host is {@code 127.0.0.1})
+     * @param upNumber members with lower up-number are older
+     * @param roles
+     * @return
+     */
+    public static Member member(int port, int upNumber, String... roles) {
+        Set<String> allRoles = new HashSet<>(Arrays.asList(roles));
+        allRoles.add("dc-default");
+        UniqueAddress address = new UniqueAddress(new Address("akka.tcp", "test", "127.0.0.1", port), (long) port);
+        return Member$.MODULE$.apply(address, scala.collection.JavaConverters.asScalaSet(allRoles).toSet())
+                .copyUp(upNumber);
+    }
+}
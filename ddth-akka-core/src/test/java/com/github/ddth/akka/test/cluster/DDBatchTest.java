@@ -0,0 +1,206 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.ddata.DistributedData;
+import akka.cluster.ddata.LWWMap;
+import akka.cluster.ddata.LWWMapKey;
+import akka.cluster.ddata.Replicator;
+import com.github.ddth.akka.cluster.BaseClusterActor;
+import com.github.ddth.akka.cluster.DDRequestCorrelator;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Batch operations of {@link BaseClusterActor}: {@code ddSetAll}, {@code ddGetAllAsync} and {@code ddDeleteAll}.
+ */
+public class DDBatchTest extends TestCase {
+
+    public DDBatchTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(DDBatchTest.class);
+    }
+
+    private final static int NUM_SHARDS = 4;
+    private final static int NUM_RECORDS = 20;
+
+    private ActorSystem actorSystem;
+
+    @Override
+    protected void setUp() throws Exception {
+        actorSystem = ClusterTestUtils.startSingleNodeCluster("ddth-akka-batch-test");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClusterTestUtils.stop(actorSystem);
+    }
+
+    private static Map<String, Object> records() {
+        Map<String, Object> records = new LinkedHashMap<>();
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            records.put("key-" + i, "value-" + i);
+        }
+        return records;
+    }
+
+    /**
+     * Ids of the distributed-data keys storing {@code keys}.
+     */
+    private static Set<String> dataKeysOf(String name, int numShards, Collection<String> keys) {
+        Set<String> result = new HashSet<>();
+        keys.forEach(k -> result.add(numShards > 0 ? name + "-" + BaseClusterActor.ddShardOf(k, numShards) : name));
+        return result;
+    }
+
+    /**
+     * Keep the replicator busy for {@code ms} milliseconds.
+     */
+    private void stallReplicator(long ms) {
+        DistributedData.get(actorSystem).replicator()
+                .tell(new Replicator.Update<>(new LWWMapKey<String, Object>("batch-test-stall"), LWWMap.create(),
+                        Replicator.writeLocal(), curr -> {
+                    try {
+                        Thread.sleep(ms);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return curr;
+                }), ActorRef.noSender());
+    }
+
+    private Map<String, DDGetResult> getAll(ActorRef actor, Collection<String> keys, long timeoutMs)
+            throws Exception {
+        CompletableFuture<Map<String, DDGetResult>> result = DDTestActor.call(actor,
+                a -> a.ddGetAllAsync(keys, Replicator.readLocal(), timeoutMs, TimeUnit.MILLISECONDS))
+                .toCompletableFuture();
+        return result.get(10, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Writes are fire-and-forget: poll until all {@code keys} read {@code value-<i>}, or are empty if
+     * {@code deleted}.
+     */
+    private void awaitRecords(ActorRef actor, Collection<String> keys, boolean deleted) throws Exception {
+        for (long deadline = System.currentTimeMillis() + 5000; ; Thread.sleep(50)) {
+            Map<String, DDGetResult> results = getAll(actor, keys, 5000);
+            boolean done = results.keySet().containsAll(keys);
+            for (String key : keys) {
+                DDGetResult r = results.get(key);
+                done &= r != null && (deleted ? r.isNullOrEmpty() :
+                        !r.isNullOrEmpty() && key.replace("key-", "value-").equals(r.singleValue()));
+            }
+            if (done) {
+                return;
+            }
+            assertTrue("Records not " + (deleted ? "deleted" : "written") + " in time: " + results,
+                    System.currentTimeMillis() < deadline);
+        }
+    }
+
+    /**
+     * Updates reach the replicator (probe) asynchronously: wait for {@code expected} of them, and a bit more in case
+     * there are extra ones.
+     */
+    private List<String> awaitUpdatedKeys(ActorRef actor, int expected) throws Exception {
+        List<String> updatedKeys = new ArrayList<>();
+        for (long deadline = System.currentTimeMillis() + 5000; System.currentTimeMillis() < deadline
+                && updatedKeys.size() < expected; Thread.sleep(50)) {
+            updatedKeys = DDTestActor.call(actor, a -> new ArrayList<>(a.getUpdatedKeys()));
+        }
+        Thread.sleep(200);
+        return DDTestActor.call(actor, a -> new ArrayList<>(a.getUpdatedKeys()));
+    }
+
+    private void verifyOneRequestPerGroup(String name, int numShards) throws Exception {
+        ActorRef actor = actorSystem.actorOf(Props.create(DDTestActor.class, numShards, 0), name);
+        Map<String, Object> records = records();
+        Set<String> dataKeys = dataKeysOf(name, numShards, records.keySet());
+        assertTrue(numShards <= 0 || dataKeys.size() > 1);
+
+        // ddSetAll: one Update per group
+        DDTestActor.call(actor, a -> {
+            a.ddSetAll(records);
+            return null;
+        });
+        List<String> updatedKeys = awaitUpdatedKeys(actor, dataKeys.size());
+        assertEquals(dataKeys.size(), updatedKeys.size());
+        assertEquals(dataKeys, new HashSet<>(updatedKeys));
+        awaitRecords(actor, records.keySet(), false);
+
+        // ddGetAllAsync: one Get per group
+        DDRequestCorrelator correlator = DDRequestCorrelator.get(actorSystem);
+        stallReplicator(500);
+        CompletableFuture<Map<String, DDGetResult>> pending = DDTestActor.call(actor,
+                a -> a.ddGetAllAsync(records.keySet(), Replicator.readLocal(), 5000, TimeUnit.MILLISECONDS))
+                .toCompletableFuture();
+        assertEquals(dataKeys.size(), correlator.getPendingCount());
+        assertEquals(records.keySet(), pending.get(10, TimeUnit.SECONDS).keySet());
+        assertEquals(0, correlator.getPendingCount());
+
+        // ddDeleteAll: one Update per group
+        List<String> deleted = new ArrayList<>(records.keySet()).subList(0, NUM_RECORDS / 2);
+        DDTestActor.call(actor, a -> {
+            a.getUpdatedKeys().clear();
+            a.ddDeleteAll(deleted);
+            return null;
+        });
+        updatedKeys = awaitUpdatedKeys(actor, dataKeysOf(name, numShards, deleted).size());
+        assertEquals(dataKeysOf(name, numShards, deleted).size(), updatedKeys.size());
+        assertEquals(dataKeysOf(name, numShards, deleted), new HashSet<>(updatedKeys));
+        awaitRecords(actor, deleted, true);
+        awaitRecords(actor, new ArrayList<>(records.keySet()).subList(NUM_RECORDS / 2, NUM_RECORDS), false);
+    }
+
+    public void testOneRequestPerShard() throws Exception {
+        verifyOneRequestPerGroup("dd-batch-sharded", NUM_SHARDS);
+    }
+
+    public void testOneRequestSingleLayout() throws Exception {
+        verifyOneRequestPerGroup("dd-batch-single", 0);
+    }
+
+    public void testTimedOutKeysAreAbsent() throws Exception {
+        ActorRef actor = actorSystem.actorOf(Props.create(DDTestActor.class, NUM_SHARDS, 0), "dd-batch-timeout");
+        Map<String, Object> records = records();
+        DDTestActor.call(actor, a -> {
+            a.ddSetAll(records);
+            return null;
+        });
+        awaitRecords(actor, records.keySet(), false);
+
+        List<String> keys = new ArrayList<>(records.keySet());
+        keys.add("no-such-key");
+        stallReplicator(1000);
+        long start = System.currentTimeMillis();
+        Map<String, DDGetResult> results = getAll(actor, keys, 300);
+        // completes normally at timeout, without the keys whose response did not arrive
+        assertTrue(System.currentTimeMillis() - start < 900);
+        assertTrue(String.valueOf(results), results.isEmpty());
+        assertEquals(0, DDRequestCorrelator.get(actorSystem).getPendingCount());
+
+        // once answered, all keys are present, including the one that is not found
+        Thread.sleep(1000);
+        results = getAll(actor, keys, 5000);
+        assertEquals(new HashSet<>(keys), results.keySet());
+        assertTrue(results.get("no-such-key").isNullOrEmpty());
+        assertEquals("value-0", results.get("key-0").singleValue());
+    }
+}
@@ -0,0 +1,146 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorSystem;
+import akka.cluster.ddata.Key;
+import akka.cluster.ddata.ORMultiMap;
+import akka.cluster.ddata.ORMultiMapKey;
+import akka.cluster.ddata.Replicator;
+import com.github.ddth.akka.cluster.DDLockManager;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDLock;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class DDLockManagerTest extends TestCase {
+
+    public DDLockManagerTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(DDLockManagerTest.class);
+    }
+
+    private static DDLock lock(String lockId, long timeoutMs) throws InterruptedException {
+        DDLock lock = new DDLock(lockId, timeoutMs, TimeUnit.MILLISECONDS);
+        // make sure timestamps are distinct
+        Thread.sleep(2);
+        return lock;
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    public void testWinnerEarliest() throws Exception {
+        DDLock first = lock("b", 10000);
+        DDLock second = lock("a", 10000);
+        DDLock third = lock("c", 10000);
+        assertSame(first, DDLockManager.winner(Arrays.asList(third, second, first)));
+        assertNull(DDLockManager.winner(null));
+        assertNull(DDLockManager.winner(new ArrayList<>()));
+    }
+
+    public void testWinnerSkipsExpired() throws Exception {
+        DDLock expired = lock("a", -1);
+        DDLock live = lock("b", 10000);
+        assertSame(live, DDLockManager.winner(Arrays.asList(expired, live)));
+        assertNull(DDLockManager.winner(Arrays.asList(expired)));
+    }
+
+    public void testIsWithinPermits() throws Exception {
+        DDLock p1 = lock("p1", 10000);
+        DDLock p2 = lock("p2", 10000);
+        DDLock p3 = lock("p3", 10000);
+        Collection<Object> locks = Arrays.asList(p3, p1, p2);
+        assertTrue(DDLockManager.isWithinPermits(locks, p1, 2));
+        assertTrue(DDLockManager.isWithinPermits(locks, p2, 2));
+        assertFalse(DDLockManager.isWithinPermits(locks, p3, 2));
+        assertTrue(DDLockManager.isWithinPermits(locks, p3, 3));
+        // not found
+        assertFalse(DDLockManager.isWithinPermits(Arrays.asList(p1, p2), p3, 3));
+        assertFalse(DDLockManager.isWithinPermits(null, p1, 3));
+    }
+
+    public void testIsWithinPermitsSkipsExpired() throws Exception {
+        DDLock expired = lock("p0", -1);
+        DDLock p1 = lock("p1", 10000);
+        DDLock p2 = lock("p2", 10000);
+        Collection<Object> locks = Arrays.asList(expired, p1, p2);
+        assertTrue(DDLockManager.isWithinPermits(locks, p2, 2));
+        assertFalse(DDLockManager.isWithinPermits(locks, expired, 2));
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    private final static Replicator.WriteConsistency WRITE = Replicator.writeLocal();
+    private final static Replicator.ReadConsistency READ = Replicator.readLocal();
+
+    private ActorSystem actorSystem;
+    private DDLockManager lockManager;
+    private final Key<ORMultiMap<String, Object>> dataKey = new ORMultiMapKey<>("ddlock-test");
+
+    @Override
+    protected void setUp() throws Exception {
+        if (getName().startsWith("testCluster")) {
+            actorSystem = ClusterTestUtils.startSingleNodeCluster("ddth-akka-ddlock-test");
+            lockManager = DDLockManager.get(actorSystem);
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        if (actorSystem != null) {
+            ClusterTestUtils.stop(actorSystem);
+        }
+    }
+
+    private static boolean get(CompletionStage<Boolean> stage) throws Exception {
+        return stage.toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    public void testClusterLockUnlock() throws Exception {
+        assertTrue(get(lockManager.lock(dataKey, "key", "id1", 10, TimeUnit.SECONDS, WRITE, READ)));
+        assertFalse(get(lockManager.lock(dataKey, "key", "id2", 10, TimeUnit.SECONDS, WRITE, READ)));
+        // renew
+        assertTrue(get(lockManager.lock(dataKey, "key", "id1", 10, TimeUnit.SECONDS, WRITE, READ)));
+        assertTrue(get(lockManager.unlock(dataKey, "key", "id1", WRITE)));
+        assertTrue(get(lockManager.lock(dataKey, "key", "id2", 10, TimeUnit.SECONDS, WRITE, READ)));
+    }
+
+    public void testClusterLockExpiry() throws Exception {
+        assertTrue(get(lockManager.lock(dataKey, "key", "id1", 200, TimeUnit.MILLISECONDS, WRITE, READ)));
+        assertFalse(get(lockManager.lock(dataKey, "key", "id2", 10, TimeUnit.SECONDS, WRITE, READ)));
+        Thread.sleep(300);
+        assertTrue(get(lockManager.lock(dataKey, "key", "id2", 10, TimeUnit.SECONDS, WRITE, READ)));
+    }
+
+    public void testClusterLockCoalesced() throws Exception {
+        // attempts on the same key issued back-to-back are coalesced into the first one
+        CompletionStage<Boolean> leader = lockManager.lock(dataKey, "key", "id1", 10, TimeUnit.SECONDS, WRITE, READ);
+        CompletionStage<Boolean> sameId = lockManager.lock(dataKey, "key", "id1", 10, TimeUnit.SECONDS, WRITE, READ);
+        CompletionStage<Boolean> otherId = lockManager.lock(dataKey, "key", "id2", 10, TimeUnit.SECONDS, WRITE, READ);
+        assertTrue(get(leader));
+        assertTrue(get(sameId));
+        assertFalse(get(otherId));
+    }
+
+    public void testClusterPermits() throws Exception {
+        List<Boolean> results = new ArrayList<>();
+        for (String permitId : Arrays.asList("p1", "p2", "p3")) {
+            results.add(get(lockManager.acquire(dataKey, "sem", permitId, 2, 10, TimeUnit.SECONDS, WRITE, READ)));
+            Thread.sleep(2);
+        }
+        assertEquals(Arrays.asList(true, true, false), results);
+        // renew
+        assertTrue(get(lockManager.acquire(dataKey, "sem", "p1", 2, 10, TimeUnit.SECONDS, WRITE, READ)));
+        assertTrue(get(lockManager.release(dataKey, "sem", "p2", WRITE)));
+        assertTrue(get(lockManager.acquire(dataKey, "sem", "p3", 2, 10, TimeUnit.SECONDS, WRITE, READ)));
+    }
+}
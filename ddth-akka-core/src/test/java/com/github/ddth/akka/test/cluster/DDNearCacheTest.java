@@ -0,0 +1,193 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.ddata.DistributedData;
+import akka.cluster.ddata.LWWMap;
+import akka.cluster.ddata.LWWMapKey;
+import akka.cluster.ddata.Replicator;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.BaseClusterActor;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Near-cache of {@link BaseClusterActor} ({@code getDDNearCacheSize() > 0}).
+ *
+ * <p>A read is known to be served from the near-cache if it returns while the replicator is busy.</p>
+ */
+public class DDNearCacheTest extends TestCase {
+
+    public DDNearCacheTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(DDNearCacheTest.class);
+    }
+
+    private final static int NUM_SHARDS = 4;
+
+    private ActorSystem actorSystem;
+
+    @Override
+    protected void setUp() throws Exception {
+        actorSystem = ClusterTestUtils.startSingleNodeCluster("ddth-akka-near-cache-test");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClusterTestUtils.stop(actorSystem);
+    }
+
+    /**
+     * Keep the replicator busy for {@code ms} milliseconds.
+     */
+    private void stallReplicator(long ms) {
+        DistributedData.get(actorSystem).replicator()
+                .tell(new Replicator.Update<>(new LWWMapKey<String, Object>("near-cache-test-stall"), LWWMap.create(),
+                        Replicator.writeLocal(), curr -> {
+                    try {
+                        Thread.sleep(ms);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return curr;
+                }), ActorRef.noSender());
+    }
+
+    /**
+     * Write a record directly to the replicator, as another node would do.
+     */
+    private void replicaSet(String shardId, String key, Object value) throws Exception {
+        DistributedData dd = DistributedData.get(actorSystem);
+        Object resp = Patterns.ask(dd.replicator(),
+                new Replicator.Update<>(new LWWMapKey<String, Object>(shardId), LWWMap.create(),
+                        Replicator.writeLocal(), curr -> curr.put(dd.selfUniqueAddress(), key, value)),
+                java.time.Duration.ofSeconds(5)).toCompletableFuture().get();
+        assertTrue(String.valueOf(resp), resp instanceof Replicator.UpdateSuccess);
+    }
+
+    private static void set(ActorRef actor, String key, Object value) throws Exception {
+        DDTestActor.call(actor, a -> {
+            a.ddSet(key, value);
+            return null;
+        });
+    }
+
+    /**
+     * {@code ddGet} with {@link Replicator#readLocal()}, {@code null} if not found or timed out.
+     */
+    private static Object readLocal(ActorRef actor, String key, long timeoutMs) throws Exception {
+        DDGetResult result = DDTestActor
+                .call(actor, a -> a.ddGet(key, timeoutMs, TimeUnit.MILLISECONDS, Replicator.readLocal()));
+        return result != null && !result.isNullOrEmpty() ? result.singleValue() : null;
+    }
+
+    private static Object awaitValue(ActorRef actor, String key, Object expected) throws Exception {
+        Object value = null;
+        for (long deadline = System.currentTimeMillis() + 5000; System.currentTimeMillis() < deadline; ) {
+            value = readLocal(actor, key, 5000);
+            if (Objects.equals(expected, value)) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return value;
+    }
+
+    private static void awaitChanged(ActorRef actor, String shardId) throws Exception {
+        for (long deadline = System.currentTimeMillis() + 5000; ; Thread.sleep(50)) {
+            if (DDTestActor.call(actor, a -> a.getChangedKeys().contains(shardId))) {
+                return;
+            }
+            assertTrue("No Changed notification for " + shardId, System.currentTimeMillis() < deadline);
+        }
+    }
+
+    private static String shardIdOf(String name, String key, int numShards) {
+        return name + "-" + BaseClusterActor.ddShardOf(key, numShards);
+    }
+
+    public void testServedFromCacheOnlyAfterChanged() throws Exception {
+        String name = "dd-near-cache-changed", key = "key-0", shardId = shardIdOf(name, key, NUM_SHARDS);
+        ActorRef actor = actorSystem.actorOf(Props.create(DDTestActor.class, NUM_SHARDS, 100), name);
+
+        // no Changed yet: the actor's own write is not cached, the read goes to the (busy) replicator
+        set(actor, key, "value-1");
+        stallReplicator(1000);
+        assertNull(readLocal(actor, key, 200));
+        assertFalse(DDTestActor.call(actor, a -> a.getChangedKeys().contains(shardId)));
+        Thread.sleep(1000);
+
+        // after a Changed: read-through, then served from the near-cache
+        awaitChanged(actor, shardId);
+        assertEquals("value-1", readLocal(actor, key, 5000));
+        stallReplicator(1000);
+        assertEquals("value-1", readLocal(actor, key, 200));
+        Thread.sleep(1000);
+
+        // a change made elsewhere refreshes the cached record
+        replicaSet(shardId, key, "value-2");
+        assertEquals("value-2", awaitValue(actor, key, "value-2"));
+        stallReplicator(1000);
+        assertEquals("value-2", readLocal(actor, key, 200));
+    }
+
+    public void testFallbackForKeysWithoutChanged() throws Exception {
+        String name = "dd-near-cache-fallback", keyA = "key-0", shardA = shardIdOf(name, keyA, NUM_SHARDS);
+        String keyB = null;
+        for (int i = 1; keyB == null || shardIdOf(name, keyB, NUM_SHARDS).equals(shardA); i++) {
+            keyB = "key-" + i;
+        }
+        String shardB = shardIdOf(name, keyB, NUM_SHARDS);
+        ActorRef actor = actorSystem.actorOf(Props.create(DDTestActor.class, NUM_SHARDS, 100), name);
+
+        set(actor, keyA, "value-a");
+        awaitChanged(actor, shardA);
+        assertFalse(DDTestActor.call(actor, a -> a.getChangedKeys().contains(shardB)));
+
+        // both written by the actor, only the record in the shard that received a Changed is cached
+        set(actor, keyA, "value-a2");
+        set(actor, keyB, "value-b");
+        stallReplicator(1000);
+        assertEquals("value-a2", readLocal(actor, keyA, 200));
+        assertNull(readLocal(actor, keyB, 200));
+        Thread.sleep(1000);
+
+        // served by the replicator
+        assertEquals("value-b", readLocal(actor, keyB, 5000));
+    }
+
+    public void testLruEviction() throws Exception {
+        String name = "dd-near-cache-lru", shardId = name + "-0";
+        // one shard, room for two records
+        ActorRef actor = actorSystem.actorOf(Props.create(DDTestActor.class, 1, 2), name);
+        set(actor, "key-1", "value-1");
+        set(actor, "key-2", "value-2");
+        set(actor, "key-3", "value-3");
+        awaitChanged(actor, shardId);
+        assertEquals("value-3", awaitValue(actor, "key-3", "value-3"));
+        // let all change notifications arrive
+        Thread.sleep(1000);
+
+        assertEquals("value-1", readLocal(actor, "key-1", 5000));
+        assertEquals("value-2", readLocal(actor, "key-2", 5000));
+        // key-1 is now more recently used than key-2
+        assertEquals("value-1", readLocal(actor, "key-1", 5000));
+        // evicts key-2
+        assertEquals("value-3", readLocal(actor, "key-3", 5000));
+
+        stallReplicator(1000);
+        assertEquals("value-1", readLocal(actor, "key-1", 200));
+        assertEquals("value-3", readLocal(actor, "key-3", 200));
+        assertNull("Least-recently-used record must be evicted", readLocal(actor, "key-2", 200));
+    }
+}
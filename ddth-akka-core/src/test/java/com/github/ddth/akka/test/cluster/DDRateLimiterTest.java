@@ -0,0 +1,131 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorSystem;
+import akka.cluster.ddata.DistributedData;
+import akka.cluster.ddata.PNCounterMap;
+import akka.cluster.ddata.PNCounterMapKey;
+import akka.cluster.ddata.Replicator;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.DDRateLimiter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class DDRateLimiterTest extends TestCase {
+
+    public DDRateLimiterTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(DDRateLimiterTest.class);
+    }
+
+    private ActorSystem actorSystem;
+
+    @Override
+    protected void setUp() throws Exception {
+        actorSystem = ClusterTestUtils.startSingleNodeCluster("ddth-akka-rate-limiter-test");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClusterTestUtils.stop(actorSystem);
+    }
+
+    /**
+     * Sleep until the beginning of the next window.
+     */
+    private static void alignToWindow(long periodMs) throws InterruptedException {
+        long now = System.currentTimeMillis();
+        Thread.sleep(periodMs - now % periodMs + 5);
+    }
+
+    private static boolean acquire(DDRateLimiter limiter) throws Exception {
+        return limiter.acquire().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    public void testBudgetPerWindow() throws Exception {
+        long periodMs = 2000;
+        DDRateLimiter limiter = DDRateLimiter
+                .get(actorSystem, "budget", 10, periodMs, TimeUnit.MILLISECONDS, 3, Replicator.writeLocal());
+        assertEquals(3, limiter.getSliceSize());
+        alignToWindow(periodMs);
+        for (int i = 0; i < 10; i++) {
+            assertTrue("Permit #" + i, acquire(limiter));
+        }
+        // slices of 3: 3 + 3 + 3 + 1
+        assertEquals(0, limiter.getLocalPermits());
+        assertFalse(acquire(limiter));
+        assertFalse(limiter.tryAcquire(1000));
+
+        // budget is reset in the next window
+        alignToWindow(periodMs);
+        assertTrue(acquire(limiter));
+        assertEquals(2, limiter.getLocalPermits());
+    }
+
+    public void testCombinedBudgetAcrossNodes() throws Exception {
+        List<ActorSystem> nodes = ClusterTestUtils.startCluster("ddth-akka-rate-limiter-multi-test", 3);
+        try {
+            long permits = 30;
+            long periodMs = TimeUnit.DAYS.toMillis(1);
+            if (periodMs - System.currentTimeMillis() % periodMs < 60000) {
+                // too close to the end of the window
+                alignToWindow(periodMs);
+            }
+            List<DDRateLimiter> limiters = new ArrayList<>();
+            for (ActorSystem node : nodes) {
+                limiters.add(DDRateLimiter.get(node, "combined", permits, 1, TimeUnit.DAYS, 4,
+                        new Replicator.WriteMajority(scala.concurrent.duration.Duration.create(5, TimeUnit.SECONDS))));
+            }
+            assertNotSame(limiters.get(0), limiters.get(1));
+            // nodes take turns: every borrow sees the borrows of all other nodes
+            int granted = 0, denied = 0;
+            for (int i = 0; denied < limiters.size() && i < 1000; i++) {
+                if (acquire(limiters.get(i % limiters.size()))) {
+                    granted++;
+                    denied = 0;
+                } else {
+                    denied++;
+                }
+            }
+            assertEquals(permits, granted);
+        } finally {
+            ClusterTestUtils.stop(nodes);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testPruneOldWindows() throws Exception {
+        long periodMs = 200;
+        DDRateLimiter limiter = DDRateLimiter
+                .get(actorSystem, "prune", 100, periodMs, TimeUnit.MILLISECONDS, 10, Replicator.writeLocal());
+        long window = 0;
+        for (int i = 0; i < 4; i++) {
+            alignToWindow(periodMs);
+            window = System.currentTimeMillis() / periodMs;
+            assertTrue(acquire(limiter));
+        }
+        DistributedData dd = DistributedData.get(actorSystem);
+        Object resp = Patterns.ask(dd.replicator(),
+                new Replicator.Get<>(new PNCounterMapKey<String>("ddth-rate-limiter-prune"), Replicator.readLocal()),
+                Duration.ofSeconds(5)).toCompletableFuture().get();
+        assertTrue(String.valueOf(resp), resp instanceof Replicator.GetSuccess);
+        PNCounterMap<String> counters = ((Replicator.GetSuccess<PNCounterMap<String>>) resp).dataValue();
+        Set<String> windows = counters.getEntries().keySet();
+        // only the current window and the previous one are kept
+        assertTrue(windows.toString(), windows.size() <= 2);
+        for (String w : windows) {
+            assertTrue(windows.toString(), Long.parseLong(w) >= window - 1);
+        }
+        assertEquals(10L, counters.getEntries().get(String.valueOf(window)).longValue());
+    }
+}
@@ -0,0 +1,162 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.cluster.ddata.DistributedData;
+import akka.cluster.ddata.Key;
+import akka.cluster.ddata.LWWMap;
+import akka.cluster.ddata.LWWMapKey;
+import akka.cluster.ddata.Replicator;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.DDRequestCorrelator;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDTags;
+import scala.concurrent.duration.Duration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class DDRequestCorrelatorTest extends TestCase {
+
+    public DDRequestCorrelatorTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(DDRequestCorrelatorTest.class);
+    }
+
+    private final static int NUM_RECORDS = 50;
+
+    private ActorSystem actorSystem;
+    private DDRequestCorrelator correlator;
+    private final Key<LWWMap<String, Object>> dataKey = new LWWMapKey<>("correlator-test");
+
+    @Override
+    protected void setUp() throws Exception {
+        actorSystem = ClusterTestUtils.startSingleNodeCluster("ddth-akka-correlator-test");
+        correlator = DDRequestCorrelator.get(actorSystem);
+        DistributedData dd = DistributedData.get(actorSystem);
+        Object resp = Patterns.ask(dd.replicator(),
+                new Replicator.Update<>(dataKey, LWWMap.create(), Replicator.writeLocal(), curr -> {
+                    LWWMap<String, Object> next = curr;
+                    for (int i = 0; i < NUM_RECORDS; i++) {
+                        next = next.put(dd.selfUniqueAddress(), "key-" + i, "value-" + i);
+                    }
+                    return next;
+                }), java.time.Duration.ofSeconds(5)).toCompletableFuture().get();
+        assertTrue(String.valueOf(resp), resp instanceof Replicator.UpdateSuccess);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClusterTestUtils.stop(actorSystem);
+    }
+
+    /**
+     * Replicator needs a second node that does not exist: it replies with an error.
+     */
+    private static Replicator.ReadConsistency unreachable() {
+        return new Replicator.ReadFrom(2, Duration.create(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Keep the replicator busy for {@code ms} milliseconds.
+     */
+    private void stallReplicator(long ms) {
+        DistributedData.get(actorSystem).replicator()
+                .tell(new Replicator.Update<>(dataKey, LWWMap.create(), Replicator.writeLocal(), curr -> {
+                    try {
+                        Thread.sleep(ms);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return curr;
+                }), ActorRef.noSender());
+    }
+
+    public void testCorrelation() throws Exception {
+        List<CompletableFuture<DDGetResult>> futures = new ArrayList<>();
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            futures.add(correlator.get(dataKey, new DDTags("key-" + i), Replicator.readLocal(), 5, TimeUnit.SECONDS)
+                    .toCompletableFuture());
+        }
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            DDGetResult result = futures.get(i).get(5, TimeUnit.SECONDS);
+            assertFalse(result.isError());
+            assertEquals("value-" + i, result.singleValue());
+        }
+        assertEquals(0, correlator.getPendingCount());
+    }
+
+    public void testNotFound() throws Exception {
+        DDGetResult result = correlator
+                .get(dataKey, new DDTags("no-such-key"), Replicator.readLocal(), 5, TimeUnit.SECONDS)
+                .toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertTrue(result.isNullOrEmpty());
+        result = correlator.get(new LWWMapKey<String, Object>("no-such-data"), new DDTags("key-0"),
+                Replicator.readLocal(), 5, TimeUnit.SECONDS).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertTrue(result.isNotFound());
+    }
+
+    public void testGetAll() throws Exception {
+        Map<String, DDGetResult> results = correlator
+                .getAll(dataKey, Arrays.asList("key-1", "key-2", "no-such-key"), Replicator.readLocal(), 5,
+                        TimeUnit.SECONDS).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("key-1", "key-2", "no-such-key"), new ArrayList<>(results.keySet()));
+        assertEquals("value-1", results.get("key-1").singleValue());
+        assertEquals("value-2", results.get("key-2").singleValue());
+        assertTrue(results.get("no-such-key").isNullOrEmpty());
+    }
+
+    public void testTimeout() throws Exception {
+        stallReplicator(1000);
+        long start = System.currentTimeMillis();
+        try {
+            correlator.get(dataKey, new DDTags("key-0"), Replicator.readLocal(), 200, TimeUnit.MILLISECONDS)
+                    .toCompletableFuture().get(5, TimeUnit.SECONDS);
+            fail("TimeoutException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(System.currentTimeMillis() - start < 900);
+        assertEquals(0, correlator.getPendingCount());
+        // late response is ignored, next requests are still correlated
+        Thread.sleep(1000);
+        assertEquals("value-0",
+                correlator.get(dataKey, new DDTags("key-0"), Replicator.readLocal(), 5, TimeUnit.SECONDS)
+                        .toCompletableFuture().get(5, TimeUnit.SECONDS).singleValue());
+    }
+
+    public void testReplicatorError() throws Exception {
+        DDGetResult result = correlator.get(dataKey, new DDTags("key-0"), unreachable(), 0, TimeUnit.SECONDS)
+                .toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertTrue(result.isError());
+        assertEquals(0, correlator.getPendingCount());
+    }
+
+    public void testDuplicatedId() throws Exception {
+        DDTags tags = new DDTags("key-0");
+        stallReplicator(500);
+        CompletableFuture<DDGetResult> first = correlator
+                .get(dataKey, tags, Replicator.readLocal(), 0, TimeUnit.SECONDS).toCompletableFuture();
+        try {
+            correlator.get(dataKey, tags, Replicator.readLocal(), 5, TimeUnit.SECONDS).toCompletableFuture()
+                    .get(5, TimeUnit.SECONDS);
+            fail("IllegalArgumentException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalArgumentException);
+        }
+        assertEquals("value-0", first.get(5, TimeUnit.SECONDS).singleValue());
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.ddata.DistributedData;
+import akka.cluster.ddata.Key;
+import akka.cluster.ddata.LWWMap;
+import akka.cluster.ddata.LWWMapKey;
+import akka.cluster.ddata.ORMultiMap;
+import akka.cluster.ddata.ORMultiMapKey;
+import akka.cluster.ddata.ReplicatedData;
+import akka.cluster.ddata.Replicator;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.BaseClusterActor;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Sharded distributed-data layout of {@link BaseClusterActor} ({@code getDDShards() > 0}).
+ */
+public class DDShardingTest extends TestCase {
+
+    public DDShardingTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(DDShardingTest.class);
+    }
+
+    private final static int NUM_SHARDS = 4;
+    private final static int NUM_RECORDS = 20;
+    private final static String ACTOR_NAME = "dd-sharding-test";
+
+    private ActorSystem actorSystem;
+    private ActorRef actor;
+
+    @Override
+    protected void setUp() throws Exception {
+        actorSystem = ClusterTestUtils.startSingleNodeCluster("ddth-akka-sharding-test");
+        actor = actorSystem.actorOf(Props.create(DDTestActor.class, NUM_SHARDS, 0), ACTOR_NAME);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClusterTestUtils.stop(actorSystem);
+    }
+
+    /**
+     * Read a distributed-data key from the local replica, {@code null} if not found.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends ReplicatedData> T replicaOf(Key<T> key) throws Exception {
+        Object resp = Patterns.ask(DistributedData.get(actorSystem).replicator(),
+                new Replicator.Get<>(key, Replicator.readLocal()), java.time.Duration.ofSeconds(5))
+                .toCompletableFuture().get();
+        return resp instanceof Replicator.GetSuccess ? ((Replicator.GetSuccess<T>) resp).dataValue() : null;
+    }
+
+    /**
+     * Writes are fire-and-forget: poll until {@code key} reads {@code expected} from the local replica.
+     */
+    private Object awaitValue(String key, Object expected) throws Exception {
+        Object value = null;
+        for (long deadline = System.currentTimeMillis() + 5000; System.currentTimeMillis() < deadline; ) {
+            DDGetResult result = DDTestActor
+                    .call(actor, a -> a.ddGet(key, 5, TimeUnit.SECONDS, Replicator.readLocal()));
+            value = result != null && !result.isNullOrEmpty() ? result.singleValue() : null;
+            if (Objects.equals(expected, value)) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        return value;
+    }
+
+    public void testShardOfIsStable() throws Exception {
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            String key = "key-" + i;
+            int shard = BaseClusterActor.ddShardOf(key, NUM_SHARDS);
+            assertTrue(shard >= 0 && shard < NUM_SHARDS);
+            // independent of instance and call: a pure function of the key's hash code
+            assertEquals(shard, BaseClusterActor.ddShardOf(key, NUM_SHARDS));
+            assertEquals(shard, BaseClusterActor.ddShardOf(new String(key), NUM_SHARDS));
+            assertEquals(Math.floorMod(key.hashCode(), NUM_SHARDS), shard);
+            shards.add(shard);
+
+            LWWMapKey<String, Object> shardKey = DDTestActor.call(actor, a -> a.ddShardKey(key));
+            assertEquals(ACTOR_NAME + "-" + shard, shardKey.id());
+            assertSame(shardKey, DDTestActor.call(actor, a -> a.ddShardKey(key)));
+            assertEquals(ACTOR_NAME + "-lock-" + shard, DDTestActor.call(actor, a -> a.ddLockKey(key)).id());
+        }
+        assertTrue("Records must spread over several shards", shards.size() > 1);
+        assertEquals(0, BaseClusterActor.ddShardOf(null, NUM_SHARDS));
+    }
+
+    public void testSetGetRoundTrip() throws Exception {
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            String key = "key-" + i, value = "value-" + i;
+            DDTestActor.call(actor, a -> {
+                a.ddSet(key, value);
+                return null;
+            });
+        }
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            String key = "key-" + i;
+            assertEquals("value-" + i, awaitValue(key, "value-" + i));
+            // stored in its own shard, as a single value
+            LWWMap<String, Object> shard = replicaOf(
+                    new LWWMapKey<String, Object>(ACTOR_NAME + "-" + BaseClusterActor.ddShardOf(key, NUM_SHARDS)));
+            assertNotNull(shard);
+            assertEquals("value-" + i, shard.getEntries().get(key));
+        }
+        // nothing in the single layout's key
+        assertNull(replicaOf(new ORMultiMapKey<String, Object>(ACTOR_NAME)));
+
+        // last writer wins
+        DDTestActor.call(actor, a -> {
+            a.ddSet("key-0", "new-value");
+            return null;
+        });
+        assertEquals("new-value", awaitValue("key-0", "new-value"));
+
+        DDTestActor.call(actor, a -> {
+            a.ddDelete("key-1");
+            return null;
+        });
+        assertNull(awaitValue("key-1", null));
+        assertEquals("value-2", awaitValue("key-2", "value-2"));
+    }
+
+    public void testLockRoundTrip() throws Exception {
+        for (int i = 0; i < NUM_SHARDS * 2; i++) {
+            String key = "lock-" + i;
+            assertTrue(DDTestActor.call(actor, a -> a.ddLock(key, "owner-1", 10, TimeUnit.SECONDS)));
+            assertFalse(DDTestActor.call(actor, a -> a.ddLock(key, "owner-2", 10, TimeUnit.SECONDS)));
+            // reentrant
+            assertTrue(DDTestActor.call(actor, a -> a.ddLock(key, "owner-1", 10, TimeUnit.SECONDS)));
+
+            // stored in its own lock shard
+            ORMultiMap<String, Object> shard = replicaOf(new ORMultiMapKey<String, Object>(
+                    ACTOR_NAME + "-lock-" + BaseClusterActor.ddShardOf(key, NUM_SHARDS)));
+            assertNotNull(shard);
+            assertTrue(shard.contains(key));
+
+            // not released by another owner
+            DDTestActor.call(actor, a -> a.ddUnlock(key, "owner-2"));
+            assertFalse(DDTestActor.call(actor, a -> a.ddLock(key, "owner-2", 10, TimeUnit.SECONDS)));
+
+            assertTrue(DDTestActor.call(actor, a -> a.ddUnlock(key, "owner-1")));
+            assertTrue(DDTestActor.call(actor, a -> a.ddLock(key, "owner-2", 10, TimeUnit.SECONDS)));
+        }
+    }
+}
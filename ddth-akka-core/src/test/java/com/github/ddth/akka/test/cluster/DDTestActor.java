@@ -0,0 +1,162 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.AbstractActor;
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.cluster.ddata.Key;
+import akka.cluster.ddata.LWWMapKey;
+import akka.cluster.ddata.ORMultiMap;
+import akka.cluster.ddata.Replicator;
+import akka.cluster.ddata.Replicator.ReadConsistency;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.BaseClusterActor;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cluster actor exposing its distributed-data operations to tests: {@link #call(ActorRef, Function)} executes a
+ * function on the actor's thread and returns its result. Messages to the replicator go through a
+ * {@link ReplicatorProbe}.
+ */
+public class DDTestActor extends BaseClusterActor {
+    /**
+     * Command to the test actor, answered with {@code Optional.ofNullable(result)}.
+     */
+    private static class Call {
+        final Function<DDTestActor, Object> fn;
+
+        Call(Function<DDTestActor, Object> fn) {
+            this.fn = fn;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> T call(ActorRef actor, Function<DDTestActor, T> fn) throws Exception {
+        Object result = Patterns.ask(actor, new Call((Function<DDTestActor, Object>) fn),
+                java.time.Duration.ofSeconds(30)).toCompletableFuture().get();
+        return ((Optional<T>) result).orElse(null);
+    }
+
+    /**
+     * Forwards messages to the replicator, recording the keys of {@link Replicator.Update}s.
+     */
+    public static class ReplicatorProbe extends AbstractActor {
+        private final ActorRef target;
+        private final List<String> updatedKeys;
+
+        public ReplicatorProbe(ActorRef target, List<String> updatedKeys) {
+            this.target = target;
+            this.updatedKeys = updatedKeys;
+        }
+
+        @Override
+        public Receive createReceive() {
+            return receiveBuilder().matchAny(msg -> {
+                if (msg instanceof Replicator.Update) {
+                    updatedKeys.add(((Replicator.Update<?>) msg).key().id());
+                }
+                target.forward(msg, getContext());
+            }).build();
+        }
+    }
+
+    private final List<String> updatedKeys = new CopyOnWriteArrayList<>();
+    private final List<String> changedKeys = new CopyOnWriteArrayList<>();
+
+    public DDTestActor(int ddShards, int ddNearCacheSize) {
+        // handle commands on the actor's thread, so that they can be answered to sender()
+        setHandleMessageAsync(false);
+        setDDShards(ddShards);
+        setDDNearCacheSize(ddNearCacheSize);
+        replicator = getContext().actorOf(Props.create(ReplicatorProbe.class, replicator, updatedKeys), "probe");
+    }
+
+    /**
+     * Ids of the distributed-data keys updated by this actor, one entry per {@link Replicator.Update}.
+     *
+     * @return
+     */
+    public List<String> getUpdatedKeys() {
+        return updatedKeys;
+    }
+
+    /**
+     * Ids of the distributed-data keys this actor has received a {@link Replicator.Changed} notification for.
+     *
+     * @return
+     */
+    public List<String> getChangedKeys() {
+        return changedKeys;
+    }
+
+    @Override
+    protected void onReplicatorChanged(Replicator.Changed<?> msg) {
+        super.onReplicatorChanged(msg);
+        changedKeys.add(msg.key().id());
+    }
+
+    @Override
+    protected void initActor() throws Exception {
+        super.initActor();
+        addMessageHandler(Call.class, msg -> sender().tell(Optional.ofNullable(msg.fn.apply(this)), self()));
+    }
+
+    @Override
+    public LWWMapKey<String, Object> ddShardKey(String key) {
+        return super.ddShardKey(key);
+    }
+
+    @Override
+    public Key<ORMultiMap<String, Object>> ddLockKey(String key) {
+        return super.ddLockKey(key);
+    }
+
+    @Override
+    public void ddSet(String key, Object value) {
+        super.ddSet(key, value);
+    }
+
+    @Override
+    public void ddDelete(String key) {
+        super.ddDelete(key);
+    }
+
+    @Override
+    public void ddSetAll(Map<String, Object> records) {
+        super.ddSetAll(records);
+    }
+
+    @Override
+    public void ddDeleteAll(Collection<String> keys) {
+        super.ddDeleteAll(keys);
+    }
+
+    @Override
+    public CompletionStage<Map<String, DDGetResult>> ddGetAllAsync(Collection<String> keys,
+            ReadConsistency readConsistency, long timeout, TimeUnit timeoutUnit) {
+        return super.ddGetAllAsync(keys, readConsistency, timeout, timeoutUnit);
+    }
+
+    @Override
+    public DDGetResult ddGet(String key, long timeout, TimeUnit timeoutUnit, ReadConsistency readConsistency) {
+        return super.ddGet(key, timeout, timeoutUnit, readConsistency);
+    }
+
+    @Override
+    public boolean ddLock(String key, String lockId, long lockTimeout, TimeUnit lockTimeoutUnit) {
+        return super.ddLock(key, lockId, lockTimeout, lockTimeoutUnit);
+    }
+
+    @Override
+    public boolean ddUnlock(String key, String lockId) {
+        return super.ddUnlock(key, lockId);
+    }
+}
@@ -0,0 +1,229 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.Cluster;
+import akka.cluster.MemberStatus;
+import akka.cluster.ddata.Replicator;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.DistributedDataUtils;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
+import com.github.ddth.akka.cluster.scheduling.BaseClusterWorker;
+import com.github.ddth.akka.scheduling.TickMessage;
+import com.github.ddth.akka.scheduling.annotation.Scheduling;
+import com.github.ddth.akka.utils.AkkaUtils;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import scala.concurrent.duration.Duration;
+import scala.concurrent.duration.FiniteDuration;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Restart a 3-node in-JVM cluster and check that a worker's durable distributed-data (last-tick record and lock, in
+ * the sharded layout) survives.
+ */
+public class DurableDistributedDataTest extends TestCase {
+
+    public DurableDistributedDataTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(DurableDistributedDataTest.class);
+    }
+
+    private final static String SYSTEM_NAME = "ddth-akka-durable-test";
+    private final static int[] PORTS = { 25521, 25522, 25523 };
+    private final static String DD_KEY_ID = "durable-worker";
+    private final static String LOCK_ID = "lock-owner";
+
+    /**
+     * Commands to the test worker, answered with the result.
+     */
+    private static class IsDurable {
+    }
+
+    private static class SetLastTick {
+        final String value;
+
+        SetLastTick(String value) {
+            this.value = value;
+        }
+    }
+
+    private static class GetLastTick {
+    }
+
+    private static class Lock {
+        final String lockId;
+
+        Lock(String lockId) {
+            this.lockId = lockId;
+        }
+    }
+
+    @Scheduling("*/5 * *")
+    public static class DurableWorker extends BaseClusterWorker {
+        public DurableWorker() {
+            // handle commands on the actor's thread, so that they can be answered to sender()
+            setHandleMessageAsync(false);
+            setDDShards(2);
+            FiniteDuration timeout = Duration.create(10, TimeUnit.SECONDS);
+            writeConsistency = new Replicator.WriteAll(timeout);
+            lockWriteConsistency = new Replicator.WriteAll(timeout);
+        }
+
+        @Override
+        protected void initActor() throws Exception {
+            super.initActor();
+            addMessageHandler(IsDurable.class, msg -> reply(isDDDurable()));
+            addMessageHandler(SetLastTick.class, msg -> {
+                ddSet(DD_RECORD_KEY_LAST_TICK, msg.value);
+                reply(Boolean.TRUE);
+            });
+            addMessageHandler(GetLastTick.class, msg -> reply(
+                    ddGet(DD_RECORD_KEY_LAST_TICK, 5, TimeUnit.SECONDS, Replicator.readLocal())));
+            addMessageHandler(Lock.class,
+                    msg -> reply(ddLock(getLockKey(), msg.lockId, 1, TimeUnit.HOURS)));
+        }
+
+        private void reply(Object result) {
+            sender().tell(result, self());
+        }
+
+        @Override
+        protected void doJob(String distributedLockId, TickMessage tick) {
+        }
+    }
+
+    private static Object ask(ActorRef worker, Object msg) throws Exception {
+        return Patterns.ask(worker, msg, java.time.Duration.ofSeconds(20)).toCompletableFuture().get();
+    }
+
+    private File baseDir;
+
+    @Override
+    protected void setUp() throws Exception {
+        baseDir = Files.createTempDirectory("ddth-akka-durable").toFile();
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        delete(baseDir);
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    private Config nodeConfig(int port) {
+        Config config = ConfigFactory.parseString(
+                "akka.actor.provider = cluster\n" + "akka.remote.netty.tcp.hostname = \"127.0.0.1\"\n"
+                        + "akka.remote.netty.tcp.port = " + port + "\n" + "akka.cluster.seed-nodes = [\"akka.tcp://"
+                        + SYSTEM_NAME + "@127.0.0.1:" + PORTS[0] + "\"]\n"
+                        + "akka.cluster.distributed-data.gossip-interval = 100ms\n"
+                        + "akka.actor.warn-about-java-serializer-usage = off\n").withFallback(ConfigFactory.load());
+        return DistributedDataUtils.withDurableKeys(config, Collections.singleton(DD_KEY_ID),
+                new File(baseDir, "node-" + port).getAbsolutePath(), 200);
+    }
+
+    private List<ActorSystem> startCluster() throws Exception {
+        List<ActorSystem> nodes = new ArrayList<>();
+        for (int port : PORTS) {
+            nodes.add(AkkaUtils.createActorSystem(SYSTEM_NAME, nodeConfig(port)));
+        }
+        nodes = waitForCluster(nodes);
+        workers.clear();
+        for (ActorSystem node : nodes) {
+            workers.add(node.actorOf(Props.create(DurableWorker.class), DD_KEY_ID));
+        }
+        return nodes;
+    }
+
+    private final List<ActorRef> workers = new ArrayList<>();
+
+    private List<ActorSystem> waitForCluster(List<ActorSystem> nodes) throws Exception {
+        long deadline = System.currentTimeMillis() + 30000;
+        while (System.currentTimeMillis() < deadline) {
+            long numUp = 0;
+            for (akka.cluster.Member m : Cluster.get(nodes.get(0)).state().getMembers()) {
+                if (m.status() == MemberStatus.up()) {
+                    numUp++;
+                }
+            }
+            if (numUp == PORTS.length) {
+                return nodes;
+            }
+            Thread.sleep(100);
+        }
+        stopCluster(nodes);
+        fail("Cluster did not form in time.");
+        return null;
+    }
+
+    private void stopCluster(List<ActorSystem> nodes) throws Exception {
+        for (ActorSystem node : nodes) {
+            node.terminate();
+        }
+        for (ActorSystem node : nodes) {
+            scala.concurrent.Await.ready(node.whenTerminated(), Duration.create(30, TimeUnit.SECONDS));
+        }
+    }
+
+    public void testSurviveFullClusterRestart() throws Exception {
+        List<ActorSystem> nodes = startCluster();
+        try {
+            for (ActorRef worker : workers) {
+                // durable keys cover both "<id>" and the shards "<id>-0", "<id>-1"...
+                assertEquals(Boolean.TRUE, ask(worker, new IsDurable()));
+            }
+            ActorRef worker = workers.get(1);
+            assertEquals(Boolean.TRUE, ask(worker, new SetLastTick("tick-1")));
+            assertEquals(Boolean.TRUE, ask(worker, new Lock(LOCK_ID)));
+            // make sure the record is replicated before the cluster goes down
+            for (ActorRef w : workers) {
+                DDGetResult result = (DDGetResult) ask(w, new GetLastTick());
+                assertEquals("tick-1", result.singleValue());
+            }
+            // let write-behind flush
+            Thread.sleep(1000);
+        } finally {
+            stopCluster(nodes);
+        }
+
+        nodes = startCluster();
+        try {
+            for (ActorRef worker : workers) {
+                long start = System.currentTimeMillis();
+                DDGetResult result = (DDGetResult) ask(worker, new GetLastTick());
+                long elapsed = System.currentTimeMillis() - start;
+                assertFalse(result.isNotFound());
+                assertFalse(result.isError());
+                assertEquals("tick-1", result.singleValue());
+                assertTrue("Recovery took " + elapsed + "ms", elapsed < 1000);
+            }
+            // the lock survived as well: still held by its owner
+            assertEquals(Boolean.FALSE, ask(workers.get(0), new Lock("another-owner")));
+            assertEquals(Boolean.TRUE, ask(workers.get(2), new Lock(LOCK_ID)));
+        } finally {
+            stopCluster(nodes);
+        }
+    }
+}
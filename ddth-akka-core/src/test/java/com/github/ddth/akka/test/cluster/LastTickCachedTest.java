@@ -0,0 +1,181 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.cluster.ddata.Replicator.ReadConsistency;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDGetResult;
+import com.github.ddth.akka.cluster.DistributedDataUtils.DDTags;
+import com.github.ddth.akka.cluster.scheduling.BaseClusterWorker;
+import com.github.ddth.akka.scheduling.TickMessage;
+import com.github.ddth.akka.scheduling.WorkerCoordinationPolicy;
+import com.github.ddth.akka.scheduling.annotation.Scheduling;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Cached last-tick mode of {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} cluster workers
+ * ({@code @Scheduling(lastTickCached=true)}), on a 2-node cluster.
+ */
+public class LastTickCachedTest extends TestCase {
+
+    public LastTickCachedTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(LastTickCachedTest.class);
+    }
+
+    /**
+     * Commands to the test worker, answered with the result.
+     */
+    private static class Run {
+        final TickMessage tick;
+
+        Run(TickMessage tick) {
+            this.tick = tick;
+        }
+    }
+
+    private static class GetLastTick {
+    }
+
+    private static class GetDDReads {
+    }
+
+    private static class GetJobRuns {
+    }
+
+    @Scheduling(value = "0 0 0 1 1 *", workerCoordinationPolicy = WorkerCoordinationPolicy.GLOBAL_SINGLETON, lastTickCached = true, executorPoolSize = 1)
+    public static class CachedWorker extends BaseClusterWorker {
+        private final AtomicInteger ddReads = new AtomicInteger();
+        private final AtomicInteger jobRuns = new AtomicInteger();
+
+        public CachedWorker() {
+            // handle commands on the actor's thread, so that they can be answered to sender()
+            setHandleMessageAsync(false);
+            setLockReleaseGuardMs(0);
+        }
+
+        @Override
+        protected void initActor() throws Exception {
+            super.initActor();
+            addMessageHandler(Run.class, msg -> {
+                doJobGlobalSingleton(msg.tick);
+                sender().tell(Boolean.TRUE, self());
+            });
+            addMessageHandler(GetLastTick.class,
+                    msg -> sender().tell(Optional.ofNullable(getLastTick()), self()));
+            addMessageHandler(GetDDReads.class, msg -> sender().tell(ddReads.get(), self()));
+            addMessageHandler(GetJobRuns.class, msg -> sender().tell(jobRuns.get(), self()));
+        }
+
+        @Override
+        protected DDGetResult ddGet(DDTags tags, ReadConsistency readConsistency, long timeout,
+                TimeUnit timeoutUnit) {
+            ddReads.incrementAndGet();
+            return super.ddGet(tags, readConsistency, timeout, timeoutUnit);
+        }
+
+        @Override
+        protected void doJob(String distributedLockId, TickMessage tick) {
+            jobRuns.incrementAndGet();
+        }
+    }
+
+    private List<ActorSystem> cluster;
+    private ActorRef worker0, worker1;
+
+    @Override
+    protected void setUp() throws Exception {
+        cluster = ClusterTestUtils.startCluster("ddth-akka-last-tick-test", 2);
+        worker0 = cluster.get(0).actorOf(Props.create(CachedWorker.class), "last-tick-worker");
+        worker1 = cluster.get(1).actorOf(Props.create(CachedWorker.class), "last-tick-worker");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        ClusterTestUtils.stop(cluster);
+    }
+
+    private static Object ask(ActorRef worker, Object msg) throws Exception {
+        return Patterns.ask(worker, msg, java.time.Duration.ofSeconds(20)).toCompletableFuture().get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TickMessage lastTick(ActorRef worker) throws Exception {
+        return ((Optional<TickMessage>) ask(worker, new GetLastTick())).orElse(null);
+    }
+
+    private static void awaitJobRuns(ActorRef worker, int expected) throws Exception {
+        for (long deadline = System.currentTimeMillis() + 5000; ; Thread.sleep(50)) {
+            if (ask(worker, new GetJobRuns()).equals(expected)) {
+                return;
+            }
+            assertTrue("Job not run in time", System.currentTimeMillis() < deadline);
+        }
+    }
+
+    private static TickMessage newTick(String id) throws InterruptedException {
+        // ticks created in sequence have increasing timestamps
+        Thread.sleep(5);
+        return new TickMessage(id);
+    }
+
+    public void testConfirmLastTickRejectsTakenTick() throws Exception {
+        TickMessage older = newTick("older"), tick = newTick("tick"), newer = newTick("newer");
+
+        // node 0 wins the lock, and publishes the tick with a majority write
+        ask(worker0, new Run(tick));
+        awaitJobRuns(worker0, 1);
+
+        // node 1 wins the lock afterwards (once released by node 0): its majority read tells the tick has been taken
+        for (long deadline = System.currentTimeMillis() + 5000; ; Thread.sleep(50)) {
+            ask(worker1, new Run(tick));
+            if ((Integer) ask(worker1, new GetDDReads()) > 0) {
+                break;
+            }
+            assertTrue("Lock not won in time", System.currentTimeMillis() < deadline);
+        }
+        int reads = (Integer) ask(worker1, new GetDDReads());
+        ask(worker1, new Run(older));
+        assertEquals(reads + 1, ask(worker1, new GetDDReads()));
+        Thread.sleep(500);
+        assertEquals(0, ask(worker1, new GetJobRuns()));
+        assertEquals("tick", lastTick(worker1).getId());
+
+        // a newer tick is taken
+        ask(worker1, new Run(newer));
+        awaitJobRuns(worker1, 1);
+        assertEquals("newer", lastTick(worker1).getId());
+        // and the lock was released by the rejected attempts
+        assertEquals(1, ask(worker0, new GetJobRuns()));
+    }
+
+    public void testChangedRefreshesLastTick() throws Exception {
+        assertNull(lastTick(worker1));
+        TickMessage tick = newTick("tick");
+        ask(worker0, new Run(tick));
+        awaitJobRuns(worker0, 1);
+
+        // node 1 learns about the tick via change notifications, without reading the distributed-data
+        TickMessage last = null;
+        for (long deadline = System.currentTimeMillis() + 10000;
+             System.currentTimeMillis() < deadline && last == null; Thread.sleep(50)) {
+            last = lastTick(worker1);
+        }
+        assertNotNull("Last tick not refreshed", last);
+        assertEquals("tick", last.getId());
+        assertEquals(tick.getTimestamp(), last.getTimestamp());
+        assertEquals(0, ask(worker1, new GetDDReads()));
+    }
+}
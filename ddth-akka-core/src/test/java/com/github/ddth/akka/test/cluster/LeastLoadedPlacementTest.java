@@ -0,0 +1,177 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Address;
+import akka.actor.PoisonPill;
+import akka.actor.Props;
+import akka.cluster.Cluster;
+import akka.cluster.Member;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.cluster.ClusterMemberUtils;
+import com.github.ddth.akka.cluster.scheduling.BaseClusterWorker;
+import com.github.ddth.akka.scheduling.TickMessage;
+import com.github.ddth.akka.scheduling.WorkerCoordinationPolicy;
+import com.github.ddth.akka.scheduling.WorkerPlacementStrategy;
+import com.github.ddth.akka.scheduling.annotation.Scheduling;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import static com.github.ddth.akka.test.cluster.ClusterTestUtils.member;
+
+/**
+ * {@link WorkerPlacementStrategy#LEAST_LOADED} placement: {@link ClusterMemberUtils#selectLeastLoadedNode} and the
+ * candidates of {@link BaseClusterWorker}.
+ */
+public class LeastLoadedPlacementTest extends TestCase {
+
+    public LeastLoadedPlacementTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(LeastLoadedPlacementTest.class);
+    }
+
+    private final static long MAX_AGE_MS = 60000;
+
+    private final Member[] nodes = { member(2551, 1, "worker"), member(2552, 2, "worker"),
+            member(2553, 3, "worker") };
+    private final Address n1 = nodes[0].address(), n2 = nodes[1].address(), n3 = nodes[2].address();
+
+    @Override
+    protected void setUp() {
+        ClusterMemberUtils.resetNodes();
+        for (Member node : nodes) {
+            ClusterMemberUtils.addNode(node);
+        }
+    }
+
+    @Override
+    protected void tearDown() {
+        ClusterMemberUtils.resetNodes();
+    }
+
+    private static void load(Address node, double load) {
+        ClusterMemberUtils.updateNodeLoad(node, load, System.currentTimeMillis());
+    }
+
+    public void testHysteresisKeepsIncumbent() {
+        load(n1, 0.5);
+        load(n2, 0.4);
+        load(n3, 0.45);
+        // n2 is less loaded, but not by more than the margin
+        assertEquals(n1, ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n1, n2, n3), n1, 0.2, MAX_AGE_MS));
+        assertEquals(n3, ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n1, n2, n3), n3, 0.2, MAX_AGE_MS));
+    }
+
+    public void testLeastLoadedOutsideMargin() {
+        load(n1, 0.8);
+        load(n2, 0.4);
+        load(n3, 0.5);
+        assertEquals(n2, ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n1, n2, n3), n1, 0.2, MAX_AGE_MS));
+        // no incumbent, or incumbent not amongst the candidates
+        assertEquals(n2, ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n1, n2, n3), null, 0.2, MAX_AGE_MS));
+        assertEquals(n3, ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n1, n3), n2, 0.2, MAX_AGE_MS));
+        // ties are broken by address
+        load(n3, 0.4);
+        assertEquals(n2, ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n3, n2, n1), null, 0, MAX_AGE_MS));
+    }
+
+    public void testStaleOrUnknownLoad() {
+        load(n1, 0.5);
+        load(n2, 0.1);
+        // load of n3 is unknown
+        assertNull(ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n1, n2, n3), n1, 0.2, MAX_AGE_MS));
+        // load of n3 is stale
+        ClusterMemberUtils.updateNodeLoad(n3, 0.0, System.currentTimeMillis() - 2 * MAX_AGE_MS);
+        assertNull(ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n1, n2, n3), n1, 0.2, MAX_AGE_MS));
+        assertNull(ClusterMemberUtils.selectLeastLoadedNode(Collections.emptyList(), null, 0.2, MAX_AGE_MS));
+        assertEquals(n2, ClusterMemberUtils.selectLeastLoadedNode(Arrays.asList(n1, n2), n1, 0.2, MAX_AGE_MS));
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * Commands to the test worker, answered with the result.
+     */
+    private static class IsPreferredNode {
+    }
+
+    private static class GetHostingNodes {
+    }
+
+    @Scheduling(value = "0 0 0 1 1 *", workerCoordinationPolicy = WorkerCoordinationPolicy.GLOBAL_SINGLETON, placementStrategy = WorkerPlacementStrategy.LEAST_LOADED)
+    public static class PlacementWorker extends BaseClusterWorker {
+        public PlacementWorker() {
+            // handle commands on the actor's thread, so that they can be answered to sender()
+            setHandleMessageAsync(false);
+        }
+
+        @Override
+        protected void initActor() throws Exception {
+            super.initActor();
+            addMessageHandler(IsPreferredNode.class, msg -> sender().tell(isPreferredNode(), self()));
+            addMessageHandler(GetHostingNodes.class,
+                    msg -> sender().tell(new HashSet<>(getHostingNodes()), self()));
+        }
+
+        @Override
+        protected void doJob(String distributedLockId, TickMessage tick) {
+        }
+    }
+
+    private static Object ask(ActorRef worker, Object msg) throws Exception {
+        return Patterns.ask(worker, msg, java.time.Duration.ofSeconds(10)).toCompletableFuture().get();
+    }
+
+    private static void awaitHostingNodes(ActorRef worker, Set<Address> expected) throws Exception {
+        for (long deadline = System.currentTimeMillis() + 20000; ; Thread.sleep(100)) {
+            Object hosting = ask(worker, new GetHostingNodes());
+            if (expected.equals(hosting)) {
+                return;
+            }
+            assertTrue("Hosting nodes " + hosting + ", expected " + expected, System.currentTimeMillis() < deadline);
+        }
+    }
+
+    public void testOnlyHostingNodesAreCandidates() throws Exception {
+        List<ActorSystem> cluster = ClusterTestUtils.startCluster("ddth-akka-placement-test", 2);
+        try {
+            ClusterMemberUtils.resetNodes();
+            Address busy = Cluster.get(cluster.get(0)).selfAddress();
+            Address idle = Cluster.get(cluster.get(1)).selfAddress();
+            for (ActorSystem node : cluster) {
+                ClusterMemberUtils.addNode(Cluster.get(node).selfMember());
+            }
+            load(busy, 0.9);
+            load(idle, 0.1);
+
+            // the idle node does not host the worker: it must not be preferred
+            ActorRef worker0 = cluster.get(0).actorOf(Props.create(PlacementWorker.class), "placement-worker");
+            assertEquals(Collections.singleton(busy), ask(worker0, new GetHostingNodes()));
+            assertEquals(Boolean.TRUE, ask(worker0, new IsPreferredNode()));
+
+            // once it hosts the worker, the idle node is preferred
+            ActorRef worker1 = cluster.get(1).actorOf(Props.create(PlacementWorker.class), "placement-worker");
+            awaitHostingNodes(worker0, new HashSet<>(Arrays.asList(busy, idle)));
+            assertEquals(Boolean.FALSE, ask(worker0, new IsPreferredNode()));
+            assertEquals(Boolean.TRUE, ask(worker1, new IsPreferredNode()));
+
+            // and no more when the worker stops there
+            worker1.tell(PoisonPill.getInstance(), ActorRef.noSender());
+            awaitHostingNodes(worker0, Collections.singleton(busy));
+            assertEquals(Boolean.TRUE, ask(worker0, new IsPreferredNode()));
+        } finally {
+            ClusterTestUtils.stop(cluster);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.cluster.Member;
+import com.github.ddth.akka.cluster.ClusterMemberUtils;
+import com.github.ddth.akka.cluster.MembershipSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import static com.github.ddth.akka.test.cluster.ClusterTestUtils.member;
+
+public class MembershipSnapshotTest extends TestCase {
+
+    public MembershipSnapshotTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(MembershipSnapshotTest.class);
+    }
+
+    private final Member m1 = member(2551, 3, "worker");
+    private final Member m2 = member(2552, 1, "worker", "api");
+    private final Member m3 = member(2553, 2, "api");
+
+    public void testEmpty() {
+        MembershipSnapshot empty = MembershipSnapshot.EMPTY;
+        assertEquals(0, empty.getVersion());
+        assertEquals(0, empty.size());
+        assertNull(empty.getLeader(ClusterMemberUtils.ROLE_ALL));
+        assertTrue(empty.getNodes("worker").isEmpty());
+        assertEquals(0, empty.countNodes("worker"));
+    }
+
+    public void testOrderingOldestFirst() {
+        MembershipSnapshot snapshot = MembershipSnapshot.of(1, Arrays.asList(m1, m2, m3));
+        assertEquals(Arrays.asList(m2, m3, m1), new ArrayList<>(snapshot.getNodes(ClusterMemberUtils.ROLE_ALL)));
+        assertEquals(Arrays.asList(m2, m1), new ArrayList<>(snapshot.getNodes("worker")));
+        assertEquals(Arrays.asList(m2, m3), new ArrayList<>(snapshot.getNodes("api")));
+        assertEquals(m3, snapshot.getNode(ClusterMemberUtils.ROLE_ALL, 1));
+        assertEquals(2, snapshot.countNodes("worker"));
+        try {
+            snapshot.getNode("worker", 2);
+            fail("IndexOutOfBoundsException expected");
+        } catch (IndexOutOfBoundsException e) {
+        }
+    }
+
+    public void testOrderingTieBrokenByAddress() {
+        Member a = member(2561, 1, "worker");
+        Member b = member(2562, 1, "worker");
+        MembershipSnapshot snapshot = MembershipSnapshot.of(1, Arrays.asList(b, a));
+        assertEquals(Arrays.asList(a, b), new ArrayList<>(snapshot.getNodes("worker")));
+    }
+
+    public void testLeader() {
+        MembershipSnapshot snapshot = MembershipSnapshot.of(1, Arrays.asList(m1, m2, m3));
+        assertEquals(m2, snapshot.getLeader(ClusterMemberUtils.ROLE_ALL));
+        assertEquals(m2, snapshot.getLeader("worker"));
+        assertTrue(snapshot.isLeader("api", m2));
+        assertFalse(snapshot.isLeader("api", m3));
+        assertFalse(snapshot.isLeader("api", null));
+        assertNull(snapshot.getLeader("no-such-role"));
+
+        MembershipSnapshot next = snapshot.withoutMember(m2);
+        assertEquals(m1, next.getLeader("worker"));
+        assertEquals(m3, next.getLeader("api"));
+    }
+
+    public void testCopyOnWrite() {
+        MembershipSnapshot snapshot = MembershipSnapshot.of(5, Arrays.asList(m1, m2));
+        Set<Member> workers = snapshot.getNodes("worker");
+
+        MembershipSnapshot added = snapshot.withMember(m3);
+        assertEquals(6, added.getVersion());
+        assertEquals(3, added.size());
+        assertTrue(added.contains(m3.address()));
+        // the original snapshot, and sets already handed out, are untouched
+        assertEquals(5, snapshot.getVersion());
+        assertEquals(2, snapshot.size());
+        assertFalse(snapshot.contains(m3.address()));
+        assertEquals(Arrays.asList(m2, m1), new ArrayList<>(workers));
+
+        MembershipSnapshot removed = added.withoutMember(m1);
+        assertEquals(7, removed.getVersion());
+        assertFalse(removed.contains(m1.address()));
+        assertTrue(added.contains(m1.address()));
+    }
+
+    public void testImmutableViews() {
+        MembershipSnapshot snapshot = MembershipSnapshot.of(1, Arrays.asList(m1, m2));
+        try {
+            snapshot.getNodes("worker").add(m3);
+            fail("UnsupportedOperationException expected");
+        } catch (UnsupportedOperationException e) {
+        }
+        try {
+            snapshot.getMembers().remove(m1.address());
+            fail("UnsupportedOperationException expected");
+        } catch (UnsupportedOperationException e) {
+        }
+    }
+
+    public void testReplaceNodes() {
+        try {
+            ClusterMemberUtils.replaceNodes(Arrays.asList(m1, m2));
+            MembershipSnapshot before = ClusterMemberUtils.getMembershipSnapshot();
+            ClusterMemberUtils.replaceNodes(Arrays.asList(m3));
+            MembershipSnapshot after = ClusterMemberUtils.getMembershipSnapshot();
+            assertEquals(before.getVersion() + 1, after.getVersion());
+            assertEquals(1, after.size());
+            assertEquals(m3, ClusterMemberUtils.getLeader("api"));
+            assertNull(ClusterMemberUtils.getLeader("worker"));
+            assertEquals(2, before.size());
+        } finally {
+            ClusterMemberUtils.resetNodes();
+        }
+    }
+}
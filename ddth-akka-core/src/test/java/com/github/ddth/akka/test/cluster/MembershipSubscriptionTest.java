@@ -0,0 +1,158 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.cluster.Member;
+import com.github.ddth.akka.cluster.ClusterMemberUtils;
+import com.github.ddth.akka.cluster.MembershipListener;
+import com.github.ddth.akka.cluster.messages.MembershipChangedMessage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import static com.github.ddth.akka.test.cluster.ClusterTestUtils.member;
+
+public class MembershipSubscriptionTest extends TestCase {
+
+    public MembershipSubscriptionTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(MembershipSubscriptionTest.class);
+    }
+
+    private final Member w1 = member(2551, 1, "worker");
+    private final Member w2 = member(2552, 2, "worker");
+    private final Member a1 = member(2553, 3, "api");
+
+    private final List<MembershipChangedMessage> changes = new ArrayList<>();
+    private final MembershipListener listener = changes::add;
+
+    @Override
+    protected void setUp() {
+        ClusterMemberUtils.resetNodes();
+    }
+
+    @Override
+    protected void tearDown() {
+        ClusterMemberUtils.unsubscribe(listener);
+        ClusterMemberUtils.resetNodes();
+    }
+
+    public void testInitialState() {
+        ClusterMemberUtils.addNode(w1);
+        ClusterMemberUtils.addNode(a1);
+        ClusterMemberUtils.subscribe(Collections.singleton("worker"), listener);
+        assertEquals(1, changes.size());
+        MembershipChangedMessage initial = changes.get(0);
+        assertTrue(initial.initial);
+        assertEquals("worker", initial.role);
+        assertEquals(Collections.singleton(w1), initial.added);
+        assertEquals(Collections.singleton(w1), initial.nodes);
+        assertTrue(initial.removed.isEmpty());
+        assertEquals(w1, initial.leader);
+    }
+
+    public void testDiff() {
+        ClusterMemberUtils.addNode(w1);
+        ClusterMemberUtils.subscribe(Collections.singleton("worker"), listener);
+        changes.clear();
+
+        ClusterMemberUtils.addNode(w2);
+        assertEquals(1, changes.size());
+        MembershipChangedMessage change = changes.get(0);
+        assertFalse(change.initial);
+        assertEquals(Collections.singleton(w2), change.added);
+        assertTrue(change.removed.isEmpty());
+        assertEquals(Arrays.asList(w1, w2), new ArrayList<>(change.nodes));
+        assertFalse(change.isLeaderChanged());
+        assertEquals(ClusterMemberUtils.getMembershipSnapshot().getVersion(), change.version);
+
+        ClusterMemberUtils.removeNode(w1);
+        assertEquals(2, changes.size());
+        change = changes.get(1);
+        assertTrue(change.added.isEmpty());
+        assertEquals(Collections.singleton(w1), change.removed);
+        assertTrue(change.isLeaderChanged());
+        assertEquals(w1, change.previousLeader);
+        assertEquals(w2, change.leader);
+    }
+
+    public void testRoleFiltering() {
+        ClusterMemberUtils.subscribe(Collections.singleton("worker"), listener);
+        changes.clear();
+
+        // a change of another role is not delivered
+        ClusterMemberUtils.addNode(a1);
+        assertTrue(changes.isEmpty());
+        ClusterMemberUtils.addNode(w1);
+        assertEquals(1, changes.size());
+        assertEquals("worker", changes.get(0).role);
+    }
+
+    public void testAllRoles() {
+        ClusterMemberUtils.subscribe(null, listener);
+        assertEquals(1, changes.size());
+        assertEquals(ClusterMemberUtils.ROLE_ALL, changes.get(0).role);
+        changes.clear();
+
+        ClusterMemberUtils.addNode(a1);
+        ClusterMemberUtils.addNode(w1);
+        assertEquals(2, changes.size());
+        assertEquals(ClusterMemberUtils.ROLE_ALL, changes.get(1).role);
+        // w1 is older than a1: leader changes
+        assertTrue(changes.get(1).isLeaderChanged());
+        assertEquals(w1, changes.get(1).leader);
+    }
+
+    public void testMultipleRoles() {
+        ClusterMemberUtils.subscribe(Arrays.asList("worker", "api"), listener);
+        assertEquals(2, changes.size());
+        changes.clear();
+
+        ClusterMemberUtils.replaceNodes(Arrays.asList(w1, a1));
+        assertEquals(2, changes.size());
+        List<String> roles = new ArrayList<>();
+        changes.forEach(c -> roles.add(c.role));
+        Collections.sort(roles);
+        assertEquals(Arrays.asList("api", "worker"), roles);
+    }
+
+    public void testNoChangeNoMessage() {
+        ClusterMemberUtils.addNode(w1);
+        ClusterMemberUtils.subscribe(Collections.singleton("worker"), listener);
+        changes.clear();
+
+        // same members: nothing is delivered
+        ClusterMemberUtils.replaceNodes(Collections.singleton(w1));
+        assertTrue(changes.isEmpty());
+    }
+
+    public void testUnsubscribe() {
+        ClusterMemberUtils.subscribe(Collections.singleton("worker"), listener);
+        ClusterMemberUtils.unsubscribe(listener);
+        changes.clear();
+        ClusterMemberUtils.addNode(w1);
+        assertTrue(changes.isEmpty());
+    }
+
+    public void testFailingListenerDoesNotBreakOthers() {
+        MembershipListener failing = change -> {
+            throw new IllegalStateException("failed");
+        };
+        ClusterMemberUtils.subscribe(Collections.singleton("worker"), failing);
+        try {
+            ClusterMemberUtils.subscribe(Collections.singleton("worker"), listener);
+            changes.clear();
+            ClusterMemberUtils.addNode(w1);
+            assertEquals(1, changes.size());
+        } finally {
+            ClusterMemberUtils.unsubscribe(failing);
+        }
+    }
+}
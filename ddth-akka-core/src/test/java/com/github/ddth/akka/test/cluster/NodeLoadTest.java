@@ -0,0 +1,47 @@
+package com.github.ddth.akka.test.cluster;
+
+import com.github.ddth.akka.cluster.ClusterMemberUtils.NodeLoad;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class NodeLoadTest extends TestCase {
+
+    public NodeLoadTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(NodeLoadTest.class);
+    }
+
+    public void testOfMeanOfAvailable() {
+        NodeLoad load = NodeLoad.of(0.2, 0.6, -1, 1000);
+        assertEquals(0.4, load.load, 1e-9);
+        assertEquals(0.2, load.cpu, 1e-9);
+        assertTrue(Double.isNaN(load.loadAverage));
+        assertEquals(1000, load.timestamp);
+    }
+
+    public void testOfCapped() {
+        NodeLoad load = NodeLoad.of(-1, -1, 3.0, 1000);
+        assertEquals(1.0, load.load, 1e-9);
+        assertEquals(3.0, load.loadAverage, 1e-9);
+    }
+
+    public void testOfNone() {
+        assertNull(NodeLoad.of(-1, Double.NaN, -1, 1000));
+    }
+
+    public void testSmoothed() {
+        NodeLoad prev = NodeLoad.of(0.0, 0.2, -1, 1000);
+        NodeLoad next = NodeLoad.of(1.0, 0.4, 0.5, 2000).smoothedWith(prev, 0.5);
+        assertEquals(0.5, next.cpu, 1e-9);
+        assertEquals(0.3, next.heap, 1e-9);
+        assertEquals(0.5, next.loadAverage, 1e-9);
+        assertEquals(0.5 * (1.9 / 3) + 0.5 * 0.1, next.load, 1e-9);
+        assertEquals(2000, next.timestamp);
+        assertSame(next, next.smoothedWith(null, 0.5));
+    }
+}
@@ -0,0 +1,148 @@
+package com.github.ddth.akka.test.cluster;
+
+import akka.cluster.Member;
+import com.github.ddth.akka.cluster.ClusterMemberUtils;
+import com.github.ddth.akka.cluster.RendezvousRouter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import static com.github.ddth.akka.test.cluster.ClusterTestUtils.member;
+
+public class RendezvousRouterTest extends TestCase {
+
+    public RendezvousRouterTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(RendezvousRouterTest.class);
+    }
+
+    private final static int NUM_KEYS = 10000;
+
+    private final Member[] nodes = { member(2551, 1, "worker"), member(2552, 2, "worker"),
+            member(2553, 3, "worker"), member(2554, 4, "worker"), member(2555, 5, "api") };
+    private RendezvousRouter router;
+
+    @Override
+    protected void setUp() {
+        ClusterMemberUtils.resetNodes();
+        for (int i = 0; i < 3; i++) {
+            ClusterMemberUtils.addNode(nodes[i]);
+        }
+        ClusterMemberUtils.addNode(nodes[4]);
+        router = new RendezvousRouter(null, "worker").init();
+    }
+
+    @Override
+    protected void tearDown() {
+        router.destroy();
+        ClusterMemberUtils.resetNodes();
+    }
+
+    private Map<Long, Member> routeAll() {
+        Map<Long, Member> result = new HashMap<>();
+        for (long key = 0; key < NUM_KEYS; key++) {
+            result.put(key, router.route(key));
+        }
+        return result;
+    }
+
+    public void testRoleNodesOnly() {
+        assertEquals(3, router.size());
+        assertEquals(ClusterMemberUtils.getMembershipSnapshot().getVersion(), router.getVersion());
+        Set<Member> routed = new HashSet<>(routeAll().values());
+        assertEquals(new HashSet<>(Arrays.asList(nodes[0], nodes[1], nodes[2])), routed);
+    }
+
+    public void testEmpty() {
+        RendezvousRouter empty = new RendezvousRouter(null, "no-such-role").init();
+        try {
+            assertNull(empty.route("key"));
+            assertEquals(0, empty.routeTopN("key", new Member[2]));
+        } finally {
+            empty.destroy();
+        }
+    }
+
+    public void testStable() {
+        Map<Long, Member> before = routeAll();
+        // a change of another role does not move any key
+        ClusterMemberUtils.removeNode(nodes[4]);
+        assertEquals(before, routeAll());
+        assertEquals(router.route("customer-1"), router.route("customer-1"));
+    }
+
+    public void testMinimalMoveOnJoin() {
+        Map<Long, Member> before = routeAll();
+        ClusterMemberUtils.addNode(nodes[3]);
+        Map<Long, Member> after = routeAll();
+        int moved = 0;
+        for (long key = 0; key < NUM_KEYS; key++) {
+            if (!before.get(key).equals(after.get(key))) {
+                // only keys taken by the new node move
+                assertEquals(nodes[3], after.get(key));
+                moved++;
+            }
+        }
+        // about 1/4 of the keys
+        assertTrue("Moved: " + moved, moved > NUM_KEYS / 8 && moved < NUM_KEYS / 2);
+    }
+
+    public void testMinimalMoveOnLeave() {
+        Map<Long, Member> before = routeAll();
+        ClusterMemberUtils.removeNode(nodes[1]);
+        Map<Long, Member> after = routeAll();
+        for (long key = 0; key < NUM_KEYS; key++) {
+            if (!before.get(key).equals(after.get(key))) {
+                // only keys owned by the leaving node move
+                assertEquals(nodes[1], before.get(key));
+            }
+            assertFalse(nodes[1].equals(after.get(key)));
+        }
+    }
+
+    public void testTopN() {
+        ClusterMemberUtils.addNode(nodes[3]);
+        Member[] out = new Member[3];
+        Member[] all = new Member[10];
+        for (long key = 0; key < 1000; key++) {
+            assertEquals(3, router.routeTopN(key, out));
+            assertEquals(router.route(key), out[0]);
+            assertEquals(3, new HashSet<>(Arrays.asList(out)).size());
+            // top-3 is a prefix of the full ranking
+            assertEquals(4, router.routeTopN(key, all));
+            assertEquals(Arrays.asList(out), Arrays.asList(all).subList(0, 3));
+        }
+    }
+
+    public void testTopNOnLeave() {
+        ClusterMemberUtils.addNode(nodes[3]);
+        Member[] before = new Member[4];
+        Member[] after = new Member[3];
+        Map<Long, Member[]> rankings = new HashMap<>();
+        for (long key = 0; key < 1000; key++) {
+            router.routeTopN(key, before);
+            rankings.put(key, before.clone());
+        }
+        ClusterMemberUtils.removeNode(nodes[2]);
+        for (long key = 0; key < 1000; key++) {
+            assertEquals(3, router.routeTopN(key, after));
+            // the ranking of remaining nodes is unchanged: the next node takes over
+            int j = 0;
+            for (Member m : rankings.get(key)) {
+                if (!m.equals(nodes[2])) {
+                    assertEquals(m, after[j++]);
+                }
+            }
+        }
+    }
+}
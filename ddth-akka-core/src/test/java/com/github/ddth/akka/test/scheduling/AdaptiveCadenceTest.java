@@ -0,0 +1,51 @@
+package com.github.ddth.akka.test.scheduling;
+
+import com.github.ddth.akka.scheduling.AdaptiveCadence;
+import com.github.ddth.akka.scheduling.JobFeedback;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class AdaptiveCadenceTest extends TestCase {
+
+    public AdaptiveCadenceTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(AdaptiveCadenceTest.class);
+    }
+
+    public void testMoreWork() {
+        AdaptiveCadence ac = new AdaptiveCadence(100, 10000);
+        assertTrue(ac.isDue(0));
+        assertEquals(100, ac.onFeedback(JobFeedback.MORE_WORK, 1000));
+        assertFalse(ac.isDue(1050));
+        assertTrue(ac.isDue(1100));
+    }
+
+    public void testIdleBackoff() {
+        AdaptiveCadence ac = new AdaptiveCadence(100, 1000);
+        long now = 1000;
+        long[] expected = { 100, 200, 400, 800, 1000, 1000 };
+        for (long interval : expected) {
+            assertEquals(-1, ac.onFeedback(JobFeedback.IDLE, now));
+            assertEquals(interval, ac.getCurrentIntervalMs());
+            assertFalse(ac.isDue(now + interval - 1));
+            assertTrue(ac.isDue(now + interval));
+            now += interval;
+        }
+    }
+
+    public void testReset() {
+        AdaptiveCadence ac = new AdaptiveCadence(100, 1000);
+        ac.onFeedback(JobFeedback.IDLE, 1000);
+        ac.onFeedback(JobFeedback.IDLE, 1100);
+        assertEquals(-1, ac.onFeedback(JobFeedback.NONE, 1300));
+        assertEquals(0, ac.getCurrentIntervalMs());
+        assertTrue(ac.isDue(1300));
+        ac.onFeedback(JobFeedback.IDLE, 1300);
+        assertEquals(100, ac.getCurrentIntervalMs());
+    }
+}
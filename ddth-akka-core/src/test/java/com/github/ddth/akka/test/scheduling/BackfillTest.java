@@ -0,0 +1,119 @@
+package com.github.ddth.akka.test.scheduling;
+
+import com.github.ddth.akka.scheduling.Backfill;
+import com.github.ddth.akka.scheduling.CronFormat;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class BackfillTest extends TestCase {
+
+    public BackfillTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(BackfillTest.class);
+    }
+
+    private static long timestamp(int year, int month, int day, int hour, int minute, int second) {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(year, month - 1, day, hour, minute, second);
+        return cal.getTimeInMillis();
+    }
+
+    public void testListMatchesHourly() {
+        CronFormat cf = CronFormat.parse("0 0 *");
+        long from = timestamp(2019, 9, 1, 0, 0, 0);
+        List<Long> matches = cf.listMatches(from, from + TimeUnit.DAYS.toMillis(30));
+        assertEquals(30 * 24, matches.size());
+        for (long ts : matches) {
+            assertTrue(cf.matches(ts));
+        }
+    }
+
+    public void testListMatchesRange() {
+        CronFormat cf = CronFormat.parse("*/15 * *");
+        long from = timestamp(2019, 9, 1, 10, 20, 0);
+        // range is [from, to): the upper bound is excluded, the lower bound is rounded up to whole seconds
+        List<Long> matches = cf.listMatches(from + 1, from + 60000);
+        assertEquals(3, matches.size());
+        assertEquals(from + 15000, matches.get(0).longValue());
+        assertEquals(from + 45000, matches.get(2).longValue());
+    }
+
+    public void testListMatchesDayOfWeek() {
+        CronFormat cf = CronFormat.parse("0 30 8 * * Mon");
+        long from = timestamp(2019, 9, 1, 0, 0, 0);
+        List<Long> matches = cf.listMatches(from, timestamp(2019, 10, 1, 0, 0, 0));
+        // Mondays of September 2019: 2, 9, 16, 23, 30
+        assertEquals(5, matches.size());
+        assertEquals(timestamp(2019, 9, 2, 8, 30, 0), matches.get(0).longValue());
+    }
+
+    public void testBackfill() throws Exception {
+        List<Long> fireTimes = new ArrayList<>();
+        for (long i = 1; i <= 100; i++) {
+            fireTimes.add(i * 1000);
+        }
+        Set<Long> replayed = ConcurrentHashMap.newKeySet();
+        Backfill backfill = new Backfill("test", fireTimes, 4, tick -> {
+            long ts = tick.getTimestamp().getTime();
+            replayed.add(ts);
+            if (ts % 10000 == 0) {
+                throw new IllegalStateException("failed");
+            }
+            return ts % 3000 == 0 ? CompletableFuture.completedFuture(null) : null;
+        });
+        backfill.start().getFuture().get(10, TimeUnit.SECONDS);
+        assertEquals(100, replayed.size());
+        assertEquals(100, backfill.getTotal());
+        assertEquals(90, backfill.getSucceeded());
+        assertEquals(10, backfill.getFailed());
+        assertEquals(1.0, backfill.getProgress(), 0.0);
+    }
+
+    public void testBackfillBoundedAsync() throws Exception {
+        List<Long> fireTimes = new ArrayList<>();
+        for (long i = 1; i <= 50; i++) {
+            fireTimes.add(i * 1000);
+        }
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(8);
+        try {
+            AtomicInteger inFlight = new AtomicInteger(), maxInFlight = new AtomicInteger();
+            Backfill backfill = new Backfill("test", fireTimes, 3, tick -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                CompletableFuture<Void> stage = new CompletableFuture<>();
+                scheduler.schedule(() -> {
+                    inFlight.decrementAndGet();
+                    stage.complete(null);
+                }, 5, TimeUnit.MILLISECONDS);
+                return stage;
+            });
+            backfill.start().getFuture().get(10, TimeUnit.SECONDS);
+            assertEquals(50, backfill.getSucceeded());
+            assertEquals(3, maxInFlight.get());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void testBackfillEmpty() throws Exception {
+        Backfill backfill = new Backfill("test", new ArrayList<>(), 4, tick -> null);
+        assertTrue(backfill.start().getFuture().get(1, TimeUnit.SECONDS) == backfill);
+        assertEquals(0, backfill.getTotal());
+    }
+}
@@ -0,0 +1,233 @@
+package com.github.ddth.akka.test.scheduling;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.scheduling.BaseWorker;
+import com.github.ddth.akka.scheduling.TickMessage;
+import com.github.ddth.akka.scheduling.WorkerCoordinationPolicy;
+import com.github.ddth.akka.scheduling.annotation.Scheduling;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Lock handling of {@link WorkerCoordinationPolicy#GLOBAL_SINGLETON} workers: max run time and lease mode.
+ */
+public class GlobalSingletonLockTest extends TestCase {
+
+    public GlobalSingletonLockTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(GlobalSingletonLockTest.class);
+    }
+
+    /**
+     * A lock operation, as seen by the worker.
+     */
+    private static class LockEvent {
+        final String op;
+        final long timestamp = System.currentTimeMillis();
+
+        LockEvent(String op) {
+            this.op = op;
+        }
+    }
+
+    private final static List<LockEvent> events = new CopyOnWriteArrayList<>();
+    private static volatile long jobEnd;
+    private static volatile CountDownLatch jobDone;
+
+    /**
+     * Command to the test worker: execute a job run for a tick.
+     */
+    private static class Run {
+    }
+
+    @Scheduling(value = "0 0 0 1 1 *", workerCoordinationPolicy = WorkerCoordinationPolicy.GLOBAL_SINGLETON, executorPoolSize = 1)
+    public static class SingletonWorker extends BaseWorker {
+        private final long runTimeMs;
+        private final boolean renewFails;
+
+        public SingletonWorker(long runTimeMs, long maxRunTimeMs, boolean lease, long lockTimeMs, long guardMs,
+                boolean renewFails) {
+            this.runTimeMs = runTimeMs;
+            this.renewFails = renewFails;
+            setHandleMessageAsync(false);
+            setMaxRunTimeMs(maxRunTimeMs);
+            setLockLease(lease);
+            setLockDuration(lockTimeMs);
+            setLockReleaseGuardMs(guardMs);
+        }
+
+        @Override
+        protected void initActor() throws Exception {
+            super.initActor();
+            addMessageHandler(Run.class, msg -> {
+                doJobGlobalSingleton(new TickMessage());
+                sender().tell(Boolean.TRUE, self());
+            });
+        }
+
+        @Override
+        protected boolean lock(String lockId, long durationMs) {
+            boolean renewal = count("lock") > 0;
+            events.add(new LockEvent("lock"));
+            return renewal && renewFails ? false : super.lock(lockId, durationMs);
+        }
+
+        @Override
+        protected boolean lock(int lockWaitWeight, String lockId, long durationMs) {
+            return lock(lockId, durationMs);
+        }
+
+        @Override
+        protected boolean unlock(String lockId) {
+            events.add(new LockEvent("unlock"));
+            return super.unlock(lockId);
+        }
+
+        @Override
+        protected void doJob(String lockId, TickMessage tick) {
+            // ignore interruption
+            long end = System.currentTimeMillis() + runTimeMs;
+            while (System.currentTimeMillis() < end) {
+            }
+            jobEnd = System.currentTimeMillis();
+            jobDone.countDown();
+        }
+    }
+
+    private ActorSystem actorSystem;
+
+    @Override
+    protected void setUp() {
+        actorSystem = ActorSystem.create("global-singleton-lock-test");
+        events.clear();
+        jobEnd = 0;
+        jobDone = new CountDownLatch(1);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        actorSystem.terminate();
+        actorSystem.getWhenTerminated().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    private void run(long runTimeMs, long maxRunTimeMs, boolean lease, long lockTimeMs, long guardMs)
+            throws Exception {
+        run(runTimeMs, maxRunTimeMs, lease, lockTimeMs, guardMs, false);
+    }
+
+    private void run(long runTimeMs, long maxRunTimeMs, boolean lease, long lockTimeMs, long guardMs,
+            boolean renewFails) throws Exception {
+        ActorRef worker = actorSystem.actorOf(
+                Props.create(SingletonWorker.class, runTimeMs, maxRunTimeMs, lease, lockTimeMs, guardMs, renewFails),
+                "worker");
+        assertEquals(Boolean.TRUE,
+                Patterns.ask(worker, new Run(), java.time.Duration.ofSeconds(5)).toCompletableFuture().get());
+    }
+
+    private static long count(String op) {
+        return events.stream().filter(e -> e.op.equals(op)).count();
+    }
+
+    private LockEvent first(String op) {
+        return events.stream().filter(e -> e.op.equals(op)).findFirst().orElse(null);
+    }
+
+    private LockEvent last(String op) {
+        return events.stream().filter(e -> e.op.equals(op)).reduce((a, b) -> b).orElse(null);
+    }
+
+    /**
+     * Longest delay between two consecutive lock (re)acquisitions.
+     */
+    private long maxLockGap() {
+        long result = 0, prev = 0;
+        for (LockEvent e : events) {
+            if (e.op.equals("lock")) {
+                if (prev > 0) {
+                    result = Math.max(result, e.timestamp - prev);
+                }
+                prev = e.timestamp;
+            }
+        }
+        return result;
+    }
+
+    public void testTimeoutReleasesLockRightAway() throws Exception {
+        run(1500, 200, false, 60000, 1000);
+        assertTrue(jobDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(1200);
+        LockEvent unlock = first("unlock");
+        assertNotNull("Lock must be released on timeout", unlock);
+        // released at timeout, without guard, while the job was still running
+        assertTrue(unlock.timestamp - first("lock").timestamp < 1000);
+        assertTrue(unlock.timestamp < jobEnd);
+        // released only once
+        assertEquals(1, count("unlock"));
+    }
+
+    public void testTimeoutStopsLease() throws Exception {
+        run(1500, 300, true, 150, 0);
+        Thread.sleep(400);
+        long renewalsAtTimeout = count("lock");
+        assertTrue("Lock must be renewed before timeout", renewalsAtTimeout > 1);
+        assertEquals("Lock must be released on timeout", 1, count("unlock"));
+        // the job keeps running, ignoring interruption, but the lease is not renewed anymore
+        assertTrue(jobDone.await(5, TimeUnit.SECONDS));
+        assertEquals(renewalsAtTimeout, count("lock"));
+        assertEquals(1, count("unlock"));
+    }
+
+    public void testLeaseRenewedWhileRunning() throws Exception {
+        run(1000, 0, true, 150, 0);
+        assertTrue(jobDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        // the run outlasts the lock's duration, the lock is renewed every 50ms until the run ends
+        assertTrue("Renewed " + (count("lock") - 1) + " times", count("lock") > 10);
+        assertTrue(last("lock").timestamp - first("lock").timestamp > 150);
+        assertTrue(jobEnd - last("lock").timestamp < 150);
+        assertTrue("Lock not renewed for " + maxLockGap() + "ms", maxLockGap() < 150);
+        // released once, after the run, and not renewed anymore
+        assertEquals(1, count("unlock"));
+        assertTrue(first("unlock").timestamp >= jobEnd);
+        assertTrue(last("lock").timestamp <= first("unlock").timestamp);
+    }
+
+    public void testLeaseReleasedWithinGuardAfterRun() throws Exception {
+        run(500, 0, true, 600, 400);
+        assertTrue(jobDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        // renewed during the run; the lease has ended, the lock is held during the guard
+        long renewalsAtEnd = count("lock");
+        assertTrue(renewalsAtEnd > 1);
+        assertEquals(0, count("unlock"));
+        Thread.sleep(700);
+        assertEquals(renewalsAtEnd, count("lock"));
+        assertEquals(1, count("unlock"));
+        long releasedAfter = first("unlock").timestamp - jobEnd;
+        assertTrue("Released " + releasedAfter + "ms after the run", releasedAfter >= 390 && releasedAfter < 700);
+    }
+
+    public void testLeaseStopsWhenRenewalFails() throws Exception {
+        run(800, 0, true, 150, 0, true);
+        assertTrue(jobDone.await(5, TimeUnit.SECONDS));
+        Thread.sleep(200);
+        // acquisition, then one failed renewal: the lease is lost and not renewed anymore, the run goes on
+        assertEquals(2, count("lock"));
+        assertTrue(last("lock").timestamp - first("lock").timestamp < 150);
+        assertEquals(1, count("unlock"));
+        assertTrue(first("unlock").timestamp >= jobEnd);
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.ddth.akka.test.scheduling;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import akka.pattern.Patterns;
+import com.github.ddth.akka.scheduling.BaseWorker;
+import com.github.ddth.akka.scheduling.JobFeedback;
+import com.github.ddth.akka.scheduling.TickMessage;
+import com.github.ddth.akka.scheduling.annotation.Scheduling;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+/**
+ * Feedback reported by a job run must not leak into other (overlapping) runs.
+ */
+public class JobFeedbackTest extends TestCase {
+
+    public JobFeedbackTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(JobFeedbackTest.class);
+    }
+
+    private final static String TICK_REPORTING = "reporting";
+    private final static String TICK_SILENT = "silent";
+    private final static Object NO_RESULT = new Object();
+
+    private final static Map<String, Object> results = new ConcurrentHashMap<>();
+    private static volatile CountDownLatch silentDone, allDone;
+
+    /**
+     * Command to the test worker: execute a job run for a tick.
+     */
+    private static class Run {
+        final String tickId;
+
+        Run(String tickId) {
+            this.tickId = tickId;
+        }
+    }
+
+    @Scheduling(value = "0 0 0 1 1 *", executorPoolSize = 2, adaptiveMinInterval = 3600000, adaptiveMaxInterval = 3600000)
+    public static class FeedbackWorker extends BaseWorker {
+        public FeedbackWorker() {
+            setHandleMessageAsync(false);
+        }
+
+        @Override
+        protected void initActor() throws Exception {
+            super.initActor();
+            addMessageHandler(Run.class, msg -> executeJob(null, new TickMessage(msg.tickId)));
+            addMessageHandler(JobFeedback.class, msg -> {
+                // not from a job run: ignored
+                reportJobFeedback(msg);
+                sender().tell(Boolean.TRUE, self());
+            });
+        }
+
+        @Override
+        protected void doJob(String lockId, TickMessage tick) throws Exception {
+            if (TICK_REPORTING.equals(tick.getId())) {
+                reportJobFeedback(JobFeedback.MORE_WORK);
+                // finish after the silent run
+                silentDone.await(10, TimeUnit.SECONDS);
+            }
+        }
+
+        @Override
+        protected void onJobFeedback(TickMessage tick, Object result, Throwable error) {
+            results.put(tick.getId(), result != null ? result : NO_RESULT);
+            if (TICK_SILENT.equals(tick.getId())) {
+                silentDone.countDown();
+            }
+            allDone.countDown();
+            super.onJobFeedback(tick, result, error);
+        }
+    }
+
+    private ActorSystem actorSystem;
+
+    @Override
+    protected void setUp() {
+        actorSystem = ActorSystem.create("job-feedback-test");
+        results.clear();
+        silentDone = new CountDownLatch(1);
+        allDone = new CountDownLatch(2);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        actorSystem.terminate();
+        actorSystem.getWhenTerminated().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    public void testFeedbackPerRun() throws Exception {
+        ActorRef worker = actorSystem.actorOf(Props.create(FeedbackWorker.class), "feedback-worker");
+        assertEquals(Boolean.TRUE, Patterns.ask(worker, JobFeedback.IDLE, java.time.Duration.ofSeconds(5))
+                .toCompletableFuture().get());
+        worker.tell(new Run(TICK_REPORTING), ActorRef.noSender());
+        worker.tell(new Run(TICK_SILENT), ActorRef.noSender());
+        assertTrue(allDone.await(10, TimeUnit.SECONDS));
+        assertEquals(JobFeedback.MORE_WORK, results.get(TICK_REPORTING));
+        // neither the reporting run, nor the report from outside a run, is seen by the silent run
+        assertSame(NO_RESULT, results.get(TICK_SILENT));
+    }
+}
@@ -0,0 +1,85 @@
+package com.github.ddth.akka.test.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.github.ddth.akka.scheduling.PartitionAssignment;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class PartitionAssignmentTest extends TestCase {
+
+    public PartitionAssignmentTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(PartitionAssignmentTest.class);
+    }
+
+    private static List<String> nodes(int numNodes) {
+        List<String> nodes = new ArrayList<>();
+        for (int i = 0; i < numNodes; i++) {
+            nodes.add("akka://cluster@10.0.0." + (i + 1) + ":2551");
+        }
+        return nodes;
+    }
+
+    private static int[] owners(List<String> nodes, int partitionCount) {
+        int[] owners = new int[partitionCount];
+        Arrays.fill(owners, -1);
+        for (int i = 0; i < nodes.size(); i++) {
+            PartitionAssignment pa = PartitionAssignment.compute(nodes.get(i), nodes, partitionCount);
+            assertEquals(nodes.size(), pa.getNodeCount());
+            for (int p : pa.getPartitions()) {
+                assertEquals("Partition " + p + " is assigned twice", -1, owners[p]);
+                owners[p] = i;
+            }
+        }
+        return owners;
+    }
+
+    public void testSingle() {
+        PartitionAssignment pa = PartitionAssignment.single(8);
+        assertEquals(8, pa.getPartitionCount());
+        assertEquals(8, pa.getPartitions().length);
+        assertEquals(0, pa.getNodeIndex());
+        assertEquals(1, pa.getNodeCount());
+        assertTrue(pa.ownsKey(12345));
+    }
+
+    public void testAllPartitionsAssigned() {
+        List<String> nodes = nodes(12);
+        int[] owners = owners(nodes, 64);
+        for (int p = 0; p < owners.length; p++) {
+            assertTrue("Partition " + p + " is not assigned", owners[p] >= 0);
+        }
+    }
+
+    public void testStable() {
+        List<String> nodes = nodes(5);
+        List<String> shuffled = new ArrayList<>(nodes);
+        java.util.Collections.reverse(shuffled);
+        for (String node : nodes) {
+            assertTrue(Arrays.equals(PartitionAssignment.compute(node, nodes, 64).getPartitions(),
+                    PartitionAssignment.compute(node, shuffled, 64).getPartitions()));
+        }
+    }
+
+    public void testMinimalMovement() {
+        List<String> nodes = nodes(6);
+        int[] before = owners(nodes, 256);
+        String removed = nodes.remove(3);
+        int[] after = owners(nodes, 256);
+        List<String> all = nodes(6);
+        for (int p = 0; p < before.length; p++) {
+            if (!all.get(before[p]).equals(removed)) {
+                // partitions of remaining nodes must not move
+                assertEquals(all.get(before[p]), nodes.get(after[p]));
+            }
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.ddth.akka.test.scheduling;
+
+import com.github.ddth.akka.scheduling.RetryPolicy;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class RetryPolicyTest extends TestCase {
+
+    public RetryPolicyTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(RetryPolicyTest.class);
+    }
+
+    public void testNone() {
+        assertFalse(RetryPolicy.NONE.shouldRetry(new IOException(), 1));
+    }
+
+    public void testMaxAttempts() {
+        RetryPolicy policy = new RetryPolicy(3, 100, 1000, 0.0);
+        assertTrue(policy.shouldRetry(new IOException(), 1));
+        assertTrue(policy.shouldRetry(new IOException(), 2));
+        assertFalse(policy.shouldRetry(new IOException(), 3));
+    }
+
+    public void testDefaultRetryable() {
+        RetryPolicy policy = new RetryPolicy(3, 100, 1000, 0.0);
+        assertTrue(policy.shouldRetry(new CompletionException(new IOException()), 1));
+        assertFalse(policy.shouldRetry(new TimeoutException(), 1));
+        assertFalse(policy.shouldRetry(new RejectedExecutionException(), 1));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void testRetryOn() {
+        RetryPolicy policy = new RetryPolicy(3, 100, 1000, 0.0,
+                (Class<? extends Throwable>[]) new Class<?>[] { IOException.class });
+        assertTrue(policy.shouldRetry(new IOException(), 1));
+        assertTrue(policy.shouldRetry(new CompletionException(new IOException()), 1));
+        assertFalse(policy.shouldRetry(new IllegalStateException(), 1));
+    }
+
+    public void testBackoff() {
+        RetryPolicy policy = new RetryPolicy(10, 100, 1000, 0.0);
+        assertEquals(100, policy.nextBackoffMs(1));
+        assertEquals(200, policy.nextBackoffMs(2));
+        assertEquals(400, policy.nextBackoffMs(3));
+        assertEquals(800, policy.nextBackoffMs(4));
+        assertEquals(1000, policy.nextBackoffMs(5));
+        assertEquals(1000, policy.getBackoffMs(100));
+        assertEquals(Long.MAX_VALUE, new RetryPolicy(100, 100, 0, 0.0).getBackoffMs(100));
+    }
+
+    public void testJitter() {
+        RetryPolicy policy = new RetryPolicy(10, 1000, 0, 0.5);
+        for (int i = 0; i < 1000; i++) {
+            long backoff = policy.nextBackoffMs(2);
+            assertTrue(backoff > 1000 && backoff <= 2000);
+        }
+    }
+}
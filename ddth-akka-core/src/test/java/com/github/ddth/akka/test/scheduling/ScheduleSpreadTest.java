@@ -0,0 +1,70 @@
+package com.github.ddth.akka.test.scheduling;
+
+import com.github.ddth.akka.scheduling.ScheduleSpread;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class ScheduleSpreadTest extends TestCase {
+
+    public ScheduleSpreadTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(ScheduleSpreadTest.class);
+    }
+
+    public void testParse() {
+        assertTrue(ScheduleSpread.parse("") == ScheduleSpread.NONE);
+        ScheduleSpread spread = ScheduleSpread.parse("30s");
+        assertEquals(0, spread.getMinSeconds());
+        assertEquals(30, spread.getMaxSeconds());
+        spread = ScheduleSpread.parse("10-50");
+        assertEquals(10, spread.getMinSeconds());
+        assertEquals(50, spread.getMaxSeconds());
+        spread = ScheduleSpread.parse("1-5m");
+        assertEquals(60, spread.getMinSeconds());
+        assertEquals(300, spread.getMaxSeconds());
+    }
+
+    public void testParseInvalid() {
+        String[] inputs = { "abc", "-5", "50-10", "5d" };
+        for (String input : inputs) {
+            try {
+                ScheduleSpread.parse(input);
+                fail("Expected IllegalArgumentException for [" + input + "]");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    public void testOffsetWithinWindow() {
+        ScheduleSpread spread = ScheduleSpread.parse("10-50s");
+        for (int i = 0; i < 1000; i++) {
+            long offset = spread.offsetMs("worker-" + i);
+            assertTrue(offset >= 10000 && offset <= 50000);
+            assertEquals(0, offset % 1000);
+        }
+        assertEquals(0, ScheduleSpread.NONE.offsetMs("worker"));
+    }
+
+    public void testOffsetStable() {
+        ScheduleSpread spread = ScheduleSpread.parse("0-59s");
+        assertEquals(spread.offsetMs("worker"), ScheduleSpread.parse("0-59s").offsetMs("worker"));
+    }
+
+    public void testOffsetSpread() {
+        ScheduleSpread spread = ScheduleSpread.parse("0-59s");
+        Set<Long> offsets = new HashSet<>();
+        for (int i = 0; i < 100; i++) {
+            offsets.add(spread.offsetMs("worker-" + i));
+        }
+        assertTrue(offsets.size() > 30);
+    }
+}
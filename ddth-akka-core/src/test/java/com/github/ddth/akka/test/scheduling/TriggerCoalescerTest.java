@@ -0,0 +1,45 @@
+package com.github.ddth.akka.test.scheduling;
+
+import com.github.ddth.akka.scheduling.TriggerCoalescer;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class TriggerCoalescerTest extends TestCase {
+
+    public TriggerCoalescerTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(TriggerCoalescerTest.class);
+    }
+
+    public void testNoCoalescing() {
+        assertEquals(1000, TriggerCoalescer.dueTime(0, 0, 0, 900, 1000, 500));
+    }
+
+    public void testDebounce() {
+        assertEquals(1200, TriggerCoalescer.dueTime(200, 0, 0, 100, 1000, 0));
+    }
+
+    public void testDebounceMaxWait() {
+        // debounced run is postponed no more than max-wait after the first pending event
+        assertEquals(600, TriggerCoalescer.dueTime(200, 0, 500, 100, 1000, 0));
+        assertEquals(1200, TriggerCoalescer.dueTime(200, 0, 5000, 100, 1000, 0));
+    }
+
+    public void testThrottle() {
+        // first event fires right away
+        assertEquals(1000, TriggerCoalescer.dueTime(0, 300, 0, 1000, 1000, 0));
+        // at most one run per throttle period
+        assertEquals(1100, TriggerCoalescer.dueTime(0, 300, 0, 1000, 1000, 800));
+        assertEquals(1000, TriggerCoalescer.dueTime(0, 300, 0, 1000, 1000, 500));
+    }
+
+    public void testDebounceThrottle() {
+        assertEquals(1500, TriggerCoalescer.dueTime(200, 1000, 0, 1000, 1000, 500));
+        assertEquals(1200, TriggerCoalescer.dueTime(200, 1000, 0, 1000, 1000, 100));
+    }
+}
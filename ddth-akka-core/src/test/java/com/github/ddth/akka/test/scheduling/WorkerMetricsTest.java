@@ -0,0 +1,138 @@
+package com.github.ddth.akka.test.scheduling;
+
+import com.github.ddth.akka.scheduling.WorkerMetrics;
+import com.github.ddth.akka.scheduling.WorkerMetrics.Histogram;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class WorkerMetricsTest extends TestCase {
+
+    public WorkerMetricsTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(WorkerMetricsTest.class);
+    }
+
+    public void testHistogramBuckets() {
+        Histogram h = new Histogram();
+        h.record(-5);
+        h.record(1);
+        h.record(3);
+        h.record(150);
+        h.record(Long.MAX_VALUE / 2);
+        long[] counts = h.getCounts();
+        assertEquals(Histogram.BUCKETS.length, counts.length);
+        // -5 is recorded as 0, in the first bucket (<= 1ms), together with 1
+        assertEquals(2, counts[0]);
+        // 3 falls into (2, 5]
+        assertEquals(1, counts[2]);
+        // 150 falls into (100, 200]
+        assertEquals(1, counts[7]);
+        assertEquals(1, counts[counts.length - 1]);
+        assertEquals(5, h.getCount());
+        assertEquals(Long.MAX_VALUE / 2, h.getMax());
+    }
+
+    public void testHistogramStats() {
+        Histogram h = new Histogram();
+        assertEquals(0.0, h.getMean(), 0.0);
+        assertEquals(0, h.getPercentile(99));
+        for (int i = 1; i <= 100; i++) {
+            h.record(i);
+        }
+        assertEquals(5050, h.getSum());
+        assertEquals(50.5, h.getMean(), 1e-9);
+        assertEquals(100, h.getMax());
+        // percentiles are upper bounds of buckets, capped by max
+        assertEquals(50, h.getPercentile(50));
+        assertEquals(100, h.getPercentile(99));
+        assertEquals(1, h.getPercentile(1));
+        h.reset();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.getMax());
+    }
+
+    public void testRecordAndSnapshot() {
+        WorkerMetrics metrics = new WorkerMetrics("test");
+        metrics.recordRunStart(10);
+        metrics.recordRunFinish(150, 2000000);
+        metrics.recordRunStart(20);
+        metrics.recordRunFinish(300, -1);
+        metrics.recordRunFailure(false);
+        metrics.recordRunFailure(true);
+        metrics.recordLock(3, true);
+        metrics.recordLock(30, false);
+        metrics.recordBusy(true);
+        metrics.recordBusy(false);
+        metrics.recordBusy(false);
+        metrics.recordTickRejectedLate();
+        metrics.recordTickRejectedDuplicate();
+
+        assertEquals(2, metrics.getRunCount());
+        assertEquals(1, metrics.getRunFailureCount());
+        assertEquals(1, metrics.getRunTimeoutCount());
+        assertEquals(225.0, metrics.getRunDurationMean(), 1e-9);
+        assertEquals(300, metrics.getRunDurationMax());
+        assertEquals(2, metrics.getCpuTimeTotal());
+        assertEquals(1, metrics.getLockAcquiredCount());
+        assertEquals(1, metrics.getLockFailureCount());
+        assertEquals(1, metrics.getBusyGlobalCount());
+        assertEquals(2, metrics.getBusyLocalCount());
+        assertEquals(1, metrics.getTickRejectedLateCount());
+        assertEquals(1, metrics.getTickRejectedDuplicateCount());
+
+        WorkerMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals("test", snapshot.name);
+        assertEquals(2, snapshot.runCount);
+        assertEquals(200, snapshot.runDurationPercentile(50));
+        assertEquals(300, snapshot.runDurationPercentile(100));
+        assertEquals(20, snapshot.schedulingLagPercentile(100));
+        assertEquals(2L, snapshot.toMap().get("run_count"));
+
+        // snapshot is not affected by later records nor by reset
+        metrics.reset();
+        assertEquals(0, metrics.getRunCount());
+        assertEquals(0, metrics.getLockAcquiredCount());
+        assertEquals(2, snapshot.runCount);
+    }
+
+    public void testMBeanRegistration() throws Exception {
+        String name = "worker-metrics-test \"quoted\"";
+        MBeanServer mbs = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName(WorkerMetrics.JMX_DOMAIN + ":type=WorkerMetrics,name=" + ObjectName
+                .quote(name));
+        WorkerMetrics metrics = new WorkerMetrics(name).registerMBean();
+        try {
+            assertSame(metrics, WorkerMetrics.get(name));
+            assertTrue(WorkerMetrics.getAll().contains(metrics));
+            assertTrue(mbs.isRegistered(objectName));
+            metrics.recordRunStart(0);
+            assertEquals(1L, mbs.getAttribute(objectName, "RunCount"));
+            assertEquals(name, mbs.getAttribute(objectName, "Name"));
+
+            // re-registering the same name replaces the previous MBean
+            WorkerMetrics replacement = new WorkerMetrics(name).registerMBean();
+            assertSame(replacement, WorkerMetrics.get(name));
+            assertEquals(0L, mbs.getAttribute(objectName, "RunCount"));
+            // unregistering the stale instance keeps the replacement registered
+            metrics.unregisterMBean();
+            assertSame(replacement, WorkerMetrics.get(name));
+            assertTrue(mbs.isRegistered(objectName));
+            metrics = replacement;
+
+            mbs.invoke(objectName, "reset", null, null);
+        } finally {
+            metrics.unregisterMBean();
+        }
+        assertNull(WorkerMetrics.get(name));
+        assertFalse(mbs.isRegistered(objectName));
+    }
+}
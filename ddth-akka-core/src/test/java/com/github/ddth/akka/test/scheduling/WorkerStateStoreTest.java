@@ -0,0 +1,152 @@
+package com.github.ddth.akka.test.scheduling;
+
+import com.github.ddth.akka.scheduling.state.InmemWorkerStateStore;
+import com.github.ddth.akka.scheduling.state.JdbcWorkerStateStore;
+import com.github.ddth.akka.scheduling.state.MmapWorkerStateStore;
+import com.github.ddth.akka.scheduling.state.WorkerState;
+import com.github.ddth.akka.scheduling.state.WorkerStateStore;
+import org.h2.jdbcx.JdbcDataSource;
+
+import javax.sql.DataSource;
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Arrays;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+public class WorkerStateStoreTest extends TestCase {
+
+    public WorkerStateStoreTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(WorkerStateStoreTest.class);
+    }
+
+    private static void assertState(WorkerState state, long lastRun, long lastSuccess, byte[] cursor) {
+        assertTrue(state != null);
+        assertEquals(lastRun, state.getLastRunTimestamp());
+        assertEquals(lastSuccess, state.getLastSuccessTimestamp());
+        assertTrue(Arrays.equals(cursor, state.getCursor()));
+    }
+
+    public void testInmem() {
+        try (WorkerStateStore store = new InmemWorkerStateStore()) {
+            assertTrue(store.get("worker") == null);
+            store.put(new WorkerState("worker").withRun(1).withSuccess(2, new byte[] { 1, 2 }));
+            assertState(store.get("worker"), 1, 2, new byte[] { 1, 2 });
+        }
+    }
+
+    public void testMmap() throws Exception {
+        File file = File.createTempFile("worker-state", ".dat");
+        file.delete();
+        try {
+            try (MmapWorkerStateStore store = new MmapWorkerStateStore(file).setInitialCapacity(256).init()) {
+                // writes are batched: state is visible before being flushed
+                store.put(new WorkerState("worker1").withRun(10));
+                assertState(store.get("worker1"), 10, 0, new byte[0]);
+                // enough writes to trigger compaction
+                for (int i = 1; i <= 100; i++) {
+                    store.put(new WorkerState("worker2").withRun(i).withSuccess(i + 1, new byte[] { (byte) i }));
+                    store.flush();
+                }
+            }
+            try (MmapWorkerStateStore store = new MmapWorkerStateStore(file).setInitialCapacity(256).init()) {
+                assertState(store.get("worker1"), 10, 0, new byte[0]);
+                assertState(store.get("worker2"), 100, 101, new byte[] { 100 });
+                assertTrue(store.get("worker3") == null);
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
+    private static JdbcDataSource createH2DataSource(String dbName) throws Exception {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL("jdbc:h2:mem:" + dbName + ";DB_CLOSE_DELAY=-1");
+        try (Connection conn = ds.getConnection(); Statement stm = conn.createStatement()) {
+            stm.execute("CREATE TABLE worker_state (worker_name VARCHAR(255) NOT NULL PRIMARY KEY,"
+                    + " last_run BIGINT NOT NULL, last_success BIGINT NOT NULL, job_cursor VARBINARY(4096))");
+        }
+        return ds;
+    }
+
+    /**
+     * Wrap a data source so that batched statements report {@link Statement#SUCCESS_NO_INFO} (as some drivers do).
+     */
+    private static DataSource noInfoBatchDataSource(DataSource ds) {
+        ClassLoader cl = WorkerStateStoreTest.class.getClassLoader();
+        return (DataSource) Proxy.newProxyInstance(cl, new Class<?>[] { DataSource.class }, (p1, m1, a1) -> {
+            Object result = invoke(m1, ds, a1);
+            if (!(result instanceof Connection)) {
+                return result;
+            }
+            Connection conn = (Connection) result;
+            return Proxy.newProxyInstance(cl, new Class<?>[] { Connection.class }, (p2, m2, a2) -> {
+                Object r = invoke(m2, conn, a2);
+                if (!(r instanceof PreparedStatement)) {
+                    return r;
+                }
+                PreparedStatement pstm = (PreparedStatement) r;
+                return Proxy.newProxyInstance(cl, new Class<?>[] { PreparedStatement.class }, (p3, m3, a3) -> {
+                    Object counts = invoke(m3, pstm, a3);
+                    if ("executeBatch".equals(m3.getName())) {
+                        Arrays.fill((int[]) counts, Statement.SUCCESS_NO_INFO);
+                    }
+                    return counts;
+                });
+            });
+        });
+    }
+
+    private static Object invoke(java.lang.reflect.Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    public void testJdbc() throws Exception {
+        JdbcDataSource ds = createH2DataSource("worker_state");
+        try (JdbcWorkerStateStore store = new JdbcWorkerStateStore(ds).init()) {
+            store.put(new WorkerState("worker1").withRun(1));
+            store.put(new WorkerState("worker2").withRun(2).withSuccess(3, new byte[] { 3 }));
+            store.flush();
+            store.put(new WorkerState("worker2").withRun(4).withSuccess(5, new byte[] { 5 }));
+        }
+        try (JdbcWorkerStateStore store = new JdbcWorkerStateStore(ds).init()) {
+            assertState(store.get("worker1"), 1, 0, new byte[0]);
+            assertState(store.get("worker2"), 4, 5, new byte[] { 5 });
+            assertTrue(store.get("worker3") == null);
+        }
+    }
+
+    public void testJdbcBatchNoInfo() throws Exception {
+        JdbcDataSource h2 = createH2DataSource("worker_state_noinfo");
+        DataSource ds = noInfoBatchDataSource(h2);
+        try (JdbcWorkerStateStore store = new JdbcWorkerStateStore(ds).init()) {
+            // update batch reports no info: new states must still be inserted
+            store.put(new WorkerState("worker1").withRun(1));
+            store.put(new WorkerState("worker2").withRun(2).withSuccess(3, new byte[] { 3 }));
+            store.flush();
+            // update of existing state must not be inserted again (primary key violation)
+            store.put(new WorkerState("worker2").withRun(4).withSuccess(5, new byte[] { 5 }));
+            store.put(new WorkerState("worker3").withRun(6));
+            store.flush();
+        }
+        try (JdbcWorkerStateStore store = new JdbcWorkerStateStore(h2).init()) {
+            assertState(store.get("worker1"), 1, 0, new byte[0]);
+            assertState(store.get("worker2"), 4, 5, new byte[] { 5 });
+            assertState(store.get("worker3"), 6, 0, new byte[0]);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.github.ddth.akka.test.scheduling;
+
+import akka.actor.ActorSystem;
+import com.github.ddth.akka.scheduling.WorkerUtils;
+
+import junit.framework.Test;
+import junit.framework.TestCase;
+import junit.framework.TestSuite;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class WorkerUtilsTest extends TestCase {
+
+    public WorkerUtilsTest(String testName) {
+        super(testName);
+    }
+
+    public static Test suite() {
+        return new TestSuite(WorkerUtilsTest.class);
+    }
+
+    private ActorSystem actorSystem;
+    private ExecutorService executor;
+
+    @Override
+    protected void setUp() {
+        actorSystem = ActorSystem.create("worker-utils-test");
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        executor.shutdownNow();
+        actorSystem.terminate();
+        actorSystem.getWhenTerminated().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+
+    private static void busyWait(long ms) {
+        long end = System.currentTimeMillis() + ms;
+        while (System.currentTimeMillis() < end) {
+            // ignore interruption
+        }
+    }
+
+    public void testTimeoutReleasesLockRightAway() throws Exception {
+        Semaphore lock = new Semaphore(1);
+        assertTrue(lock.tryAcquire());
+        AtomicReference<Long> jobEnd = new AtomicReference<>();
+        CompletableFuture<Void> result = WorkerUtils
+                .runJobAsync(executor, actorSystem.scheduler(), actorSystem.dispatcher(), 100, false, () -> {
+                    busyWait(500);
+                    jobEnd.set(System.currentTimeMillis());
+                    return null;
+                }, e -> lock.release()).thenApply(r -> null);
+        // lock is released as soon as the job times out, while the job (ignoring interruption) is still running
+        assertTrue(lock.tryAcquire(400, TimeUnit.MILLISECONDS));
+        assertNull(jobEnd.get());
+        assertFalse(result.isDone());
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("TimeoutException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        // the result completes only when the thread returns
+        assertNotNull(jobEnd.get());
+    }
+
+    public void testTimeoutCancelsStage() throws Exception {
+        CompletableFuture<Object> stage = new CompletableFuture<>();
+        CountDownLatch timedOut = new CountDownLatch(1);
+        CompletableFuture<Object> result = WorkerUtils
+                .runJobAsync(executor, actorSystem.scheduler(), actorSystem.dispatcher(), 100, false, () -> stage,
+                        e -> timedOut.countDown());
+        assertTrue(timedOut.await(1, TimeUnit.SECONDS));
+        try {
+            result.get(5, TimeUnit.SECONDS);
+            fail("TimeoutException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        assertTrue(stage.isCancelled());
+    }
+
+    public void testNoTimeout() throws Exception {
+        AtomicReference<Boolean> timedOut = new AtomicReference<>(false);
+        CompletableFuture<Object> result = WorkerUtils
+                .runJobAsync(executor, actorSystem.scheduler(), actorSystem.dispatcher(), 1000, false,
+                        () -> CompletableFuture.completedFuture("done"), e -> timedOut.set(true));
+        assertEquals("done", result.get(5, TimeUnit.SECONDS));
+        Thread.sleep(1200);
+        assertFalse(timedOut.get());
+    }
+
+    public void testLeaseRenews() throws Exception {
+        AtomicInteger renewals = new AtomicInteger();
+        AtomicInteger lost = new AtomicInteger();
+        WorkerUtils.Lease lease = new WorkerUtils.Lease(() -> renewals.incrementAndGet() > 0, lost::incrementAndGet)
+                .start(actorSystem.scheduler(), actorSystem.dispatcher(), 100);
+        Thread.sleep(550);
+        assertTrue("Renewed " + renewals.get() + " times", renewals.get() >= 3);
+        assertFalse(lease.isEnded());
+        lease.end();
+        assertTrue(lease.isEnded());
+        int renewalsAtEnd = renewals.get();
+        Thread.sleep(300);
+        // not renewed anymore once ended
+        assertEquals(renewalsAtEnd, renewals.get());
+        assertEquals(0, lost.get());
+    }
+
+    public void testLeaseStopsWhenRenewalFails() throws Exception {
+        AtomicInteger renewals = new AtomicInteger();
+        CountDownLatch lost = new CountDownLatch(1);
+        WorkerUtils.Lease lease = new WorkerUtils.Lease(() -> renewals.incrementAndGet() < 3, lost::countDown)
+                .start(actorSystem.scheduler(), actorSystem.dispatcher(), 50);
+        assertTrue(lost.await(1, TimeUnit.SECONDS));
+        assertTrue(lease.isEnded());
+        Thread.sleep(300);
+        // the failed renewal is the last one
+        assertEquals(3, renewals.get());
+    }
+
+    public void testLeaseStopsWhenRenewalThrows() throws Exception {
+        AtomicInteger renewals = new AtomicInteger();
+        CountDownLatch lost = new CountDownLatch(1);
+        WorkerUtils.Lease lease = new WorkerUtils.Lease(() -> {
+            renewals.incrementAndGet();
+            throw new IllegalStateException();
+        }, lost::countDown).start(actorSystem.scheduler(), actorSystem.dispatcher(), 50);
+        assertTrue(lost.await(1, TimeUnit.SECONDS));
+        assertTrue(lease.isEnded());
+        Thread.sleep(300);
+        assertEquals(1, renewals.get());
+    }
+
+    public void testReleaseLockAfterGuard() throws Exception {
+        CountDownLatch released = new CountDownLatch(1);
+        long start = System.currentTimeMillis();
+        assertTrue(WorkerUtils
+                .releaseLock(actorSystem.scheduler(), actorSystem.dispatcher(), 300, released::countDown));
+        assertFalse(released.await(200, TimeUnit.MILLISECONDS));
+        assertTrue(released.await(1, TimeUnit.SECONDS));
+        long elapsed = System.currentTimeMillis() - start;
+        assertTrue("Released after " + elapsed + "ms", elapsed >= 300 && elapsed < 800);
+    }
+
+    public void testReleaseLockWithoutGuard() {
+        AtomicInteger released = new AtomicInteger();
+        assertTrue(WorkerUtils.releaseLock(actorSystem.scheduler(), actorSystem.dispatcher(), 0,
+                released::incrementAndGet));
+        assertEquals(1, released.get());
+        // no scheduler: released right away
+        assertFalse(WorkerUtils.releaseLock(null, actorSystem.dispatcher(), 300, released::incrementAndGet));
+        assertEquals(2, released.get());
+    }
+}